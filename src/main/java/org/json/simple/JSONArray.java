@@ -10,8 +10,8 @@ import org.jetbrains.annotations.Unmodifiable;
 import org.jetbrains.annotations.UnmodifiableView;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Serial;
-import java.io.StringWriter;
 import java.io.Writer;
 import java.util.*;
 import java.util.function.*;
@@ -88,6 +88,18 @@ public class JSONArray extends ArrayList<Object> implements JSONAware, JSONStrea
         out.write(']');
     }
 
+    /**
+     * Encode a list into JSON text like {@link #writeJSONString(Collection, Writer)}, and write it to out as UTF-8
+     * bytes. The stream is flushed, and not closed.
+     *
+     * @see JSONUtf8Writer
+     */
+    public static void writeJSONString(@Nullable Collection<?> collection, @NotNull OutputStream out) throws IOException {
+        JSONUtf8Writer writer = new JSONUtf8Writer(out);
+        writeJSONString(collection, writer);
+        writer.flush();
+    }
+
     /**
      * Convert a list to JSON text. The result is a JSON array.
      * If this list is also a JSONAware, JSONAware specific behaviours will be omitted at this top level.
@@ -98,13 +110,13 @@ public class JSONArray extends ArrayList<Object> implements JSONAware, JSONStrea
      */
     @NotNull
     public static String toJSONString(@Nullable Collection<Object> collection) {
-        final StringWriter writer = new StringWriter();
+        final StringBuilderWriter writer = StringBuilderWriter.presized(collection);
 
         try {
             writeJSONString(collection, writer);
             return writer.toString();
         } catch (IOException e) {
-            // This should never happen for a StringWriter
+            // This should never happen for an in-memory writer
             throw new RuntimeException(e);
         }
     }
@@ -115,12 +127,14 @@ public class JSONArray extends ArrayList<Object> implements JSONAware, JSONStrea
         } else if (array.length == 0) {
             out.write("[]");
         } else {
-            out.write("[");
-            out.write(String.valueOf(array[0]));
+            // the comma is formatted in front of the number, every element is written at once
+            final char[] buf = NumberWriter.buffer(out);
+            out.write('[');
+            out.write(buf, 0, NumberWriter.getChars(array[0], buf, 0));
 
             for (int i = 1; i < array.length; i++) {
-                out.write(",");
-                out.write(String.valueOf(array[i]));
+                buf[0] = ',';
+                out.write(buf, 0, NumberWriter.getChars(array[i], buf, 1));
             }
 
             out.write("]");
@@ -129,13 +143,13 @@ public class JSONArray extends ArrayList<Object> implements JSONAware, JSONStrea
 
     @NotNull
     public static String toJSONString(byte[] array) {
-        final StringWriter writer = new StringWriter();
+        final StringBuilderWriter writer = StringBuilderWriter.presized(array);
 
         try {
             writeJSONString(array, writer);
             return writer.toString();
         } catch (IOException e) {
-            // This should never happen for a StringWriter
+            // This should never happen for an in-memory writer
             throw new RuntimeException(e);
         }
     }
@@ -146,12 +160,14 @@ public class JSONArray extends ArrayList<Object> implements JSONAware, JSONStrea
         } else if (array.length == 0) {
             out.write("[]");
         } else {
-            out.write("[");
-            out.write(String.valueOf(array[0]));
+            // the comma is formatted in front of the number, every element is written at once
+            final char[] buf = NumberWriter.buffer(out);
+            out.write('[');
+            out.write(buf, 0, NumberWriter.getChars(array[0], buf, 0));
 
             for (int i = 1; i < array.length; i++) {
-                out.write(",");
-                out.write(String.valueOf(array[i]));
+                buf[0] = ',';
+                out.write(buf, 0, NumberWriter.getChars(array[i], buf, 1));
             }
 
             out.write("]");
@@ -160,13 +176,13 @@ public class JSONArray extends ArrayList<Object> implements JSONAware, JSONStrea
 
     @NotNull
     public static String toJSONString(short[] array) {
-        final StringWriter writer = new StringWriter();
+        final StringBuilderWriter writer = StringBuilderWriter.presized(array);
 
         try {
             writeJSONString(array, writer);
             return writer.toString();
         } catch (IOException e) {
-            // This should never happen for a StringWriter
+            // This should never happen for an in-memory writer
             throw new RuntimeException(e);
         }
     }
@@ -177,12 +193,14 @@ public class JSONArray extends ArrayList<Object> implements JSONAware, JSONStrea
         } else if (array.length == 0) {
             out.write("[]");
         } else {
-            out.write("[");
-            out.write(String.valueOf(array[0]));
+            // the comma is formatted in front of the number, every element is written at once
+            final char[] buf = NumberWriter.buffer(out);
+            out.write('[');
+            out.write(buf, 0, NumberWriter.getChars(array[0], buf, 0));
 
             for (int i = 1; i < array.length; i++) {
-                out.write(",");
-                out.write(String.valueOf(array[i]));
+                buf[0] = ',';
+                out.write(buf, 0, NumberWriter.getChars(array[i], buf, 1));
             }
 
             out.write("]");
@@ -191,13 +209,13 @@ public class JSONArray extends ArrayList<Object> implements JSONAware, JSONStrea
 
     @NotNull
     public static String toJSONString(int[] array) {
-        final StringWriter writer = new StringWriter();
+        final StringBuilderWriter writer = StringBuilderWriter.presized(array);
 
         try {
             writeJSONString(array, writer);
             return writer.toString();
         } catch (IOException e) {
-            // This should never happen for a StringWriter
+            // This should never happen for an in-memory writer
             throw new RuntimeException(e);
         }
     }
@@ -208,12 +226,14 @@ public class JSONArray extends ArrayList<Object> implements JSONAware, JSONStrea
         } else if (array.length == 0) {
             out.write("[]");
         } else {
-            out.write("[");
-            out.write(String.valueOf(array[0]));
+            // the comma is formatted in front of the number, every element is written at once
+            final char[] buf = NumberWriter.buffer(out);
+            out.write('[');
+            out.write(buf, 0, NumberWriter.getChars(array[0], buf, 0));
 
             for (int i = 1; i < array.length; i++) {
-                out.write(",");
-                out.write(String.valueOf(array[i]));
+                buf[0] = ',';
+                out.write(buf, 0, NumberWriter.getChars(array[i], buf, 1));
             }
 
             out.write("]");
@@ -222,13 +242,13 @@ public class JSONArray extends ArrayList<Object> implements JSONAware, JSONStrea
 
     @NotNull
     public static String toJSONString(long[] array) {
-        final StringWriter writer = new StringWriter();
+        final StringBuilderWriter writer = StringBuilderWriter.presized(array);
 
         try {
             writeJSONString(array, writer);
             return writer.toString();
         } catch (IOException e) {
-            // This should never happen for a StringWriter
+            // This should never happen for an in-memory writer
             throw new RuntimeException(e);
         }
     }
@@ -239,12 +259,14 @@ public class JSONArray extends ArrayList<Object> implements JSONAware, JSONStrea
         } else if (array.length == 0) {
             out.write("[]");
         } else {
-            out.write("[");
-            out.write(String.valueOf(array[0]));
+            // the comma is formatted in front of the number, every element is written at once
+            final char[] buf = NumberWriter.buffer(out);
+            out.write('[');
+            out.write(buf, 0, NumberWriter.getChars(array[0], buf, 0));
 
             for (int i = 1; i < array.length; i++) {
-                out.write(",");
-                out.write(String.valueOf(array[i]));
+                buf[0] = ',';
+                out.write(buf, 0, NumberWriter.getChars(array[i], buf, 1));
             }
 
             out.write("]");
@@ -253,13 +275,13 @@ public class JSONArray extends ArrayList<Object> implements JSONAware, JSONStrea
 
     @NotNull
     public static String toJSONString(float[] array) {
-        final StringWriter writer = new StringWriter();
+        final StringBuilderWriter writer = StringBuilderWriter.presized(array);
 
         try {
             writeJSONString(array, writer);
             return writer.toString();
         } catch (IOException e) {
-            // This should never happen for a StringWriter
+            // This should never happen for an in-memory writer
             throw new RuntimeException(e);
         }
     }
@@ -270,12 +292,14 @@ public class JSONArray extends ArrayList<Object> implements JSONAware, JSONStrea
         } else if (array.length == 0) {
             out.write("[]");
         } else {
-            out.write("[");
-            out.write(String.valueOf(array[0]));
+            // the comma is formatted in front of the number, every element is written at once
+            final char[] buf = NumberWriter.buffer(out);
+            out.write('[');
+            out.write(buf, 0, NumberWriter.getChars(array[0], buf, 0));
 
             for (int i = 1; i < array.length; i++) {
-                out.write(",");
-                out.write(String.valueOf(array[i]));
+                buf[0] = ',';
+                out.write(buf, 0, NumberWriter.getChars(array[i], buf, 1));
             }
 
             out.write("]");
@@ -284,13 +308,13 @@ public class JSONArray extends ArrayList<Object> implements JSONAware, JSONStrea
 
     @NotNull
     public static String toJSONString(double[] array) {
-        final StringWriter writer = new StringWriter();
+        final StringBuilderWriter writer = StringBuilderWriter.presized(array);
 
         try {
             writeJSONString(array, writer);
             return writer.toString();
         } catch (IOException e) {
-            // This should never happen for a StringWriter
+            // This should never happen for an in-memory writer
             throw new RuntimeException(e);
         }
     }
@@ -315,13 +339,13 @@ public class JSONArray extends ArrayList<Object> implements JSONAware, JSONStrea
 
     @NotNull
     public static String toJSONString(boolean[] array) {
-        final StringWriter writer = new StringWriter();
+        final StringBuilderWriter writer = StringBuilderWriter.presized(array);
 
         try {
             writeJSONString(array, writer);
             return writer.toString();
         } catch (IOException e) {
-            // This should never happen for a StringWriter
+            // This should never happen for an in-memory writer
             throw new RuntimeException(e);
         }
     }
@@ -346,13 +370,13 @@ public class JSONArray extends ArrayList<Object> implements JSONAware, JSONStrea
 
     @NotNull
     public static String toJSONString(char[] array) {
-        final StringWriter writer = new StringWriter();
+        final StringBuilderWriter writer = StringBuilderWriter.presized(array);
 
         try {
             writeJSONString(array, writer);
             return writer.toString();
         } catch (IOException e) {
-            // This should never happen for a StringWriter
+            // This should never happen for an in-memory writer
             throw new RuntimeException(e);
         }
     }
@@ -377,13 +401,13 @@ public class JSONArray extends ArrayList<Object> implements JSONAware, JSONStrea
 
     @NotNull
     public static String toJSONString(@Nullable Object[] array) {
-        final StringWriter writer = new StringWriter();
+        final StringBuilderWriter writer = StringBuilderWriter.presized(array);
 
         try {
             writeJSONString(array, writer);
             return writer.toString();
         } catch (IOException e) {
-            // This should never happen for a StringWriter
+            // This should never happen for an in-memory writer
             throw new RuntimeException(e);
         }
     }
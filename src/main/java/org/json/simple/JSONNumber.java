@@ -0,0 +1,149 @@
+package org.json.simple;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Serial;
+import java.math.BigInteger;
+
+/**
+ * A JSON number that keeps its source text and converts it only when one of the {@link Number} accessors is called.
+ * It is serialized verbatim, so numbers that are only passed through are never converted at all.
+ *
+ * @author l_MrBoom_l<admin@epserv.ru>
+ * @see org.json.simple.parser.NumberMode#LAZY
+ */
+public final class JSONNumber extends Number implements JSONAware {
+    @Serial
+    private static final long serialVersionUID = 4212473541270362467L;
+
+    @NotNull
+    private final String text;
+    @Nullable
+    private transient Number value;
+
+    /**
+     * @param text JSON number text, e.g. {@code -12}, {@code 3.5} or {@code 1e10}
+     * @throws NumberFormatException if the text is not a JSON number
+     */
+    public JSONNumber(@NotNull String text) {
+        if (!isNumber(text))
+            throw new NumberFormatException("Not a JSON number: \"" + text + "\"");
+        this.text = text;
+    }
+
+    private static boolean isNumber(@NotNull String s) {
+        final int len = s.length();
+        int i = 0;
+        if (i < len && s.charAt(i) == '-')
+            i++;
+        int digits = i;
+        while (i < len && isDigit(s.charAt(i)))
+            i++;
+        if (i == digits)
+            return false;
+        if (i < len && s.charAt(i) == '.') {
+            digits = ++i;
+            while (i < len && isDigit(s.charAt(i)))
+                i++;
+            if (i == digits)
+                return false;
+        }
+        if (i < len && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+            i++;
+            if (i < len && (s.charAt(i) == '-' || s.charAt(i) == '+'))
+                i++;
+            digits = i;
+            while (i < len && isDigit(s.charAt(i)))
+                i++;
+            if (i == digits)
+                return false;
+        }
+        return i == len;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * @return true if the source text has no fraction and no exponent.
+     */
+    public boolean isIntegral() {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '.' || c == 'e' || c == 'E')
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Convert the source text, once, the same way the parser does by default: a Long for integers, a BigInteger for
+     * integers out of the long range, and a Double otherwise.
+     *
+     * @return the converted value
+     */
+    @NotNull
+    public Number getValue() {
+        Number v = value;
+        if (v == null) {
+            if (isIntegral()) {
+                try {
+                    v = Long.valueOf(text);
+                } catch (NumberFormatException e) {
+                    v = new BigInteger(text);
+                }
+            } else {
+                v = Double.valueOf(text);
+            }
+            value = v;
+        }
+        return v;
+    }
+
+    @Override
+    public int intValue() {
+        return getValue().intValue();
+    }
+
+    @Override
+    public long longValue() {
+        return getValue().longValue();
+    }
+
+    @Override
+    public float floatValue() {
+        return getValue().floatValue();
+    }
+
+    @Override
+    public double doubleValue() {
+        return getValue().doubleValue();
+    }
+
+    @NotNull
+    @Override
+    public String toJSONString() {
+        return text;
+    }
+
+    /**
+     * @return the source text of this number.
+     */
+    @NotNull
+    @Override
+    public String toString() {
+        return text;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+        return this == o || o instanceof JSONNumber n && getValue().equals(n.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+        return getValue().hashCode();
+    }
+}
@@ -9,8 +9,8 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Serial;
-import java.io.StringWriter;
 import java.io.Writer;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -32,6 +32,14 @@ public class JSONObject extends HashMap<Object, Object> implements Map<Object, O
         super();
     }
 
+    /**
+     * @param initialCapacity the initial capacity of the hash table
+     * @throws IllegalArgumentException if the initial capacity is negative
+     */
+    public JSONObject(int initialCapacity) {
+        super(initialCapacity);
+    }
+
     /**
      * Allows creation of a JSONObject from a Map. After that, both the
      * generated JSONObject and the Map can be modified independently.
@@ -68,7 +76,7 @@ public class JSONObject extends HashMap<Object, Object> implements Map<Object, O
                 out.write(',');
             Entry<?, ?> entry = iterator.next();
             out.write('\"');
-            out.write(escape(String.valueOf(entry.getKey())));
+            JSONValue.escape(String.valueOf(entry.getKey()), out);
             out.write('\"');
             out.write(':');
             JSONValue.writeJSONString(entry.getValue(), out);
@@ -76,6 +84,18 @@ public class JSONObject extends HashMap<Object, Object> implements Map<Object, O
         out.write('}');
     }
 
+    /**
+     * Encode a map into JSON text like {@link #writeJSONString(Map, Writer)}, and write it to out as UTF-8 bytes.
+     * The stream is flushed, and not closed.
+     *
+     * @see JSONUtf8Writer
+     */
+    public static void writeJSONString(@Nullable Map<?, ?> map, @NotNull OutputStream out) throws IOException {
+        JSONUtf8Writer writer = new JSONUtf8Writer(out);
+        writeJSONString(map, writer);
+        writer.flush();
+    }
+
     /**
      * Convert a map to JSON text. The result is a JSON object.
      * If this map is also a JSONAware, JSONAware specific behaviours will be omitted at this top level.
@@ -86,13 +106,13 @@ public class JSONObject extends HashMap<Object, Object> implements Map<Object, O
      */
     @NotNull
     public static String toJSONString(@Nullable Map<Object, Object> map) {
-        final StringWriter writer = new StringWriter();
+        final StringBuilderWriter writer = StringBuilderWriter.presized(map);
 
         try {
             writeJSONString(map, writer);
             return writer.toString();
         } catch (IOException e) {
-            // This should never happen with a StringWriter
+            // This should never happen for an in-memory writer
             throw new RuntimeException(e);
         }
     }
@@ -107,7 +127,7 @@ public class JSONObject extends HashMap<Object, Object> implements Map<Object, O
             JSONValue.escape(key, sb);
         sb.append('\"').append(':');
 
-        sb.append(JSONValue.toJSONString(value));
+        JSONValue.appendJSONString(value, sb);
 
         return sb.toString();
     }
@@ -0,0 +1,22 @@
+package org.json.simple;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes values of a type the application does not control as JSON text, so that they need not implement
+ * {@link JSONStreamAware}.
+ *
+ * @param <T> the type of the values
+ * @author l_MrBoom_l<admin@epserv.ru>
+ * @see JSONValue#registerSerializer(Class, JSONSerializer)
+ */
+@FunctionalInterface
+public interface JSONSerializer<T> {
+    /**
+     * write JSON text of the value to out.
+     */
+    void writeJSONString(@NotNull T value, @NotNull Writer out) throws IOException;
+}
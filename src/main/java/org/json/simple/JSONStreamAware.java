@@ -3,6 +3,7 @@ package org.json.simple;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
 
 /**
@@ -16,4 +17,27 @@ public interface JSONStreamAware {
      * write JSON string to out.
      */
     void writeJSONString(@NotNull Writer out) throws IOException;
+
+    /**
+     * write JSON string to out as UTF-8 bytes. The stream is flushed, and not closed.
+     *
+     * @see JSONUtf8Writer
+     */
+    default void writeJSONString(@NotNull OutputStream out) throws IOException {
+        JSONUtf8Writer writer = new JSONUtf8Writer(out);
+        writeJSONString(writer);
+        writer.flush();
+    }
+
+    /**
+     * append JSON string to sb.
+     */
+    default void appendJSONString(@NotNull StringBuilder sb) {
+        try {
+            writeJSONString(new StringBuilderWriter(sb));
+        } catch (IOException e) {
+            // This should never happen for an in-memory writer
+            throw new RuntimeException(e);
+        }
+    }
 }
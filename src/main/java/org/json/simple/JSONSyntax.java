@@ -0,0 +1,175 @@
+package org.json.simple;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Checks whether text is a JSON value, without parsing it into objects and without allocating. It is strict: it
+ * accepts exactly the texts of RFC 8259, surrounded by whitespace, with nesting up to {@link #MAX_DEPTH}.
+ *
+ * @author l_MrBoom_l<admin@epserv.ru>
+ */
+final class JSONSyntax {
+    /**
+     * the deepest nesting accepted, one bit of the container stack per level
+     */
+    static final int MAX_DEPTH = 64;
+
+    private JSONSyntax() {
+    }
+
+    static boolean isValue(@NotNull CharSequence s) {
+        final int len = s.length();
+        // a bit per open container, set for objects
+        long stack = 0;
+        int depth = 0;
+        int i = whitespace(s, 0, len);
+        for (; ; ) {
+            if (i >= len)
+                return false;
+            char c = s.charAt(i);
+            switch (c) {
+                case '{', '[' -> {
+                    boolean object = c == '{';
+                    i = whitespace(s, i + 1, len);
+                    if (i < len && s.charAt(i) == (object ? '}' : ']')) {
+                        i++;
+                        break;
+                    }
+                    if (depth == MAX_DEPTH)
+                        return false;
+                    stack = stack << 1 | (object ? 1 : 0);
+                    depth++;
+                    if (object && (i = key(s, i, len)) < 0)
+                        return false;
+                    continue;
+                }
+                case '"' -> i = string(s, i, len);
+                case 't' -> i = literal(s, i, len, "true");
+                case 'f' -> i = literal(s, i, len, "false");
+                case 'n' -> i = literal(s, i, len, "null");
+                default -> i = number(s, i, len);
+            }
+            if (i < 0)
+                return false;
+
+            // the value is complete, close containers until the next value
+            for (; ; ) {
+                i = whitespace(s, i, len);
+                if (depth == 0)
+                    return i == len;
+                if (i >= len)
+                    return false;
+                boolean object = (stack & 1) != 0;
+                c = s.charAt(i++);
+                if (c == ',') {
+                    i = whitespace(s, i, len);
+                    if (object && (i = key(s, i, len)) < 0)
+                        return false;
+                    break;
+                }
+                if (c != (object ? '}' : ']'))
+                    return false;
+                stack >>>= 1;
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * @return the index of the value of the entry with the key at i, or -1 if there is no key and colon
+     */
+    private static int key(@NotNull CharSequence s, int i, int len) {
+        if (i >= len || s.charAt(i) != '"' || (i = string(s, i, len)) < 0)
+            return -1;
+        i = whitespace(s, i, len);
+        if (i >= len || s.charAt(i) != ':')
+            return -1;
+        return whitespace(s, i + 1, len);
+    }
+
+    private static int whitespace(@NotNull CharSequence s, int i, int len) {
+        while (i < len) {
+            char c = s.charAt(i);
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r')
+                break;
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return the index after the string that starts with the quote at i, or -1
+     */
+    private static int string(@NotNull CharSequence s, int i, int len) {
+        for (i++; i < len; i++) {
+            char c = s.charAt(i);
+            if (c == '"')
+                return i + 1;
+            if (c < ' ')
+                return -1;
+            if (c == '\\') {
+                if (++i >= len)
+                    return -1;
+                switch (s.charAt(i)) {
+                    case '"', '\\', '/', 'b', 'f', 'n', 'r', 't' -> {
+                    }
+                    case 'u' -> {
+                        if (i + 4 >= len)
+                            return -1;
+                        for (int k = 1; k <= 4; k++)
+                            if (Character.digit(s.charAt(i + k), 16) < 0)
+                                return -1;
+                        i += 4;
+                    }
+                    default -> {
+                        return -1;
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static int literal(@NotNull CharSequence s, int i, int len, @NotNull String literal) {
+        final int n = literal.length();
+        if (len - i < n)
+            return -1;
+        for (int k = 0; k < n; k++)
+            if (s.charAt(i + k) != literal.charAt(k))
+                return -1;
+        return i + n;
+    }
+
+    /**
+     * @return the index after the number at i, or -1
+     */
+    private static int number(@NotNull CharSequence s, int i, int len) {
+        if (s.charAt(i) == '-')
+            i++;
+        if (i >= len || !isDigit(s.charAt(i)))
+            return -1;
+        // no leading zeros
+        if (s.charAt(i++) != '0')
+            while (i < len && isDigit(s.charAt(i)))
+                i++;
+        if (i < len && s.charAt(i) == '.') {
+            if (++i >= len || !isDigit(s.charAt(i)))
+                return -1;
+            while (i < len && isDigit(s.charAt(i)))
+                i++;
+        }
+        if (i < len && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+            if (++i < len && (s.charAt(i) == '+' || s.charAt(i) == '-'))
+                i++;
+            if (i >= len || !isDigit(s.charAt(i)))
+                return -1;
+            while (i < len && isDigit(s.charAt(i)))
+                i++;
+        }
+        return i;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,319 @@
+package org.json.simple;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Writer that encodes JSON text straight to UTF-8 bytes in a byte array, without a charset encoder. ASCII text, which
+ * is most of JSON text, is copied in a tight loop, and single chars are stored in the array without any call to the
+ * sink. The bytes go to an output stream or a blocking channel when the array is full and on {@link #flush()}, or stay
+ * in memory, where the array grows as needed and can be reused after {@link #reset()}.
+ * <p>
+ * A surrogate pair may be split between two writes. An unpaired surrogate is encoded as {@code ?}, like
+ * {@link String#getBytes(java.nio.charset.Charset)} does. The writer is not thread-safe.
+ * <pre>
+ * JSONUtf8Writer writer = new JSONUtf8Writer(socket.getOutputStream());
+ * JSONValue.writeJSONString(response, writer);
+ * writer.flush();
+ * </pre>
+ *
+ * @author l_MrBoom_l<admin@epserv.ru>
+ * @see JSONValue#writeJSONString(Object, OutputStream)
+ */
+public final class JSONUtf8Writer extends Writer {
+    /**
+     * the default capacity of the byte array
+     */
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    @Nullable
+    private final OutputStream stream;
+    @Nullable
+    private final WritableByteChannel channel;
+    /**
+     * the byte array of the channel, created once
+     */
+    @Nullable
+    private final ByteBuffer channelBuffer;
+    private byte @NotNull [] buf;
+    private int count;
+    /**
+     * the high surrogate written last, whose low surrogate comes with the next write, or 0
+     */
+    private char highSurrogate;
+    /**
+     * the buffer of the text of a number, created on first use
+     */
+    private char @Nullable [] numberBuffer;
+
+    /**
+     * Create a writer that keeps the bytes in memory.
+     */
+    public JSONUtf8Writer() {
+        this(256);
+    }
+
+    /**
+     * Create a writer that keeps the bytes in memory.
+     *
+     * @param initialCapacity the initial capacity of the byte array
+     */
+    public JSONUtf8Writer(int initialCapacity) {
+        this(null, null, initialCapacity);
+    }
+
+    public JSONUtf8Writer(@NotNull OutputStream out) {
+        this(out, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity the capacity of the byte array, the bytes are written to the stream whenever it is full
+     */
+    public JSONUtf8Writer(@NotNull OutputStream out, int capacity) {
+        this(Objects.requireNonNull(out), null, capacity);
+    }
+
+    /**
+     * @param out a blocking channel
+     */
+    public JSONUtf8Writer(@NotNull WritableByteChannel out) {
+        this(out, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param out      a blocking channel
+     * @param capacity the capacity of the byte array, the bytes are written to the channel whenever it is full
+     */
+    public JSONUtf8Writer(@NotNull WritableByteChannel out, int capacity) {
+        this(null, Objects.requireNonNull(out), capacity);
+    }
+
+    private JSONUtf8Writer(@Nullable OutputStream stream, @Nullable WritableByteChannel channel, int capacity) {
+        if (capacity < 0)
+            throw new IllegalArgumentException("Capacity must not be negative: " + capacity);
+        this.stream = stream;
+        this.channel = channel;
+        // room for the longest encoding of a char, so that the array of a sink never grows
+        this.buf = new byte[Math.max(capacity, 8)];
+        this.channelBuffer = channel == null ? null : ByteBuffer.wrap(buf);
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        if (c < 0x80 && highSurrogate == 0) {
+            if (count == buf.length)
+                drain(1);
+            buf[count++] = (byte) c;
+        } else {
+            encode((char) c);
+        }
+    }
+
+    @Override
+    public void write(@NotNull String s, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, s.length());
+        final int end = off + len;
+        while (off < end) {
+            if (highSurrogate != 0) {
+                encode(s.charAt(off++));
+                continue;
+            }
+            if (count == buf.length)
+                drain(1);
+            final int limit = off + Math.min(end - off, buf.length - count);
+            int p = count;
+            while (off < limit) {
+                char c = s.charAt(off);
+                if (c >= 0x80)
+                    break;
+                buf[p++] = (byte) c;
+                off++;
+            }
+            count = p;
+            if (off < limit)
+                encode(s.charAt(off++));
+        }
+    }
+
+    @Override
+    public void write(char @NotNull [] chars, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, chars.length);
+        final int end = off + len;
+        while (off < end) {
+            if (highSurrogate != 0) {
+                encode(chars[off++]);
+                continue;
+            }
+            if (count == buf.length)
+                drain(1);
+            final int limit = off + Math.min(end - off, buf.length - count);
+            int p = count;
+            while (off < limit) {
+                char c = chars[off];
+                if (c >= 0x80)
+                    break;
+                buf[p++] = (byte) c;
+                off++;
+            }
+            count = p;
+            if (off < limit)
+                encode(chars[off++]);
+        }
+    }
+
+    @Override
+    @NotNull
+    public Writer append(@Nullable CharSequence csq, int start, int end) throws IOException {
+        if (csq == null)
+            csq = "null";
+        // avoids the subsequence that Writer creates
+        if (csq instanceof String s)
+            write(s, start, end - start);
+        else
+            for (int i = start; i < end; i++)
+                write(csq.charAt(i));
+        return this;
+    }
+
+    private void encode(char c) throws IOException {
+        if (buf.length - count < 4)
+            drain(4);
+        if (highSurrogate != 0) {
+            char high = highSurrogate;
+            highSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                int cp = Character.toCodePoint(high, c);
+                buf[count++] = (byte) (0xF0 | cp >> 18);
+                buf[count++] = (byte) (0x80 | cp >> 12 & 0x3F);
+                buf[count++] = (byte) (0x80 | cp >> 6 & 0x3F);
+                buf[count++] = (byte) (0x80 | cp & 0x3F);
+                return;
+            }
+            buf[count++] = '?';
+        }
+        if (c < 0x80) {
+            buf[count++] = (byte) c;
+        } else if (c < 0x800) {
+            buf[count++] = (byte) (0xC0 | c >> 6);
+            buf[count++] = (byte) (0x80 | c & 0x3F);
+        } else if (Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            buf[count++] = '?';
+        } else {
+            buf[count++] = (byte) (0xE0 | c >> 12);
+            buf[count++] = (byte) (0x80 | c >> 6 & 0x3F);
+            buf[count++] = (byte) (0x80 | c & 0x3F);
+        }
+    }
+
+    /**
+     * Make room for at least the given number of bytes, by writing the bytes to the sink or by growing the array.
+     */
+    private void drain(int needed) throws IOException {
+        if (stream != null || channel != null) {
+            writeBuffer();
+        } else {
+            int capacity = (int) Math.min(Math.max(2L * buf.length, (long) count + needed), Integer.MAX_VALUE - 8);
+            if (capacity - count < needed)
+                throw new OutOfMemoryError("JSON text too large");
+            buf = Arrays.copyOf(buf, capacity);
+        }
+    }
+
+    private void writeBuffer() throws IOException {
+        if (count == 0)
+            return;
+        if (stream != null) {
+            stream.write(buf, 0, count);
+        } else if (channel != null && channelBuffer != null) {
+            channelBuffer.clear().limit(count);
+            while (channelBuffer.hasRemaining())
+                channel.write(channelBuffer);
+        }
+        count = 0;
+    }
+
+    /**
+     * An unpaired high surrogate at the end of the text is encoded as {@code ?}.
+     */
+    private void endText() throws IOException {
+        if (highSurrogate != 0) {
+            highSurrogate = 0;
+            write('?');
+        }
+    }
+
+    /**
+     * Write the bytes to the output stream or the channel, and flush the stream.
+     */
+    @Override
+    public void flush() throws IOException {
+        endText();
+        writeBuffer();
+        if (stream != null)
+            stream.flush();
+    }
+
+    /**
+     * Flush, and close the output stream or the channel.
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+        if (stream != null)
+            stream.close();
+        else if (channel != null)
+            channel.close();
+    }
+
+    /**
+     * @see NumberWriter#buffer(Writer)
+     */
+    char @NotNull [] numberBuffer() {
+        char[] buf = numberBuffer;
+        if (buf == null)
+            numberBuffer = buf = new char[NumberWriter.BUFFER_LENGTH];
+        return buf;
+    }
+
+    /**
+     * @return the number of bytes in memory, which are not written to the sink yet
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @return a copy of the bytes in memory
+     */
+    public byte @NotNull [] toByteArray() throws IOException {
+        endText();
+        return Arrays.copyOf(buf, count);
+    }
+
+    /**
+     * @return a buffer of the bytes in memory without a copy, valid until the next write or {@link #reset()}
+     */
+    @NotNull
+    public ByteBuffer toByteBuffer() throws IOException {
+        endText();
+        return ByteBuffer.wrap(buf, 0, count);
+    }
+
+    /**
+     * Drop the bytes in memory, so that the writer and its byte array are used for the next text.
+     */
+    public void reset() {
+        count = 0;
+        highSurrogate = 0;
+    }
+}
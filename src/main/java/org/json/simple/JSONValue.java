@@ -7,11 +7,14 @@ package org.json.simple;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.JSONParsers;
 import org.json.simple.parser.ParseException;
 
 import java.io.*;
+import java.nio.channels.WritableByteChannel;
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 /**
@@ -19,6 +22,35 @@ import java.util.Map;
  * @author l_MrBoom_l<admin@epserv.ru>
  */
 public class JSONValue {
+    /**
+     * the serializers registered by the application
+     */
+    private static final Map<Class<?>, JSONSerializer<?>> REGISTERED = new ConcurrentHashMap<>();
+    /**
+     * the serializer of every class, chosen once per class
+     */
+    @NotNull
+    private static volatile Serializers serializers = new Serializers();
+    /**
+     * the escape of every ASCII char, like {@link #escapeOf(char)}
+     */
+    private static final char[] ESCAPES = new char[128];
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    static {
+        for (char ch = 0; ch < ' '; ch++)
+            ESCAPES[ch] = 'u';
+        ESCAPES['\u007F'] = 'u';
+        ESCAPES['"'] = '"';
+        ESCAPES['\\'] = '\\';
+        ESCAPES['/'] = '/';
+        ESCAPES['\b'] = 'b';
+        ESCAPES['\f'] = 'f';
+        ESCAPES['\n'] = 'n';
+        ESCAPES['\r'] = 'r';
+        ESCAPES['\t'] = 't';
+    }
+
     /**
      * Parse JSON text into java object from the input source.
      * Please use parseWithException() if you don't want to ignore the exception.
@@ -40,7 +72,7 @@ public class JSONValue {
     @Nullable
     public static Object parse(@NotNull Reader in) {
         try {
-            return new JSONParser().parse(in);
+            return JSONParsers.shared().parse(in);
         } catch (Exception e) {
             return null;
         }
@@ -66,7 +98,11 @@ public class JSONValue {
      */
     @Nullable
     public static Object parse(String s) {
-        return parse(new StringReader(s));
+        try {
+            return JSONParsers.shared().parse(s);
+        } catch (Exception e) {
+            return null;
+        }
     }
 
     /**
@@ -86,11 +122,11 @@ public class JSONValue {
      */
     @NotNull
     public static Object parseWithException(@NotNull Reader in) throws IOException, ParseException {
-        return new JSONParser().parse(in);
+        return JSONParsers.shared().parse(in);
     }
 
     public static Object parseWithException(String s) throws ParseException {
-        return new JSONParser().parse(s);
+        return JSONParsers.shared().parse(s);
     }
 
     /**
@@ -107,120 +143,213 @@ public class JSONValue {
      * @see JSONArray#writeJSONString(Collection, Writer)
      */
     public static void writeJSONString(@Nullable Object value, @NotNull Writer out) throws IOException {
-        if (value == null) {
+        if (value == null)
             out.write("null");
-            return;
-        }
-
-        if (value instanceof String s) {
-            out.write('\"');
-            out.write(escape(s));
-            out.write('\"');
-            return;
-        }
-
-        if (value instanceof Double d) {
-            if (d.isInfinite() || d.isNaN())
-                out.write("null");
-            else
-                out.write(value.toString());
-            return;
-        }
-
-        if (value instanceof Float f) {
-            if (f.isInfinite() || f.isNaN())
-                out.write("null");
-            else
-                out.write(value.toString());
-            return;
-        }
-
-        if (value instanceof Number n) {
-            out.write(n.toString());
-            return;
-        }
-
-        if (value instanceof Boolean b) {
-            out.write(b.toString());
-            return;
-        }
-
-        if (value instanceof JSONStreamAware aware) {
-            aware.writeJSONString(out);
-            return;
-        }
-
-        if (value instanceof JSONAware aware) {
-            out.write(aware.toJSONString());
-            return;
-        }
-
-        if (value instanceof Map<?, ?> m) {
-            JSONObject.writeJSONString(m, out);
-            return;
-        }
+        else
+            serializers.get(value.getClass()).writeJSONString(value, out);
+    }
 
-        if (value instanceof Collection<?> c) {
-            JSONArray.writeJSONString(c, out);
-            return;
-        }
+    /**
+     * Register how values of a type are written, instead of the default of the type: for example a class that cannot
+     * implement {@link JSONStreamAware}, or whose {@link Object#toString()} is not meant to be JSON text. The
+     * serializer is also used for the subclasses and the implementations of the type, unless another one is
+     * registered for them.
+     *
+     * @param type       the class or interface of the values
+     * @param serializer writes the values, it may call {@link #writeJSONString(Object, Writer)} for nested values
+     */
+    public static <T> void registerSerializer(@NotNull Class<T> type, @NotNull JSONSerializer<? super T> serializer) {
+        REGISTERED.put(type, serializer);
+        // the serializers are chosen again for every class
+        serializers = new Serializers();
+    }
 
-        if (value instanceof byte[] bytes) {
-            JSONArray.writeJSONString(bytes, out);
-            return;
-        }
+    /**
+     * Remove the serializer registered for a type, its values are written by the default of the type again.
+     */
+    public static void unregisterSerializer(@NotNull Class<?> type) {
+        if (REGISTERED.remove(type) != null)
+            serializers = new Serializers();
+    }
 
-        if (value instanceof short[] shorts) {
-            JSONArray.writeJSONString(shorts, out);
-            return;
+    private static final class Serializers extends ClassValue<JSONSerializer<Object>> {
+        @SuppressWarnings("unchecked")
+        @Override
+        @NotNull
+        protected JSONSerializer<Object> computeValue(@NotNull Class<?> type) {
+            JSONSerializer<?> registered = registered(type);
+            if (registered != null)
+                return (JSONSerializer<Object>) registered;
+            return defaultSerializer(type);
         }
 
-        if (value instanceof int[] ints) {
-            JSONArray.writeJSONString(ints, out);
-            return;
+        @Nullable
+        private static JSONSerializer<?> registered(@NotNull Class<?> type) {
+            if (REGISTERED.isEmpty())
+                return null;
+            for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                JSONSerializer<?> serializer = REGISTERED.get(c);
+                if (serializer != null)
+                    return serializer;
+            }
+            for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                JSONSerializer<?> serializer = registeredInterface(c);
+                if (serializer != null)
+                    return serializer;
+            }
+            return null;
         }
 
-        if (value instanceof long[] longs) {
-            JSONArray.writeJSONString(longs, out);
-            return;
+        @Nullable
+        private static JSONSerializer<?> registeredInterface(@NotNull Class<?> type) {
+            for (Class<?> i : type.getInterfaces()) {
+                JSONSerializer<?> serializer = REGISTERED.get(i);
+                if (serializer == null)
+                    serializer = registeredInterface(i);
+                if (serializer != null)
+                    return serializer;
+            }
+            return null;
         }
 
-        if (value instanceof float[] floats) {
-            JSONArray.writeJSONString(floats, out);
-            return;
+        /**
+         * @return the serializer of values of the class, in the order in which the kinds of values are checked for
+         */
+        @NotNull
+        private static JSONSerializer<Object> defaultSerializer(@NotNull Class<?> type) {
+            if (type == String.class)
+                return (value, out) -> {
+                    out.write('\"');
+                    escape((String) value, out);
+                    out.write('\"');
+                };
+            if (type == Double.class)
+                return (value, out) -> {
+                    double d = (Double) value;
+                    if (Double.isFinite(d))
+                        NumberWriter.write(d, out);
+                    else
+                        out.write("null");
+                };
+            if (type == Float.class)
+                return (value, out) -> {
+                    float f = (Float) value;
+                    if (Float.isFinite(f))
+                        NumberWriter.write(f, out);
+                    else
+                        out.write("null");
+                };
+            if (type == Long.class || type == Integer.class || type == Short.class || type == Byte.class)
+                return (value, out) -> NumberWriter.write(((Number) value).longValue(), out);
+            if (Number.class.isAssignableFrom(type) || type == Boolean.class)
+                return (value, out) -> out.write(value.toString());
+            if (JSONStreamAware.class.isAssignableFrom(type))
+                return (value, out) -> ((JSONStreamAware) value).writeJSONString(out);
+            if (JSONAware.class.isAssignableFrom(type))
+                return (value, out) -> out.write(((JSONAware) value).toJSONString());
+            if (Map.class.isAssignableFrom(type))
+                return (value, out) -> JSONObject.writeJSONString((Map<?, ?>) value, out);
+            if (Collection.class.isAssignableFrom(type))
+                return (value, out) -> JSONArray.writeJSONString((Collection<?>) value, out);
+            if (type == byte[].class)
+                return (value, out) -> JSONArray.writeJSONString((byte[]) value, out);
+            if (type == short[].class)
+                return (value, out) -> JSONArray.writeJSONString((short[]) value, out);
+            if (type == int[].class)
+                return (value, out) -> JSONArray.writeJSONString((int[]) value, out);
+            if (type == long[].class)
+                return (value, out) -> JSONArray.writeJSONString((long[]) value, out);
+            if (type == float[].class)
+                return (value, out) -> JSONArray.writeJSONString((float[]) value, out);
+            if (type == double[].class)
+                return (value, out) -> JSONArray.writeJSONString((double[]) value, out);
+            if (type == boolean[].class)
+                return (value, out) -> JSONArray.writeJSONString((boolean[]) value, out);
+            if (type == char[].class)
+                return (value, out) -> JSONArray.writeJSONString((char[]) value, out);
+            if (Object[].class.isAssignableFrom(type))
+                return (value, out) -> JSONArray.writeJSONString((Object[]) value, out);
+            return (value, out) -> {
+                String str = value.toString();
+                // the text is written as it is if it is valid JSON, and escaped into a string otherwise
+                if (JSONSyntax.isValue(str)) {
+                    out.write(str);
+                } else {
+                    out.write('\"');
+                    escape(str, out);
+                    out.write('\"');
+                }
+            };
         }
+    }
 
-        if (value instanceof double[] doubles) {
-            JSONArray.writeJSONString(doubles, out);
-            return;
-        }
+    /**
+     * Encode an object into JSON text like {@link #writeJSONString(Object, Writer)}, and write it to out as UTF-8
+     * bytes. The stream is flushed, and not closed.
+     *
+     * @see JSONUtf8Writer
+     */
+    public static void writeJSONString(@Nullable Object value, @NotNull OutputStream out) throws IOException {
+        JSONUtf8Writer writer = new JSONUtf8Writer(out);
+        writeJSONString(value, writer);
+        writer.flush();
+    }
 
-        if (value instanceof boolean[] booleans) {
-            JSONArray.writeJSONString(booleans, out);
-            return;
-        }
+    /**
+     * Encode an object into JSON text like {@link #writeJSONString(Object, Writer)}, and write it to a blocking
+     * channel as UTF-8 bytes. The channel is not closed.
+     *
+     * @see JSONUtf8Writer
+     */
+    public static void writeJSONString(@Nullable Object value, @NotNull WritableByteChannel out) throws IOException {
+        JSONUtf8Writer writer = new JSONUtf8Writer(out);
+        writeJSONString(value, writer);
+        writer.flush();
+    }
 
-        if (value instanceof char[] chars) {
-            JSONArray.writeJSONString(chars, out);
-            return;
+    /**
+     * Append JSON text of an object to sb, like {@link #toJSONString(Object)} without creating a string.
+     *
+     * @param value Value to represent as JSON string
+     * @param sb    {@link StringBuilder} to append to
+     */
+    public static void appendJSONString(@Nullable Object value, @NotNull StringBuilder sb) {
+        try {
+            writeJSONString(value, new StringBuilderWriter(sb));
+        } catch (IOException e) {
+            // This should never happen for an in-memory writer
+            throw new RuntimeException(e);
         }
+    }
 
-        if (value instanceof Object[] objects) {
-            JSONArray.writeJSONString(objects, out);
-            return;
-        }
+    /**
+     * Append JSON text of an object to out. A {@link Writer} or a {@link StringBuilder} is written to directly,
+     * another {@link Appendable} gets the text at once.
+     *
+     * @param value Value to represent as JSON string
+     * @param out   {@link Appendable} to append to
+     */
+    public static void appendJSONString(@Nullable Object value, @NotNull Appendable out) throws IOException {
+        if (out instanceof Writer w)
+            writeJSONString(value, w);
+        else if (out instanceof StringBuilder sb)
+            appendJSONString(value, sb);
+        else
+            out.append(toJSONString(value));
+    }
 
-        String str = value.toString();
+    /**
+     * Convert an object to JSON text like {@link #toJSONString(Object)}, encoded as UTF-8.
+     */
+    public static byte @NotNull [] toJSONBytes(@Nullable Object value) {
+        final JSONUtf8Writer writer = new JSONUtf8Writer();
 
         try {
-            // check if value.toString() returned a valid json value
-            new JSONParser().parse(str);
-            out.write(str);
-        } catch (ParseException ex) {
-            // json value is invalid so we need to escape it to prevent from generating malformed json
-            out.write('\"');
-            out.write(escape(str));
-            out.write('\"');
+            writeJSONString(value, writer);
+            return writer.toByteArray();
+        } catch (IOException e) {
+            // This should never happen for an in-memory writer
+            throw new RuntimeException(e);
         }
     }
 
@@ -239,13 +368,13 @@ public class JSONValue {
      */
     @NotNull
     public static String toJSONString(@Nullable Object value) {
-        final StringWriter writer = new StringWriter();
+        final StringBuilderWriter writer = StringBuilderWriter.presized(value);
 
         try {
             writeJSONString(value, writer);
             return writer.toString();
         } catch (IOException e) {
-            // This should never happen for a StringWriter
+            // This should never happen for an in-memory writer
             throw new RuntimeException(e);
         }
     }
@@ -265,48 +394,69 @@ public class JSONValue {
         return sb.toString();
     }
 
+    /**
+     * Escape a string like {@link #escape(String)} and write it to out, without creating intermediate strings.
+     *
+     * @param s   {@link String} to be JSON-escaped
+     * @param out {@link Writer} to write escaped string to
+     */
+    public static void escape(@NotNull String s, @NotNull Writer out) throws IOException {
+        final int len = s.length();
+        // the chars that need no escaping are written in runs rather than one by one
+        int start = 0;
+        for (int i = 0; i < len; i++) {
+            char ch = s.charAt(i);
+            char escape = escapeOf(ch);
+            if (escape == 0)
+                continue;
+            if (i > start)
+                out.write(s, start, i - start);
+            start = i + 1;
+            out.write('\\');
+            out.write(escape);
+            if (escape == 'u') {
+                out.write(HEX_DIGITS[ch >> 12]);
+                out.write(HEX_DIGITS[ch >> 8 & 0xF]);
+                out.write(HEX_DIGITS[ch >> 4 & 0xF]);
+                out.write(HEX_DIGITS[ch & 0xF]);
+            }
+        }
+        if (start == 0)
+            out.write(s);
+        else if (start < len)
+            out.write(s, start, len - start);
+    }
+
     /**
      * @param s  - Must not be null.
      * @param sb {@link StringBuilder} to write escaped string to
      */
     static void escape(@NotNull String s, @NotNull StringBuilder sb) {
         final int len = s.length();
+        // the chars that need no escaping are appended in runs rather than one by one
+        int start = 0;
         for (int i = 0; i < len; i++) {
             char ch = s.charAt(i);
-            switch (ch) {
-                case '"':
-                    sb.append("\\\"");
-                    break;
-                case '\\':
-                    sb.append("\\\\");
-                    break;
-                case '\b':
-                    sb.append("\\b");
-                    break;
-                case '\f':
-                    sb.append("\\f");
-                    break;
-                case '\n':
-                    sb.append("\\n");
-                    break;
-                case '\r':
-                    sb.append("\\r");
-                    break;
-                case '\t':
-                    sb.append("\\t");
-                    break;
-                case '/':
-                    sb.append("\\/");
-                    break;
-                default:
-                    //Reference: http://www.unicode.org/versions/Unicode5.1.0/
-                    if (ch <= '\u001F' || ch >= '\u007F' && ch <= '\u009F' || ch >= '\u2000' && ch <= '\u20FF') {
-                        String ss = Integer.toHexString(ch);
-                        sb.append("\\u").append("0".repeat(4 - ss.length())).append(ss.toUpperCase());
-                    } else
-                        sb.append(ch);
-            }
-        }//for
+            char escape = escapeOf(ch);
+            if (escape == 0)
+                continue;
+            sb.append(s, start, i).append('\\').append(escape);
+            start = i + 1;
+            if (escape == 'u')
+                sb.append(HEX_DIGITS[ch >> 12]).append(HEX_DIGITS[ch >> 8 & 0xF]).append(HEX_DIGITS[ch >> 4 & 0xF])
+                        .append(HEX_DIGITS[ch & 0xF]);
+        }
+        sb.append(s, start, len);
+    }
+
+    /**
+     * @return the char after the backslash of the escape of ch, 'u' for a unicode escape, or 0 if ch is not escaped
+     */
+    private static char escapeOf(char ch) {
+        if (ch < ESCAPES.length)
+            return ESCAPES[ch];
+        //Reference: http://www.unicode.org/versions/Unicode5.1.0/
+        return ch <= '\u009F' || ch >= '\u2000' && ch <= '\u20FF' ? 'u' : 0;
     }
 
 }
@@ -0,0 +1,387 @@
+package org.json.simple;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigInteger;
+
+/**
+ * Formats numbers into a char array, without creating strings: integers with a table of digit pairs, and floating
+ * point values with the Schubfach algorithm of Raffaello Giulietti, which finds the shortest decimal that converts back
+ * to the same value. The text has the layout of {@link Double#toString(double)} and {@link Float#toString(float)}.
+ *
+ * @author l_MrBoom_l<admin@epserv.ru>
+ */
+final class NumberWriter {
+    /**
+     * the length of a buffer, for the longest text of a number, {@code -2.2250738585072014E-308}, and a separator
+     */
+    static final int BUFFER_LENGTH = 32;
+
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[BUFFER_LENGTH]);
+    private static final char[] DIGIT_PAIRS = new char[200];
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            DIGIT_PAIRS[i << 1] = (char) ('0' + i / 10);
+            DIGIT_PAIRS[i << 1 | 1] = (char) ('0' + i % 10);
+        }
+    }
+
+    // the double format
+    private static final int P = 53;
+    private static final int Q_MIN = -1074;
+    private static final long C_MIN = 1L << P - 1;
+    private static final long C_TINY = 3;
+    private static final int FLOAT_P = 24;
+    private static final int FLOAT_Q_MIN = -149;
+    private static final int FLOAT_C_MIN = 1 << FLOAT_P - 1;
+    /**
+     * the number of digits of the decimal that is formatted
+     */
+    private static final int H = 17;
+    private static final int MASK_28 = (1 << 28) - 1;
+    private static final long MASK_63 = Long.MAX_VALUE;
+    private static final long[] POW10 = new long[H + 1];
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i <= H; i++)
+            POW10[i] = 10 * POW10[i - 1];
+    }
+
+    private NumberWriter() {
+    }
+
+    /**
+     * @return a buffer for the text of one number, the own buffer of a {@link JSONUtf8Writer} or one of the thread
+     */
+    static char @NotNull [] buffer(@NotNull Writer out) {
+        return out instanceof JSONUtf8Writer w ? w.numberBuffer() : BUFFER.get();
+    }
+
+    static void write(long v, @NotNull Writer out) throws IOException {
+        char[] buf = buffer(out);
+        out.write(buf, 0, getChars(v, buf, 0));
+    }
+
+    static void write(double v, @NotNull Writer out) throws IOException {
+        char[] buf = buffer(out);
+        out.write(buf, 0, getChars(v, buf, 0));
+    }
+
+    static void write(float v, @NotNull Writer out) throws IOException {
+        char[] buf = buffer(out);
+        out.write(buf, 0, getChars(v, buf, 0));
+    }
+
+    /**
+     * @return the index after the text of v
+     */
+    static int getChars(long v, char @NotNull [] buf, int pos) {
+        // negative values have one more magnitude, Long.MIN_VALUE is formatted like the others
+        if (v < 0)
+            buf[pos++] = '-';
+        else
+            v = -v;
+        final int end = pos + digits(v);
+        int p = end;
+        while (v <= -100) {
+            long q = v / 100;
+            int r = (int) (q * 100 - v);
+            v = q;
+            buf[--p] = DIGIT_PAIRS[r << 1 | 1];
+            buf[--p] = DIGIT_PAIRS[r << 1];
+        }
+        int r = (int) -v;
+        if (r >= 10) {
+            buf[--p] = DIGIT_PAIRS[r << 1 | 1];
+            buf[--p] = DIGIT_PAIRS[r << 1];
+        } else {
+            buf[--p] = (char) ('0' + r);
+        }
+        return end;
+    }
+
+    /**
+     * @param v a value that is not positive
+     */
+    private static int digits(long v) {
+        int digits = 1;
+        for (long p = -10; digits < 19 && v <= p; p *= 10)
+            digits++;
+        return digits;
+    }
+
+    static int getChars(double v, char @NotNull [] buf, int pos) {
+        final long bits = Double.doubleToRawLongBits(v);
+        final long t = bits & C_MIN - 1;
+        final int bq = (int) (bits >>> P - 1) & 0x7FF;
+        if (bq == 0x7FF)
+            return special(t != 0 ? "NaN" : bits > 0 ? "Infinity" : "-Infinity", buf, pos);
+        if (bits < 0)
+            buf[pos++] = '-';
+        if (bq != 0) {
+            // a normal value, c 2^q with q = -mq
+            final int mq = -Q_MIN + 1 - bq;
+            final long c = C_MIN | t;
+            // an integer value
+            if (0 < mq & mq < P) {
+                long f = c >> mq;
+                if (f << mq == c)
+                    return toChars(f, 0, buf, pos);
+            }
+            return toDecimal(-mq, c, 0, c == C_MIN, buf, pos);
+        }
+        if (t != 0) {
+            // a subnormal value
+            return t < C_TINY
+                    ? toDecimal(Q_MIN, 10 * t, -1, false, buf, pos)
+                    : toDecimal(Q_MIN, t, 0, false, buf, pos);
+        }
+        return special("0.0", buf, pos);
+    }
+
+    static int getChars(float v, char @NotNull [] buf, int pos) {
+        final int bits = Float.floatToRawIntBits(v);
+        final int t = bits & FLOAT_C_MIN - 1;
+        final int bq = bits >>> FLOAT_P - 1 & 0xFF;
+        if (bq == 0xFF)
+            return special(t != 0 ? "NaN" : bits > 0 ? "Infinity" : "-Infinity", buf, pos);
+        if (bits < 0)
+            buf[pos++] = '-';
+        if (bq != 0) {
+            final int mq = -FLOAT_Q_MIN + 1 - bq;
+            final int c = FLOAT_C_MIN | t;
+            if (0 < mq & mq < FLOAT_P) {
+                int f = c >> mq;
+                if (f << mq == c)
+                    return toChars(f, 0, buf, pos);
+            }
+            // a float is a value of the double format with fewer significant bits
+            return toDecimal(-mq, c, 0, c == FLOAT_C_MIN, buf, pos);
+        }
+        if (t != 0) {
+            return t < C_TINY
+                    ? toDecimal(FLOAT_Q_MIN, 10L * t, -1, false, buf, pos)
+                    : toDecimal(FLOAT_Q_MIN, t, 0, false, buf, pos);
+        }
+        return special("0.0", buf, pos);
+    }
+
+    private static int special(@NotNull String s, char @NotNull [] buf, int pos) {
+        s.getChars(0, s.length(), buf, pos);
+        return pos + s.length();
+    }
+
+    /**
+     * Find the shortest decimal in the rounding interval of c 2^q, and the closest one to it if there are several.
+     *
+     * @param dk         the correction of the decimal exponent, for a significand that was multiplied by 10
+     * @param asymmetric whether the value is a power of two whose lower neighbour is closer than the upper one
+     */
+    private static int toDecimal(int q, long c, int dk, boolean asymmetric, char @NotNull [] buf, int pos) {
+        final int out = (int) c & 0x1;
+        final long cb = c << 2;
+        final long cbr = cb + 2;
+        final long cbl;
+        final int k;
+        if (!asymmetric) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        final int h = q + flog2pow10(-k) + 2;
+        final long g1 = G.g1(k);
+        final long g0 = G.g0(k);
+        final long vb = rop(g1, g0, cb << h);
+        final long vbl = rop(g1, g0, cbl << h);
+        final long vbr = rop(g1, g0, cbr << h);
+        final long s = vb >> 2;
+        if (s >= 100) {
+            // s / 10 * 10
+            long sp10 = 10 * Math.multiplyHigh(s, 115_292_150_460_684_698L << 4);
+            long tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin)
+                return toChars(upin ? sp10 : tp10, k, buf, pos);
+        }
+        final long t = s + 1;
+        final boolean uin = vbl + out <= s << 2;
+        final boolean win = (t << 2) + out <= vbr;
+        if (uin != win)
+            return toChars(uin ? s : t, k + dk, buf, pos);
+        final long cmp = vb - (s + t << 1);
+        return toChars(cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk, buf, pos);
+    }
+
+    /**
+     * @return the rounded product of g = g1 2^63 + g0 and cp, divided by 2^127, with the sticky bit
+     */
+    private static long rop(long g1, long g0, long cp) {
+        final long x1 = Math.multiplyHigh(g0, cp);
+        final long y0 = g1 * cp;
+        final long y1 = Math.multiplyHigh(g1, cp);
+        final long z = (y0 >>> 1) + x1;
+        final long vbp = y1 + (z >>> 63);
+        return vbp | (z & MASK_63) + MASK_63 >>> 63;
+    }
+
+    /**
+     * Format the decimal f 10^e.
+     */
+    private static int toChars(long f, int e, char @NotNull [] buf, int pos) {
+        // 10^(len - 1) <= f < 10^len
+        int len = flog10pow2(Long.SIZE - Long.numberOfLeadingZeros(f));
+        if (f >= POW10[len])
+            len++;
+        // f 10^e = 0.f' 10^e' with 17 digits of f'
+        f *= POW10[H - len];
+        e += len;
+        // the first digit, the next 8 digits and the last 8 digits
+        final long hm = Math.multiplyHigh(f, 193_428_131_138_340_668L) >>> 20;
+        final int l = (int) (f - 100_000_000L * hm);
+        final int h = (int) (hm * 1_441_151_881L >>> 57);
+        final int m = (int) (hm - 100_000_000 * h);
+        if (0 < e && e <= 7) {
+            // plain format without leading zeros
+            buf[pos++] = (char) ('0' + h);
+            int y = y(m);
+            int i = 1;
+            for (; i < e; i++) {
+                int d = 10 * y;
+                buf[pos++] = (char) ('0' + (d >>> 28));
+                y = d & MASK_28;
+            }
+            buf[pos++] = '.';
+            for (; i <= 8; i++) {
+                int d = 10 * y;
+                buf[pos++] = (char) ('0' + (d >>> 28));
+                y = d & MASK_28;
+            }
+            return lowDigits(l, buf, pos);
+        }
+        if (-3 < e && e <= 0) {
+            // plain format with leading zeros
+            buf[pos++] = '0';
+            buf[pos++] = '.';
+            for (; e < 0; e++)
+                buf[pos++] = '0';
+            buf[pos++] = (char) ('0' + h);
+            pos = append8Digits(m, buf, pos);
+            return lowDigits(l, buf, pos);
+        }
+        // scientific notation
+        buf[pos++] = (char) ('0' + h);
+        buf[pos++] = '.';
+        pos = append8Digits(m, buf, pos);
+        pos = lowDigits(l, buf, pos);
+        return exponent(e - 1, buf, pos);
+    }
+
+    private static int lowDigits(int l, char @NotNull [] buf, int pos) {
+        if (l != 0)
+            pos = append8Digits(l, buf, pos);
+        // remove the trailing zeros, but the one right after the point
+        while (buf[pos - 1] == '0')
+            pos--;
+        if (buf[pos - 1] == '.')
+            pos++;
+        return pos;
+    }
+
+    private static int append8Digits(int m, char @NotNull [] buf, int pos) {
+        int y = y(m);
+        for (int i = 0; i < 8; i++) {
+            int d = 10 * y;
+            buf[pos++] = (char) ('0' + (d >>> 28));
+            y = d & MASK_28;
+        }
+        return pos;
+    }
+
+    /**
+     * @return floor((a + 1) 2^28 / 10^8) - 1, whose digits are extracted from the left by multiplying by 10
+     */
+    private static int y(int a) {
+        return (int) (Math.multiplyHigh((long) (a + 1) << 28, 193_428_131_138_340_668L) >>> 20) - 1;
+    }
+
+    private static int exponent(int e, char @NotNull [] buf, int pos) {
+        buf[pos++] = 'E';
+        if (e < 0) {
+            buf[pos++] = '-';
+            e = -e;
+        }
+        if (e < 10) {
+            buf[pos++] = (char) ('0' + e);
+            return pos;
+        }
+        if (e >= 100) {
+            int d = e * 1_311 >>> 17;
+            buf[pos++] = (char) ('0' + d);
+            e -= 100 * d;
+        }
+        buf[pos++] = DIGIT_PAIRS[e << 1];
+        buf[pos++] = DIGIT_PAIRS[e << 1 | 1];
+        return pos;
+    }
+
+    /**
+     * @return floor(e log10(2))
+     */
+    private static int flog10pow2(int e) {
+        return (int) (e * 661_971_961_083L >> 41);
+    }
+
+    /**
+     * @return floor(log10(3/4 2^e))
+     */
+    private static int flog10threeQuartersPow2(int e) {
+        return (int) (e * 661_971_961_083L + -274_743_187_321L >> 41);
+    }
+
+    /**
+     * @return floor(e log2(10))
+     */
+    private static int flog2pow10(int e) {
+        return (int) (e * 913_124_641_741L >> 38);
+    }
+
+    /**
+     * The 126-bit approximations g of the powers of ten, 10^(-k) = b 2^r with 2^125 <= b < 2^126 and g = floor(b) + 1,
+     * stored as g1 2^63 + g0. They are computed exactly once, when the first floating point value is formatted.
+     */
+    private static final class G {
+        private static final int K_MIN = -324;
+        private static final int K_MAX = 292;
+        private static final long[] G = new long[K_MAX - K_MIN + 1 << 1];
+
+        static {
+            for (int k = K_MIN; k <= K_MAX; k++) {
+                int r = flog2pow10(-k) - 125;
+                BigInteger num = k < 0 ? BigInteger.TEN.pow(-k) : BigInteger.ONE;
+                BigInteger den = k > 0 ? BigInteger.TEN.pow(k) : BigInteger.ONE;
+                if (r < 0)
+                    num = num.shiftLeft(-r);
+                else
+                    den = den.shiftLeft(r);
+                BigInteger g = num.divide(den).add(BigInteger.ONE);
+                G[k - K_MIN << 1] = g.shiftRight(63).longValue();
+                G[k - K_MIN << 1 | 1] = g.longValue() & MASK_63;
+            }
+        }
+
+        static long g1(int k) {
+            return G[k - K_MIN << 1];
+        }
+
+        static long g0(int k) {
+            return G[k - K_MIN << 1 | 1];
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.json.simple;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Writer;
+
+/**
+ * Writer into a {@link StringBuilder}, without the locks of {@link java.io.StringWriter} and its {@link StringBuffer},
+ * which would pin virtual threads on older runtimes. A writer for the text of a value starts with the length of the
+ * text last written for a value of the same class, so that the builder rarely grows.
+ *
+ * @author l_MrBoom_l<admin@epserv.ru>
+ */
+final class StringBuilderWriter extends Writer {
+    /**
+     * the largest initial capacity taken from the history, a larger text grows the builder as usual
+     */
+    private static final int MAX_INITIAL_CAPACITY = 1 << 16;
+    /**
+     * the length of the text last written for a value of every class
+     */
+    private static final ClassValue<int[]> LENGTHS = new ClassValue<>() {
+        @Override
+        protected int[] computeValue(@NotNull Class<?> type) {
+            return new int[1];
+        }
+    };
+
+    @NotNull
+    private final StringBuilder sb;
+    private final int @Nullable [] length;
+
+    StringBuilderWriter(@NotNull StringBuilder sb) {
+        this(sb, null);
+    }
+
+    private StringBuilderWriter(@NotNull StringBuilder sb, int @Nullable [] length) {
+        this.sb = sb;
+        this.length = length;
+    }
+
+    /**
+     * @return a writer for the text of the value, whose length is remembered by {@link #toString()}
+     */
+    @NotNull
+    static StringBuilderWriter presized(@Nullable Object value) {
+        if (value == null)
+            return new StringBuilderWriter(new StringBuilder(4));
+        int[] length = LENGTHS.get(value.getClass());
+        int capacity = Math.max(16, Math.min(length[0], MAX_INITIAL_CAPACITY));
+        return new StringBuilderWriter(new StringBuilder(capacity), length);
+    }
+
+    @Override
+    public void write(int c) {
+        sb.append((char) c);
+    }
+
+    @Override
+    public void write(char @NotNull [] chars, int off, int len) {
+        sb.append(chars, off, len);
+    }
+
+    @Override
+    public void write(@NotNull String s) {
+        sb.append(s);
+    }
+
+    @Override
+    public void write(@NotNull String s, int off, int len) {
+        sb.append(s, off, off + len);
+    }
+
+    @Override
+    @NotNull
+    public StringBuilderWriter append(@Nullable CharSequence csq) {
+        sb.append(csq);
+        return this;
+    }
+
+    @Override
+    @NotNull
+    public StringBuilderWriter append(@Nullable CharSequence csq, int start, int end) {
+        sb.append(csq, start, end);
+        return this;
+    }
+
+    @Override
+    @NotNull
+    public StringBuilderWriter append(char c) {
+        sb.append(c);
+        return this;
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    /**
+     * @return the text written, whose length is remembered for the next value of the same class
+     */
+    @Override
+    @NotNull
+    public String toString() {
+        if (length != null)
+            length[0] = sb.length();
+        return sb.toString();
+    }
+}
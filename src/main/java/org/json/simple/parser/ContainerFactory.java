@@ -24,4 +24,28 @@ public interface ContainerFactory {
      */
     @Nullable
     List<?> createArrayContainer();
+
+    /**
+     * The parser learns the sizes of the containers at every path of the documents it parses, and calls this method
+     * with the size last seen at the same path, so that the container can be created large enough.
+     *
+     * @param sizeHint The number of entries the object is expected to get, or 0 if unknown. The object may get any
+     *                 number of entries.
+     * @return A Map instance to store JSON object, or null if you want to use org.json.simple.JSONObject.
+     */
+    @Nullable
+    default Map<Object, Object> createObjectContainer(int sizeHint) {
+        return createObjectContainer();
+    }
+
+    /**
+     * @param sizeHint The number of elements the array is expected to get, or 0 if unknown. The array may get any
+     *                 number of elements.
+     * @return A List instance to store JSON array, or null if you want to use org.json.simple.JSONArray.
+     * @see #createObjectContainer(int)
+     */
+    @Nullable
+    default List<?> createArrayContainer(int sizeHint) {
+        return createArrayContainer();
+    }
 }
@@ -6,6 +6,7 @@ import java.io.IOException;
 
 /**
  * A simplified and stoppable SAX-like content handler for stream processing of JSON text.
+ * A handler that is not interested in a value can have it skipped cheaply with {@link JSONParser#skipValue()}.
  *
  * @author FangYidong<fangyidong@yahoo.com.cn>
  * @author l_MrBoom_l<admin@epserv.ru>
@@ -32,6 +33,7 @@ public interface ContentHandler {
      * @return false if the handler wants to stop parsing after return.
      * @throws ParseException - JSONParser will stop and throw the same exception to the caller when receiving this exception.
      * @see #endJSON
+     * @see JSONParser#skipValue()
      */
     boolean startObject() throws ParseException, IOException;
 
@@ -49,6 +51,7 @@ public interface ContentHandler {
      * @param key - Key of a JSON object entry.
      * @return false if the handler wants to stop parsing after return.
      * @see #endObjectEntry
+     * @see JSONParser#skipValue()
      */
     boolean startObjectEntry(String key) throws ParseException, IOException;
 
@@ -65,6 +68,7 @@ public interface ContentHandler {
      *
      * @return false if the handler wants to stop parsing after return.
      * @see #endArray
+     * @see JSONParser#skipValue()
      */
     boolean startArray() throws ParseException, IOException;
 
@@ -0,0 +1,547 @@
+package org.json.simple.parser;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Pull-style streaming reader for JSON text. Each call to {@link #nextToken()} advances to the next token and the
+ * current token is described by the getters, which read the lexer state directly, so no token objects are created.
+ * It accepts the same grammar as {@link JSONParser}. Please note that JSONCursor is NOT thread-safe.
+ * <pre>
+ * JSONCursor cursor = new JSONCursor(in);
+ * while (cursor.nextToken() != JSONCursor.TOKEN_END_DOCUMENT) {
+ *     if (cursor.currentToken() == JSONCursor.TOKEN_KEY &amp;&amp; "id".equals(cursor.getString()))
+ *         ...
+ * }
+ * </pre>
+ *
+ * @author l_MrBoom_l<admin@epserv.ru>
+ * @see JSONParser
+ * @see ContentHandler
+ */
+public class JSONCursor {
+    public static final int TOKEN_END_DOCUMENT = -1;
+    public static final int TOKEN_START_OBJECT = 1;
+    public static final int TOKEN_END_OBJECT = 2;
+    public static final int TOKEN_START_ARRAY = 3;
+    public static final int TOKEN_END_ARRAY = 4;
+    public static final int TOKEN_KEY = 5;//key of an object entry
+    public static final int TOKEN_STRING = 6;
+    public static final int TOKEN_NUMBER = 7;
+    public static final int TOKEN_BOOLEAN = 8;
+    public static final int TOKEN_NULL = 9;
+    private static final int TOKEN_NONE = 0;
+
+    private final Yylex lexer = new Yylex(null);
+    @Nullable
+    private Utf8Lexer utf8Lexer;
+    @NotNull
+    private Lexer source = lexer;
+    @NotNull
+    private NumberMode numberMode = NumberMode.DEFAULT;
+    @NotNull
+    private ParserLimits limits = ParserLimits.NONE;
+    /**
+     * whether the depth, the entries or the size of documents is limited, and tracked by {@link #checkLimits(int)}
+     */
+    private boolean limitsStructure;
+    @Nullable
+    private SymbolTable keySymbols;
+    @Nullable
+    private SymbolTable valueSymbols;
+    private int[] containerStack = new int[16];
+    /**
+     * the number of entries of every open container, for the limits
+     */
+    private int[] entryCounts = new int[16];
+    private int depth;
+    private int status = JSONParser.S_INIT;
+    private int token = TOKEN_NONE;
+    @Nullable
+    private Object value;
+
+    public JSONCursor(@NotNull Reader in) {
+        reset(in);
+    }
+
+    public JSONCursor(@NotNull String s) {
+        reset(s);
+    }
+
+    public JSONCursor(byte @NotNull [] bytes) {
+        this(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * @param in UTF-8 encoded input, the bytes between its position and its limit are read
+     */
+    public JSONCursor(@NotNull ByteBuffer in) {
+        reset(in);
+    }
+
+    /**
+     * Reset the cursor to the beginning of a new character input.
+     *
+     * @param in The new character reader.
+     */
+    public void reset(@NotNull Reader in) {
+        lexer.yyreset(in);
+        source = lexer;
+        reset();
+    }
+
+    /**
+     * Reset the cursor to the beginning of new character input, read without a reader.
+     *
+     * @param s The new input.
+     * @see JSONParser#reset(CharSequence)
+     */
+    public void reset(@NotNull CharSequence s) {
+        lexer.yyreset(s);
+        source = lexer;
+        reset();
+    }
+
+    /**
+     * Reset the cursor to the beginning of new character input, read directly from a range of an array.
+     *
+     * @param chars The new input, it must not be modified while the cursor is used.
+     * @param offset The index of the first character.
+     * @param length The number of characters.
+     * @see JSONParser#reset(char[], int, int)
+     */
+    public void reset(char @NotNull [] chars, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, chars.length);
+        lexer.yyreset(chars, offset, length);
+        source = lexer;
+        reset();
+    }
+
+    /**
+     * Reset the cursor to the beginning of a new UTF-8 encoded input buffer.
+     * The position of the buffer is not modified.
+     *
+     * @param in The new input buffer.
+     */
+    public void reset(@NotNull ByteBuffer in) {
+        if (utf8Lexer == null) {
+            utf8Lexer = new Utf8Lexer();
+            utf8Lexer.setNumberMode(numberMode);
+            utf8Lexer.setLimits(limits);
+        }
+        utf8Lexer.reset(in);
+        source = utf8Lexer;
+        reset();
+    }
+
+    private void reset() {
+        depth = 0;
+        status = JSONParser.S_INIT;
+        token = TOKEN_NONE;
+        value = null;
+    }
+
+    @NotNull
+    public NumberMode getNumberMode() {
+        return numberMode;
+    }
+
+    /**
+     * Set how JSON numbers are converted into java objects. The default is {@link NumberMode#DEFAULT}.
+     *
+     * @param numberMode The number conversion to use from now on.
+     */
+    public void setNumberMode(@NotNull NumberMode numberMode) {
+        this.numberMode = numberMode;
+        lexer.setNumberMode(numberMode);
+        if (utf8Lexer != null)
+            utf8Lexer.setNumberMode(numberMode);
+    }
+
+    @NotNull
+    public ParserLimits getLimits() {
+        return limits;
+    }
+
+    /**
+     * Set the limits on the resources a document may use, skipped values included. The default is
+     * {@link ParserLimits#NONE}.
+     *
+     * @param limits The limits to check from now on.
+     * @see JSONParser#setLimits(ParserLimits)
+     */
+    public void setLimits(@NotNull ParserLimits limits) {
+        this.limits = limits;
+        limitsStructure = limits.limitsStructure();
+        lexer.setLimits(limits);
+        if (utf8Lexer != null)
+            utf8Lexer.setLimits(limits);
+    }
+
+    @Nullable
+    public SymbolTable getKeySymbols() {
+        return keySymbols;
+    }
+
+    /**
+     * Set the table object keys are interned into. The default is null, every key is a new String.
+     *
+     * @param keySymbols The key table to use from now on, or null.
+     * @see JSONParser#setKeySymbols(SymbolTable)
+     */
+    public void setKeySymbols(@Nullable SymbolTable keySymbols) {
+        this.keySymbols = keySymbols;
+        lexer.setSymbols(null);
+        if (utf8Lexer != null)
+            utf8Lexer.setSymbols(null);
+    }
+
+    @Nullable
+    public SymbolTable getValueSymbols() {
+        return valueSymbols;
+    }
+
+    /**
+     * Set the table string values are deduplicated through. The default is null, every value is a new String.
+     *
+     * @param valueSymbols The value table to use from now on, or null.
+     * @see JSONParser#setValueSymbols(SymbolTable)
+     */
+    public void setValueSymbols(@Nullable SymbolTable valueSymbols) {
+        this.valueSymbols = valueSymbols;
+        lexer.setSymbols(null);
+        if (utf8Lexer != null)
+            utf8Lexer.setSymbols(null);
+    }
+
+    /**
+     * Advance to the next token.
+     *
+     * @return The type of the new current token, one of the {@code TOKEN_*} constants.
+     * {@link #TOKEN_END_DOCUMENT} is returned once the whole document was read, and on every call after that.
+     * @throws ParseException if the input is not valid JSON text.
+     */
+    public int nextToken() throws IOException, ParseException {
+        return advance(true);
+    }
+
+    /**
+     * @param decode whether the values are decoded, see {@link Lexer#skipToken()}
+     */
+    private int advance(boolean decode) throws IOException, ParseException {
+        while (true) {
+            if (status == JSONParser.S_END)
+                return token = TOKEN_END_DOCUMENT;
+
+            // a string is a key if it comes in an object, the value of an entry comes after the key
+            if (keySymbols != null || valueSymbols != null)
+                source.setSymbols(status == JSONParser.S_IN_OBJECT ? keySymbols : valueSymbols);
+            int type = decode ? source.nextToken() : source.skipToken();
+            if (limitsStructure)
+                checkLimits(type);
+            switch (status) {
+                case JSONParser.S_INIT:
+                    switch (type) {
+                        case Yytoken.TYPE_VALUE:
+                            status = JSONParser.S_IN_FINISHED_VALUE;
+                            return primitive();
+                        case Yytoken.TYPE_LEFT_BRACE:
+                            return startContainer(JSONParser.S_IN_OBJECT);
+                        case Yytoken.TYPE_LEFT_SQUARE:
+                            return startContainer(JSONParser.S_IN_ARRAY);
+                    }
+                    break;
+
+                case JSONParser.S_IN_FINISHED_VALUE:
+                    if (type == Yytoken.TYPE_EOF) {
+                        status = JSONParser.S_END;
+                        value = null;
+                        return token = TOKEN_END_DOCUMENT;
+                    }
+                    break;
+
+                case JSONParser.S_IN_OBJECT:
+                    switch (type) {
+                        case Yytoken.TYPE_COMMA:
+                            continue;
+                        case Yytoken.TYPE_VALUE:
+                            if (source.getValue() instanceof String key) {
+                                status = JSONParser.S_PASSED_PAIR_KEY;
+                                value = key;
+                                return token = TOKEN_KEY;
+                            }
+                            break;
+                        case Yytoken.TYPE_RIGHT_BRACE:
+                            return endContainer(TOKEN_END_OBJECT);
+                    }
+                    break;
+
+                case JSONParser.S_PASSED_PAIR_KEY:
+                    switch (type) {
+                        case Yytoken.TYPE_COLON:
+                            continue;
+                        case Yytoken.TYPE_VALUE:
+                            status = JSONParser.S_IN_OBJECT;
+                            return primitive();
+                        case Yytoken.TYPE_LEFT_BRACE:
+                            return startContainer(JSONParser.S_IN_OBJECT);
+                        case Yytoken.TYPE_LEFT_SQUARE:
+                            return startContainer(JSONParser.S_IN_ARRAY);
+                    }
+                    break;
+
+                case JSONParser.S_IN_ARRAY:
+                    switch (type) {
+                        case Yytoken.TYPE_COMMA:
+                            continue;
+                        case Yytoken.TYPE_VALUE:
+                            return primitive();
+                        case Yytoken.TYPE_RIGHT_SQUARE:
+                            return endContainer(TOKEN_END_ARRAY);
+                        case Yytoken.TYPE_LEFT_BRACE:
+                            return startContainer(JSONParser.S_IN_OBJECT);
+                        case Yytoken.TYPE_LEFT_SQUARE:
+                            return startContainer(JSONParser.S_IN_ARRAY);
+                    }
+                    break;
+            }
+
+            status = JSONParser.S_IN_ERROR;
+            int position = source.getPosition();
+            if (!decode && type == Yytoken.TYPE_VALUE && source instanceof Utf8Lexer u) {
+                // the value was not decoded, do it now for the error report
+                u.seek(u.getTextStart());
+                u.nextToken();
+            }
+            throw new ParseException(position, ParseException.ERROR_UNEXPECTED_TOKEN, new Yytoken(type, source.getValue()));
+        }
+    }
+
+    /**
+     * Checks a token against the limits on the structure of the document, before the token changes the state.
+     *
+     * @see JSONParser#getLimits()
+     */
+    private void checkLimits(int type) throws ParseException {
+        final ParserLimits l = limits;
+        final int position = source.getPosition();
+        // the end of input is right after the last character
+        if (position >= l.getMaxDocumentSize() && (type != Yytoken.TYPE_EOF || position > l.getMaxDocumentSize()))
+            throw ParserLimits.exceeded(position, "document size", l.getMaxDocumentSize());
+        if (type == Yytoken.TYPE_VALUE || type == Yytoken.TYPE_LEFT_BRACE || type == Yytoken.TYPE_LEFT_SQUARE) {
+            // the key of an entry, or an element
+            if ((status == JSONParser.S_IN_ARRAY || status == JSONParser.S_IN_OBJECT && type == Yytoken.TYPE_VALUE)
+                    && depth > 0 && ++entryCounts[depth - 1] > l.getMaxEntries())
+                throw ParserLimits.exceeded(position, "entries", l.getMaxEntries());
+            if (type != Yytoken.TYPE_VALUE && depth >= l.getMaxDepth())
+                throw ParserLimits.exceeded(position, "depth", l.getMaxDepth());
+        }
+    }
+
+    private int primitive() {
+        Object v = source.getValue();
+        value = v;
+        if (v == null)
+            return token = TOKEN_NULL;
+        if (v instanceof String)
+            return token = TOKEN_STRING;
+        if (v instanceof Boolean)
+            return token = TOKEN_BOOLEAN;
+        return token = TOKEN_NUMBER;
+    }
+
+    private int startContainer(int container) {
+        if (depth == containerStack.length) {
+            containerStack = Arrays.copyOf(containerStack, depth << 1);
+            entryCounts = Arrays.copyOf(entryCounts, depth << 1);
+        }
+        entryCounts[depth] = 0;
+        containerStack[depth++] = container;
+        status = container;
+        value = null;
+        return token = container == JSONParser.S_IN_OBJECT ? TOKEN_START_OBJECT : TOKEN_START_ARRAY;
+    }
+
+    private int endContainer(int endToken) {
+        depth--;
+        status = depth == 0 ? JSONParser.S_IN_FINISHED_VALUE : containerStack[depth - 1];
+        value = null;
+        return token = endToken;
+    }
+
+    /**
+     * Skip the value at the cursor. If the current token starts an object or an array, the cursor is moved to the
+     * matching end token; if it is a key, the cursor is moved to the last token of the entry value. Otherwise, nothing
+     * is done. The skipped strings and numbers are only delimited, not decoded, when the input is UTF-8 bytes; the
+     * getters do not describe the skipped tokens.
+     */
+    public void skipValue() throws IOException, ParseException {
+        if (token == TOKEN_KEY) {
+            advance(false);
+        }
+        if (token == TOKEN_START_OBJECT || token == TOKEN_START_ARRAY) {
+            int target = depth - 1;
+            while (depth > target)
+                advance(false);
+        }
+    }
+
+    /**
+     * Read the value at the cursor into java objects, like {@link JSONParser#parse(Reader, ContainerFactory)} does for
+     * a whole document. If the current token starts an object or an array, the cursor is moved to the matching end
+     * token; if it is a key, the cursor is moved to the last token of the entry value.
+     *
+     * @param containerFactory Use this factory to create your own JSON object and JSON array containers.
+     * @return Instance of the following:
+     * org.json.simple.JSONObject,
+     * org.json.simple.JSONArray,
+     * java.lang.String,
+     * java.lang.Number,
+     * java.lang.Boolean,
+     * null
+     * @throws IllegalStateException if the current token is not a value, a key or a start token
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable
+    public Object readValue(@Nullable ContainerFactory containerFactory) throws IOException, ParseException {
+        if (token == TOKEN_KEY)
+            nextToken();
+        if (token != TOKEN_START_OBJECT && token != TOKEN_START_ARRAY) {
+            checkValue();
+            return value;
+        }
+
+        // the containers are kept on a stack rather than read recursively, like JSONParser does
+        final Object root = createContainer(containerFactory);
+        final List<Object> containers = new ArrayList<>();
+        containers.add(root);
+        String key = null;
+        while (true) {
+            switch (nextToken()) {
+                case TOKEN_KEY -> key = (String) value;
+                case TOKEN_END_OBJECT, TOKEN_END_ARRAY -> {
+                    containers.remove(containers.size() - 1);
+                    if (containers.isEmpty())
+                        return root;
+                }
+                default -> {
+                    boolean container = token == TOKEN_START_OBJECT || token == TOKEN_START_ARRAY;
+                    Object v = container ? createContainer(containerFactory) : value;
+                    Object parent = containers.get(containers.size() - 1);
+                    if (parent instanceof Map)
+                        ((Map<Object, Object>) parent).put(key, v);
+                    else
+                        ((List<Object>) parent).add(v);
+                    if (container)
+                        containers.add(v);
+                }
+            }
+        }
+    }
+
+    @NotNull
+    private Object createContainer(@Nullable ContainerFactory containerFactory) {
+        if (token == TOKEN_START_OBJECT) {
+            Map<?, ?> m = containerFactory == null ? null : containerFactory.createObjectContainer();
+            return m == null ? new JSONObject() : m;
+        }
+        List<?> l = containerFactory == null ? null : containerFactory.createArrayContainer();
+        return l == null ? new JSONArray() : l;
+    }
+
+    /**
+     * @return The type of the current token, or 0 if {@link #nextToken()} was not called yet.
+     */
+    public int currentToken() {
+        return token;
+    }
+
+    /**
+     * @return The number of objects and arrays enclosing the current token. Start tokens are already counted,
+     * end tokens are not.
+     */
+    public int currentDepth() {
+        return depth;
+    }
+
+    /**
+     * @return The position of the beginning of the current token.
+     * @see JSONParser#getPosition()
+     */
+    public int getPosition() {
+        return source.getPosition();
+    }
+
+    /**
+     * @return The value of the current token: a String for {@link #TOKEN_KEY} and {@link #TOKEN_STRING}, a Number,
+     * a Boolean, or null.
+     */
+    @Nullable
+    public Object getValue() {
+        return value;
+    }
+
+    /**
+     * @return The current key or string value, the text of other primitive values, or null for {@link #TOKEN_NULL}.
+     */
+    @Nullable
+    public String getString() {
+        checkValue();
+        return value == null ? null : value.toString();
+    }
+
+    public long getLong() {
+        return number().longValue();
+    }
+
+    public int getInt() {
+        return number().intValue();
+    }
+
+    public double getDouble() {
+        return number().doubleValue();
+    }
+
+    public boolean getBoolean() {
+        if (value instanceof Boolean b)
+            return b;
+        throw new IllegalStateException("Current token is not a boolean: " + tokenName());
+    }
+
+    @NotNull
+    private Number number() {
+        if (value instanceof Number n)
+            return n;
+        throw new IllegalStateException("Current token is not a number: " + tokenName());
+    }
+
+    private void checkValue() {
+        if (token < TOKEN_KEY)
+            throw new IllegalStateException("Current token has no value: " + tokenName());
+    }
+
+    @NotNull
+    private String tokenName() {
+        return switch (token) {
+            case TOKEN_END_DOCUMENT -> "END OF DOCUMENT";
+            case TOKEN_START_OBJECT -> "START OBJECT";
+            case TOKEN_END_OBJECT -> "END OBJECT";
+            case TOKEN_START_ARRAY -> "START ARRAY";
+            case TOKEN_END_ARRAY -> "END ARRAY";
+            case TOKEN_KEY -> "KEY(" + value + ")";
+            case TOKEN_STRING, TOKEN_NUMBER, TOKEN_BOOLEAN, TOKEN_NULL -> "VALUE(" + value + ")";
+            default -> "NONE";
+        };
+    }
+}
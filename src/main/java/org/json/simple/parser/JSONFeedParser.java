@@ -0,0 +1,164 @@
+package org.json.simple.parser;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Non-blocking stream processing of UTF-8 encoded JSON text that arrives in chunks, such as a request body read from
+ * a non-blocking socket. Chunks of any size are passed to {@link #feed(ByteBuffer)} as they arrive, and
+ * {@link #parse(ContentHandler)} sends the events of the complete tokens to a content handler, then returns
+ * {@link #NEED_MORE_INPUT} instead of waiting for the rest. A token cut by the end of a chunk is kept and scanned again
+ * once the next chunk is fed. Please note that JSONFeedParser is NOT thread-safe.
+ * <pre>
+ * while (feedParser.parse(handler) == JSONFeedParser.NEED_MORE_INPUT) {
+ *     buffer.clear();
+ *     if (channel.read(buffer) &lt; 0)
+ *         feedParser.endOfInput();
+ *     else
+ *         feedParser.feed(buffer.flip());
+ * }
+ * </pre>
+ *
+ * @author l_MrBoom_l<admin@epserv.ru>
+ * @see JSONParser#parse(ByteBuffer, ContentHandler, boolean)
+ */
+public class JSONFeedParser {
+    /**
+     * All the fed input was processed, more is needed to complete the JSON text.
+     */
+    public static final int NEED_MORE_INPUT = 0;
+    /**
+     * The content handler returned false, calling {@link #parse(ContentHandler)} again resumes the processing.
+     */
+    public static final int PAUSED = 1;
+    /**
+     * The input has ended and the JSON text was processed completely, {@link ContentHandler#endJSON()} was called.
+     */
+    public static final int DONE = 2;
+
+    private static final int INITIAL_CAPACITY = 8192;
+
+    private final JSONParser parser = new JSONParser();
+    private byte @NotNull [] bytes = new byte[INITIAL_CAPACITY];
+    @NotNull
+    private ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    /**
+     * the index of the first byte not processed yet
+     */
+    private int start;
+    /**
+     * the index after the last byte fed
+     */
+    private int end;
+    /**
+     * the input offset of the first byte of the buffer
+     */
+    private long offset;
+    private boolean endOfInput;
+
+    /**
+     * Add a chunk of input, the bytes between the position and the limit of the buffer. They are copied, and the
+     * position of the buffer is set to its limit.
+     *
+     * @throws IllegalStateException if the end of input was already signaled
+     */
+    public void feed(@NotNull ByteBuffer chunk) {
+        if (endOfInput)
+            throw new IllegalStateException("Input has already ended");
+        final int length = chunk.remaining();
+        if (bytes.length - end < length) {
+            // drop the processed bytes first, then grow if the rest still does not fit
+            int kept = end - start;
+            byte[] target = kept + length <= bytes.length ? bytes : new byte[Math.max(2 * bytes.length, kept + length)];
+            System.arraycopy(bytes, start, target, 0, kept);
+            if (target != bytes) {
+                bytes = target;
+                buffer = ByteBuffer.wrap(target);
+            }
+            offset += start;
+            start = 0;
+            end = kept;
+        }
+        chunk.get(bytes, end, length);
+        end += length;
+    }
+
+    public void feed(byte @NotNull [] chunk) {
+        feed(ByteBuffer.wrap(chunk));
+    }
+
+    /**
+     * Signal that no more input follows the bytes fed so far. The next call to {@link #parse(ContentHandler)} then
+     * completes the JSON text or reports the error at its end.
+     */
+    public void endOfInput() {
+        endOfInput = true;
+    }
+
+    /**
+     * Process the input fed so far.
+     *
+     * @param contentHandler {@link ContentHandler} to use, usually the same for every call
+     * @return {@link #NEED_MORE_INPUT}, {@link #PAUSED} or {@link #DONE}
+     * @throws ParseException if the input is not valid JSON text, at the byte offset of the error in the whole input
+     * @throws IOException if the content handler throws it
+     */
+    public int parse(@NotNull ContentHandler contentHandler) throws IOException, ParseException {
+        parser.feed(buffer, start, end, offset + start, endOfInput);
+        try {
+            return parser.parseFed(contentHandler);
+        } finally {
+            start = parser.getReadIndex();
+        }
+    }
+
+    /**
+     * Skip a value, called by the content handler while it is notified of it.
+     *
+     * @see JSONParser#skipValue()
+     */
+    public void skipValue() {
+        parser.skipValue();
+    }
+
+    /**
+     * Reset the parser to process a new JSON text, dropping the input fed so far.
+     */
+    public void reset() {
+        parser.reset();
+        start = end = 0;
+        offset = 0;
+        endOfInput = false;
+    }
+
+    /**
+     * @see JSONParser#setNumberMode(NumberMode)
+     */
+    public void setNumberMode(@NotNull NumberMode numberMode) {
+        parser.setNumberMode(numberMode);
+    }
+
+    /**
+     * @see JSONParser#setLimits(ParserLimits)
+     */
+    public void setLimits(@NotNull ParserLimits limits) {
+        parser.setLimits(limits);
+    }
+
+    /**
+     * @see JSONParser#setKeySymbols(SymbolTable)
+     */
+    public void setKeySymbols(@Nullable SymbolTable keySymbols) {
+        parser.setKeySymbols(keySymbols);
+    }
+
+    /**
+     * @see JSONParser#setValueSymbols(SymbolTable)
+     */
+    public void setValueSymbols(@Nullable SymbolTable valueSymbols) {
+        parser.setValueSymbols(valueSymbols);
+    }
+}
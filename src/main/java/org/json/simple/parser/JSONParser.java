@@ -11,14 +11,25 @@ import org.json.simple.JSONObject;
 
 import java.io.IOException;
 import java.io.Reader;
-import java.io.StringReader;
-import java.util.LinkedList;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
 
 
 /**
  * Parser for JSON text. Please note that JSONParser is NOT thread-safe.
+ * <p>
+ * Character input ({@link Reader}, {@link String}) is scanned by {@link Yylex}; UTF-8 encoded byte input
+ * ({@code byte[]}, {@link ByteBuffer}) is scanned directly by {@link Utf8Lexer} without decoding it to chars first.
  *
  * @author FangYidong<fangyidong@yahoo.com.cn>
  * @author l_MrBoom_l<admin@epserv.ru>
@@ -32,22 +43,190 @@ public class JSONParser {
     public static final int S_IN_PAIR_VALUE = 5;
     public static final int S_END = 6;
     public static final int S_IN_ERROR = -1;
+    /**
+     * the number of entries of the size history, a power of two
+     */
+    private static final int SIZE_HISTORY = 1 << 8;
+    /**
+     * the largest size hint, so that one large document does not make the containers of the next ones large
+     */
+    private static final int MAX_SIZE_HINT = 1 << 10;
+    /**
+     * the path of the elements of an array, relative to the array
+     */
+    private static final int ELEMENT_PATH = 0x9E3779B9;
     private final Yylex lexer = new Yylex(null);
-    private LinkedList<Integer> handlerStatusStack;
-    private Yytoken token = null;
+    @Nullable
+    private Utf8Lexer utf8Lexer;
+    @NotNull
+    private Lexer source = lexer;
+    @NotNull
+    private NumberMode numberMode = NumberMode.DEFAULT;
+    @Nullable
+    private SymbolTable keySymbols;
+    @Nullable
+    private SymbolTable valueSymbols;
+    @NotNull
+    private ParserLimits limits = ParserLimits.NONE;
+    /**
+     * whether the depth, the entries or the size of documents is limited, and tracked by {@link #checkLimits(int)}
+     */
+    private boolean limitsStructure;
+    /**
+     * the number of entries of every open container, for the limits
+     */
+    private int[] entryCounts = new int[16];
+    private int openDepth;
+    /**
+     * the cursor of the selective parsing, created on first use
+     */
+    @Nullable
+    private JSONCursor cursor;
+    /*
+     * The parser keeps its stacks between documents, so that steady-state parsing only allocates the resulting
+     * containers and values.
+     */
+    private int[] statusStack = new int[16];
+    private int statusDepth;
+    private Object[] valueStack = new Object[16];
+    private int valueDepth;
+    /**
+     * the hash of the path of every container on the value stack, at the index of the container
+     */
+    private int[] pathStack = new int[16];
+    /**
+     * The size of the container last seen at a path, so that the containers at the same path of the next documents
+     * are created large enough. An entry holds the hash of the path in the high half, to tell paths apart that share
+     * the entry, and the size in the low half.
+     */
+    private final long[] sizeHistory = new long[SIZE_HISTORY];
+    /**
+     * Whether a stream processing operation was started and can be resumed.
+     */
+    private boolean handlerStarted;
+    /**
+     * Whether the content handler asked to skip the value it is notified of.
+     */
+    private boolean skipRequested;
+    /**
+     * The depth of the status stack at which the skipped value ends, or -1 if no value is skipped.
+     */
+    private int skipBase = -1;
+    /**
+     * The status of the skipped value: {@link #S_PASSED_PAIR_KEY} for the value of an entry, {@link #S_IN_OBJECT}
+     * or {@link #S_IN_ARRAY} for the rest of a container.
+     */
+    private int skipped;
+    private int tokenType = Yytoken.TYPE_EOF;
+    @Nullable
+    private Object tokenValue;
     private int status = S_INIT;
 
-    private int peekStatus(@NotNull LinkedList<Integer> statusStack) {
-        return statusStack.size() == 0 ? -1 : statusStack.getFirst();
+    private void pushStatus(int status) {
+        if (statusDepth == statusStack.length)
+            statusStack = Arrays.copyOf(statusStack, statusDepth << 1);
+        statusStack[statusDepth++] = status;
+    }
+
+    private int peekStatus() {
+        return statusDepth == 0 ? -1 : statusStack[statusDepth - 1];
+    }
+
+    private void pushValue(@Nullable Object value) {
+        if (valueDepth == valueStack.length)
+            valueStack = Arrays.copyOf(valueStack, valueDepth << 1);
+        valueStack[valueDepth++] = value;
+    }
+
+    private void pushContainer(@NotNull Object container, int path) {
+        if (valueDepth >= pathStack.length)
+            pathStack = Arrays.copyOf(pathStack, Math.max(valueDepth + 1, pathStack.length << 1));
+        pathStack[valueDepth] = path;
+        pushValue(container);
+    }
+
+    /**
+     * @return the hash of the path of a child of the container on top of the value stack, or of the top-level value
+     */
+    private int childPath(@Nullable String key) {
+        int parent = valueDepth == 0 ? 0 : pathStack[valueDepth - 1];
+        return 31 * parent + (key == null ? ELEMENT_PATH : key.hashCode());
+    }
+
+    private static int historyIndex(int path) {
+        return (path ^ path >>> 16) & SIZE_HISTORY - 1;
+    }
+
+    /**
+     * @return the size of the container last seen at the path, at most {@link #MAX_SIZE_HINT} and the limit on
+     * entries, or 0 if unknown
+     */
+    private int sizeHint(int path) {
+        long entry = sizeHistory[historyIndex(path)];
+        if ((int) (entry >>> 32) != path)
+            return 0;
+        return Math.min((int) entry, Math.min(MAX_SIZE_HINT, limits.getMaxEntries()));
+    }
+
+    /**
+     * Remember the size of the container on top of the value stack, which is complete.
+     */
+    private void recordSize(int size) {
+        int path = pathStack[valueDepth - 1];
+        sizeHistory[historyIndex(path)] = (long) path << 32 | size;
+    }
+
+    @Nullable
+    private Object popValue() {
+        Object value = valueStack[--valueDepth];
+        valueStack[valueDepth] = null;
+        return value;
+    }
+
+    @Nullable
+    private Object peekValue() {
+        return valueStack[valueDepth - 1];
     }
 
     /**
      * Reset the parser to the initial state without resetting the underlying reader.
      */
     public void reset() {
-        token = null;
+        tokenType = Yytoken.TYPE_EOF;
+        tokenValue = null;
         status = S_INIT;
-        handlerStatusStack = null;
+        statusDepth = 0;
+        Arrays.fill(valueStack, 0, valueDepth, null);
+        valueDepth = 0;
+        handlerStarted = false;
+        skipRequested = false;
+        skipBase = -1;
+        openDepth = 0;
+    }
+
+    /**
+     * Reset the parser and drop its input, the sizes of the containers it has seen, and the buffers and stacks that
+     * grew larger than a capacity, so that an idle parser holds no large memory and the next user starts afresh.
+     *
+     * @param maxCapacity the largest capacity of a buffer that is kept
+     * @see JSONParsers
+     */
+    void trim(int maxCapacity) {
+        reset();
+        lexer.trim(maxCapacity);
+        source = lexer;
+        if (utf8Lexer != null)
+            utf8Lexer.trim(maxCapacity);
+        cursor = null;
+        Arrays.fill(sizeHistory, 0);
+        if (statusStack.length > maxCapacity)
+            statusStack = new int[16];
+        if (valueStack.length > maxCapacity)
+            valueStack = new Object[16];
+        if (pathStack.length > maxCapacity)
+            pathStack = new int[16];
+        if (entryCounts.length > maxCapacity)
+            entryCounts = new int[16];
     }
 
     /**
@@ -57,14 +236,178 @@ public class JSONParser {
      */
     public void reset(@Nullable Reader in) {
         lexer.yyreset(in);
+        source = lexer;
+        reset();
+    }
+
+    /**
+     * Reset the parser to the initial state with new character input, read without a reader.
+     *
+     * @param s The new input; a {@link java.nio.CharBuffer} with an accessible array is read in place, other sequences
+     *          are copied once, so they may be modified after this method returns.
+     */
+    public void reset(@NotNull CharSequence s) {
+        lexer.yyreset(s);
+        source = lexer;
+        reset();
+    }
+
+    /**
+     * Reset the parser to the initial state with new character input, read directly from a range of an array.
+     * The array is not copied, it must not be modified until the input is parsed. Positions are relative to the offset.
+     *
+     * @param chars The new input.
+     * @param offset The index of the first character.
+     * @param length The number of characters.
+     */
+    public void reset(char @NotNull [] chars, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, chars.length);
+        lexer.yyreset(chars, offset, length);
+        source = lexer;
         reset();
     }
 
     /**
-     * @return The position of the beginning of the current token.
+     * Reset the parser to the initial state with a new UTF-8 encoded input buffer.
+     * The bytes between the position and the limit of the buffer are parsed, the position of the buffer is not modified.
+     *
+     * @param in The new input buffer.
+     */
+    public void reset(@NotNull ByteBuffer in) {
+        reset(in, in.position(), in.limit());
+    }
+
+    /**
+     * Reset the parser to the initial state with a range of a UTF-8 encoded input buffer.
+     *
+     * @see Utf8Lexer#reset(ByteBuffer, int, int)
+     */
+    void reset(@NotNull ByteBuffer in, int from, int to) {
+        Utf8Lexer u = utf8Lexer();
+        u.reset(in, from, to);
+        source = u;
+        reset();
+    }
+
+    /**
+     * Reset the parser to the initial state with a new UTF-8 encoded input file. The file is memory-mapped and read
+     * from the current position of the channel to its end, the position of the channel is not modified.
+     *
+     * @param in The new input file.
+     */
+    public void reset(@NotNull FileChannel in) throws IOException {
+        reset(in, MappedInput.DEFAULT_WINDOW_SIZE);
+    }
+
+    void reset(@NotNull FileChannel in, int windowSize) throws IOException {
+        MappedInput input = new MappedInput(in, windowSize);
+        Utf8Lexer u = utf8Lexer();
+        try {
+            u.reset(input);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        source = u;
+        reset();
+    }
+
+    /**
+     * @return the scanner of UTF-8 input, created with the settings of the parser on first use
+     */
+    @NotNull
+    private Utf8Lexer utf8Lexer() {
+        Utf8Lexer u = utf8Lexer;
+        if (u == null) {
+            utf8Lexer = u = new Utf8Lexer();
+            u.setNumberMode(numberMode);
+            u.setLimits(limits);
+        }
+        return u;
+    }
+
+    @NotNull
+    public NumberMode getNumberMode() {
+        return numberMode;
+    }
+
+    /**
+     * Set how JSON numbers are converted into java objects. The default is {@link NumberMode#DEFAULT}.
+     *
+     * @param numberMode The number conversion to use from now on.
+     */
+    public void setNumberMode(@NotNull NumberMode numberMode) {
+        this.numberMode = numberMode;
+        lexer.setNumberMode(numberMode);
+        if (utf8Lexer != null)
+            utf8Lexer.setNumberMode(numberMode);
+    }
+
+    @NotNull
+    public ParserLimits getLimits() {
+        return limits;
+    }
+
+    /**
+     * Set the limits on the resources a document may use. The default is {@link ParserLimits#NONE}.
+     * The parallel parse of an array is sequential when the depth, the entries or the size of documents is limited,
+     * and the lazy parse only checks the size of documents and the lengths of strings and numbers.
+     *
+     * @param limits The limits to check from now on.
+     */
+    public void setLimits(@NotNull ParserLimits limits) {
+        this.limits = limits;
+        limitsStructure = limits.limitsStructure();
+        lexer.setLimits(limits);
+        if (utf8Lexer != null)
+            utf8Lexer.setLimits(limits);
+    }
+
+    @Nullable
+    public SymbolTable getKeySymbols() {
+        return keySymbols;
+    }
+
+    /**
+     * Set the table object keys are interned into, so that equal keys are returned as the same String instance.
+     * Keys are looked up by their scanned characters and only allocated when they are not in the table. The table
+     * can be shared by parsers of several threads. The default is null, every key is a new String.
+     *
+     * @param keySymbols The key table to use from now on, or null.
+     */
+    public void setKeySymbols(@Nullable SymbolTable keySymbols) {
+        this.keySymbols = keySymbols;
+        lexer.setSymbols(null);
+        if (utf8Lexer != null)
+            utf8Lexer.setSymbols(null);
+    }
+
+    @Nullable
+    public SymbolTable getValueSymbols() {
+        return valueSymbols;
+    }
+
+    /**
+     * Set the table string values are deduplicated through, so that equal values no longer than the maximum length of
+     * the table are returned as the same String instance. This suits values from a small set, such as status names or
+     * country codes, which long-lived parsed trees would otherwise hold many copies of. The table can be the key table
+     * as well. The default is null, every value is a new String.
+     *
+     * @param valueSymbols The value table to use from now on, or null.
+     * @see SymbolTable#getHits()
+     */
+    public void setValueSymbols(@Nullable SymbolTable valueSymbols) {
+        this.valueSymbols = valueSymbols;
+        lexer.setSymbols(null);
+        if (utf8Lexer != null)
+            utf8Lexer.setSymbols(null);
+    }
+
+    /**
+     * @return The position of the beginning of the current token. For byte input, this is a byte offset, saturated to
+     * Integer.MAX_VALUE for files larger than 2 GB.
      */
     public int getPosition() {
-        return lexer.getPosition();
+        return source.getPosition();
     }
 
     @NotNull
@@ -84,9 +427,67 @@ public class JSONParser {
 
     @NotNull
     public Object parse(@NotNull String s, @Nullable ContainerFactory containerFactory) throws ParseException {
-        StringReader in = new StringReader(s);
+        return parse((CharSequence) s, containerFactory);
+    }
+
+    @NotNull
+    public Object parse(@NotNull CharSequence s) throws ParseException {
+        return parse(s, (ContainerFactory) null);
+    }
+
+    /**
+     * Parse JSON text from characters in memory. The characters are scanned without a reader, and a small text does
+     * not need a large read buffer.
+     *
+     * @param s Text to use
+     * @param containerFactory Use this factory to create your own JSON object and JSON array containers.
+     * @return Instance of the following:
+     * org.json.simple.JSONObject,
+     * org.json.simple.JSONArray,
+     * java.lang.String,
+     * java.lang.Number,
+     * java.lang.Boolean,
+     * null
+     * @see #reset(CharSequence)
+     */
+    @NotNull
+    public Object parse(@NotNull CharSequence s, @Nullable ContainerFactory containerFactory) throws ParseException {
+        reset(s);
+        return parseChars(containerFactory);
+    }
+
+    @NotNull
+    public Object parse(char @NotNull [] chars, int offset, int length) throws ParseException {
+        return parse(chars, offset, length, null);
+    }
+
+    /**
+     * Parse JSON text from a range of a character array, scanning the array in place.
+     *
+     * @param chars Array to use, it must not be modified until this method returns
+     * @param offset The index of the first character.
+     * @param length The number of characters.
+     * @param containerFactory Use this factory to create your own JSON object and JSON array containers.
+     * @return Instance of the following:
+     * org.json.simple.JSONObject,
+     * org.json.simple.JSONArray,
+     * java.lang.String,
+     * java.lang.Number,
+     * java.lang.Boolean,
+     * null
+     * @see #reset(char[], int, int)
+     */
+    @NotNull
+    public Object parse(char @NotNull [] chars, int offset, int length,
+                        @Nullable ContainerFactory containerFactory) throws ParseException {
+        reset(chars, offset, length);
+        return parseChars(containerFactory);
+    }
+
+    @NotNull
+    private Object parseChars(@Nullable ContainerFactory containerFactory) throws ParseException {
         try {
-            return parse(in, containerFactory);
+            return parse(containerFactory);
         } catch (IOException ie) {
             /*
              * Actually it will never happen.
@@ -100,6 +501,245 @@ public class JSONParser {
         return parse(in, (ContainerFactory) null);
     }
 
+    @NotNull
+    public Object parse(byte @NotNull [] bytes) throws ParseException {
+        return parse(ByteBuffer.wrap(bytes), (ContainerFactory) null);
+    }
+
+    @NotNull
+    public Object parse(byte @NotNull [] bytes, @Nullable ContainerFactory containerFactory) throws ParseException {
+        return parse(ByteBuffer.wrap(bytes), containerFactory);
+    }
+
+    @NotNull
+    public Object parse(@NotNull ByteBuffer in) throws ParseException {
+        return parse(in, (ContainerFactory) null);
+    }
+
+    /**
+     * Parse UTF-8 encoded JSON text from a heap or direct buffer.
+     * The bytes between the position and the limit of the buffer are parsed, the position of the buffer is not modified.
+     *
+     * @param in Buffer to use
+     * @param containerFactory Use this factory to create your own JSON object and JSON array containers.
+     * @return Instance of the following:
+     * org.json.simple.JSONObject,
+     * org.json.simple.JSONArray,
+     * java.lang.String,
+     * java.lang.Number,
+     * java.lang.Boolean,
+     * null
+     * @see #parse(Reader, ContainerFactory)
+     */
+    @NotNull
+    public Object parse(@NotNull ByteBuffer in, @Nullable ContainerFactory containerFactory) throws ParseException {
+        reset(in);
+        try {
+            return parse(containerFactory);
+        } catch (IOException ie) {
+            /*
+             * Actually it will never happen.
+             */
+            throw new ParseException(-1, ParseException.ERROR_UNEXPECTED_EXCEPTION, ie);
+        }
+    }
+
+    @NotNull
+    public Object parse(@NotNull Path file) throws IOException, ParseException {
+        return parse(file, (ContainerFactory) null);
+    }
+
+    @NotNull
+    public Object parse(@NotNull Path file, @Nullable ContainerFactory containerFactory) throws IOException, ParseException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return parse(channel, containerFactory);
+        }
+    }
+
+    @NotNull
+    public Object parse(@NotNull FileChannel in) throws IOException, ParseException {
+        return parse(in, (ContainerFactory) null);
+    }
+
+    /**
+     * Parse a UTF-8 encoded JSON file by memory-mapping it and scanning the mapped bytes directly, so the text is
+     * read from the page cache without being copied into a char buffer first. Files larger than 2 GB are mapped
+     * window by window.
+     *
+     * @param in File to use, it is read from its current position, which is not modified
+     * @param containerFactory Use this factory to create your own JSON object and JSON array containers.
+     * @return Instance of the following:
+     * org.json.simple.JSONObject,
+     * org.json.simple.JSONArray,
+     * java.lang.String,
+     * java.lang.Number,
+     * java.lang.Boolean,
+     * null
+     * @see #parse(ByteBuffer, ContainerFactory)
+     */
+    @NotNull
+    public Object parse(@NotNull FileChannel in, @Nullable ContainerFactory containerFactory) throws IOException, ParseException {
+        reset(in);
+        try {
+            return parse(containerFactory);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @NotNull
+    public Object parseParallel(byte @NotNull [] bytes, @NotNull ForkJoinPool pool) throws ParseException {
+        return parseParallel(ByteBuffer.wrap(bytes), null, pool);
+    }
+
+    @NotNull
+    public Object parseParallel(@NotNull ByteBuffer in, @NotNull ForkJoinPool pool) throws ParseException {
+        return parseParallel(in, null, pool);
+    }
+
+    /**
+     * Parse UTF-8 encoded JSON text whose top level is one large array, parsing parts of the array concurrently.
+     * The body of the array is cut at what look like boundaries between elements, every part is parsed on the pool
+     * by its own parser, and the elements are collected in order into one array. From the first part cut at a wrong
+     * guess, for example inside a string, the rest of the array is parsed once by this parser alone, so the result and
+     * the errors are the same as those of {@link #parse(ByteBuffer, ContainerFactory)}. Any other input, or an array smaller than a few parts
+     * of 64 KB, is parsed by this parser alone.
+     * <p>
+     * The buffer must not be modified until this method returns. The container factory is called from the worker
+     * threads concurrently.
+     *
+     * @param in Buffer to use
+     * @param containerFactory Use this factory to create your own JSON object and JSON array containers.
+     * @param pool the pool the parts are parsed on
+     * @return Instance of the following:
+     * org.json.simple.JSONObject,
+     * org.json.simple.JSONArray,
+     * java.lang.String,
+     * java.lang.Number,
+     * java.lang.Boolean,
+     * null
+     * @see NDJSONReader
+     */
+    @NotNull
+    public Object parseParallel(@NotNull ByteBuffer in, @Nullable ContainerFactory containerFactory,
+                                @NotNull ForkJoinPool pool) throws ParseException {
+        return ParallelArrayParser.parse(this, in, containerFactory, pool);
+    }
+
+    @NotNull
+    public Object parseLazy(@NotNull String s) throws ParseException {
+        return parseLazy(ByteBuffer.wrap(s.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @NotNull
+    public Object parseLazy(byte @NotNull [] bytes) throws ParseException {
+        return parseLazy(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Parse UTF-8 encoded JSON text in two stages. The whole input is scanned once to validate it and to record the
+     * offsets of its tokens, then objects and arrays are returned as read-only views that decode keys and values from
+     * the buffer only when they are accessed. This is much cheaper than {@link #parse(ByteBuffer)} when only a few
+     * values of a large document are read.
+     * <p>
+     * The buffer must not be modified as long as the views are used. The views are NOT thread-safe, and any operation
+     * other than {@code get}, {@code containsKey}, {@code isEmpty} and the {@code size} of arrays decodes all the
+     * entries of the container it is called on.
+     *
+     * @param in Buffer to use
+     * @return Instance of the following:
+     * org.json.simple.JSONObject (read-only view),
+     * org.json.simple.JSONArray (read-only view),
+     * java.lang.String,
+     * java.lang.Number,
+     * java.lang.Boolean,
+     * null
+     * @see #parse(ByteBuffer, ContainerFactory)
+     */
+    @NotNull
+    public Object parseLazy(@NotNull ByteBuffer in) throws ParseException {
+        if (in.remaining() > limits.getMaxDocumentSize())
+            throw ParserLimits.exceeded((int) limits.getMaxDocumentSize(), "document size", limits.getMaxDocumentSize());
+        reset(in);
+        return Tape.build((Utf8Lexer) source, in, numberMode).value(0);
+    }
+
+    @Nullable
+    public Object parse(@NotNull String s, @NotNull JSONSelector selector) throws ParseException {
+        JSONCursor c = cursor();
+        c.reset(s);
+        try {
+            return selector.select(c, null);
+        } catch (IOException ie) {
+            /*
+             * Actually it will never happen.
+             */
+            throw new ParseException(-1, ParseException.ERROR_UNEXPECTED_EXCEPTION, ie);
+        }
+    }
+
+    @Nullable
+    public Object parse(byte @NotNull [] bytes, @NotNull JSONSelector selector) throws ParseException {
+        return parse(ByteBuffer.wrap(bytes), selector, null);
+    }
+
+    /**
+     * Parse UTF-8 encoded JSON text, keeping only the values selected by their JSON Pointers. The values on no
+     * selected path are skipped by the lexer without decoding their strings or converting their numbers, and no
+     * container is built for them, but the whole input is still validated.
+     * The bytes between the position and the limit of the buffer are parsed, the position of the buffer is not modified.
+     *
+     * @param in Buffer to use
+     * @param selector the values to keep
+     * @param containerFactory Use this factory to create your own JSON object and JSON array containers.
+     * @return the document pruned to the selected values, see {@link JSONSelector}, or null if it is a primitive value
+     * that is not selected
+     * @see JSONCursor#skipValue()
+     */
+    @Nullable
+    public Object parse(@NotNull ByteBuffer in, @NotNull JSONSelector selector,
+                        @Nullable ContainerFactory containerFactory) throws ParseException {
+        JSONCursor c = cursor();
+        c.reset(in);
+        try {
+            return selector.select(c, containerFactory);
+        } catch (IOException ie) {
+            /*
+             * Actually it will never happen.
+             */
+            throw new ParseException(-1, ParseException.ERROR_UNEXPECTED_EXCEPTION, ie);
+        }
+    }
+
+    /**
+     * Parse JSON text from the input source, keeping only the values selected by their JSON Pointers.
+     *
+     * @see #parse(ByteBuffer, JSONSelector, ContainerFactory)
+     */
+    @Nullable
+    public Object parse(@NotNull Reader in, @NotNull JSONSelector selector,
+                        @Nullable ContainerFactory containerFactory) throws IOException, ParseException {
+        JSONCursor c = cursor();
+        c.reset(in);
+        return selector.select(c, containerFactory);
+    }
+
+    @NotNull
+    private JSONCursor cursor() {
+        JSONCursor c = cursor;
+        if (c == null)
+            cursor = c = new JSONCursor(ByteBuffer.allocate(0));
+        if (c.getNumberMode() != numberMode)
+            c.setNumberMode(numberMode);
+        if (c.getLimits() != limits)
+            c.setLimits(limits);
+        if (c.getKeySymbols() != keySymbols)
+            c.setKeySymbols(keySymbols);
+        if (c.getValueSymbols() != valueSymbols)
+            c.setValueSymbols(valueSymbols);
+        return c;
+    }
+
     /**
      * Parse JSON text into java object from the input source.
      *
@@ -113,60 +753,92 @@ public class JSONParser {
      * java.lang.Boolean,
      * null
      */
-    @SuppressWarnings("unchecked")
     @NotNull
     public Object parse(@NotNull Reader in, @Nullable ContainerFactory containerFactory) throws IOException, ParseException {
         reset(in);
-        LinkedList<Integer> statusStack = new LinkedList<>();
-        LinkedList<Object> valueStack = new LinkedList<>();
+        return parse(containerFactory);
+    }
+
+    /**
+     * Parse the elements of an array from a range of a UTF-8 encoded buffer that starts right after the left square
+     * bracket or at a comma between two elements, and ends at a comma or right before the right square bracket.
+     *
+     * @return the elements
+     * @throws ParseException if the range does not contain whole elements; if it starts at a real element boundary,
+     *                        an error positioned before the end of the range is an error of the input
+     */
+    @SuppressWarnings("unchecked")
+    @NotNull
+    List<Object> parseElements(@NotNull ByteBuffer in, int from, int to, @Nullable ContainerFactory containerFactory)
+            throws ParseException {
+        reset(in, from, to);
+        ((Utf8Lexer) source).closeArrayAtEnd();
+        status = S_IN_ARRAY;
+        pushStatus(status);
+        pushContainer(new ArrayList<>(), childPath(null));
+        try {
+            return (List<Object>) parse(containerFactory);
+        } catch (IOException ie) {
+            /*
+             * Actually it will never happen.
+             */
+            throw new ParseException(-1, ParseException.ERROR_UNEXPECTED_EXCEPTION, ie);
+        }
+    }
 
+    @SuppressWarnings("unchecked")
+    @NotNull
+    Object parse(@Nullable ContainerFactory containerFactory) throws IOException, ParseException {
         do {
             nextToken();
             switch (status) {
                 case S_INIT:
-                    switch (token.type) {
+                    switch (tokenType) {
                         case Yytoken.TYPE_VALUE -> {
                             status = S_IN_FINISHED_VALUE;
-                            statusStack.addFirst(status);
-                            valueStack.addFirst(token.value);
+                            pushStatus(status);
+                            pushValue(tokenValue);
                         }
                         case Yytoken.TYPE_LEFT_BRACE -> {
                             status = S_IN_OBJECT;
-                            statusStack.addFirst(status);
-                            valueStack.addFirst(createObjectContainer(containerFactory));
+                            pushStatus(status);
+                            int path = childPath(null);
+                            pushContainer(createObjectContainer(containerFactory, sizeHint(path)), path);
                         }
                         case Yytoken.TYPE_LEFT_SQUARE -> {
                             status = S_IN_ARRAY;
-                            statusStack.addFirst(status);
-                            valueStack.addFirst(createArrayContainer(containerFactory));
+                            pushStatus(status);
+                            int path = childPath(null);
+                            pushContainer(createArrayContainer(containerFactory, sizeHint(path)), path);
                         }
                         default -> status = S_IN_ERROR;
                     }//inner switch
                     break;
 
                 case S_IN_FINISHED_VALUE:
-                    if (token.type == Yytoken.TYPE_EOF)
-                        return valueStack.removeFirst();
+                    if (tokenType == Yytoken.TYPE_EOF)
+                        return popValue();
                     else
-                        throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, token);
+                        throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, unexpectedToken());
                 case S_IN_OBJECT:
-                    switch (token.type) {
+                    switch (tokenType) {
                         case Yytoken.TYPE_COMMA:
                             break;
                         case Yytoken.TYPE_VALUE:
-                            if (token.value instanceof String key) {
-                                valueStack.addFirst(key);
+                            if (tokenValue instanceof String key) {
+                                pushValue(key);
                                 status = S_PASSED_PAIR_KEY;
-                                statusStack.addFirst(status);
+                                pushStatus(status);
                             } else {
                                 status = S_IN_ERROR;
                             }
                             break;
                         case Yytoken.TYPE_RIGHT_BRACE:
-                            if (valueStack.size() > 1) {
-                                statusStack.removeFirst();
-                                valueStack.removeFirst();
-                                status = peekStatus(statusStack);
+                            recordSize(((Map<?, ?>) peekValue()).size());
+                            if (valueDepth > 1) {
+                                statusDepth--;
+                                popValue();
+                                status = peekStatus();
                             } else {
                                 status = S_IN_FINISHED_VALUE;
                             }
@@ -178,35 +850,37 @@ public class JSONParser {
                     break;
 
                 case S_PASSED_PAIR_KEY:
-                    switch (token.type) {
+                    switch (tokenType) {
                         case Yytoken.TYPE_COLON:
                             break;
                         case Yytoken.TYPE_VALUE:
-                            statusStack.removeFirst();
-                            String key = (String) valueStack.removeFirst();
-                            Map<String, Object> parent = (Map<String, Object>) valueStack.getFirst();
-                            parent.put(key, token.value);
-                            status = peekStatus(statusStack);
+                            statusDepth--;
+                            String key = (String) popValue();
+                            Map<String, Object> parent = (Map<String, Object>) peekValue();
+                            parent.put(key, tokenValue);
+                            status = peekStatus();
                             break;
                         case Yytoken.TYPE_LEFT_SQUARE:
-                            statusStack.removeFirst();
-                            key = (String) valueStack.removeFirst();
-                            parent = (Map<String, Object>) valueStack.getFirst();
-                            List<?> newArray = createArrayContainer(containerFactory);
+                            statusDepth--;
+                            key = (String) popValue();
+                            parent = (Map<String, Object>) peekValue();
+                            int path = childPath(key);
+                            List<?> newArray = createArrayContainer(containerFactory, sizeHint(path));
                             parent.put(key, newArray);
                             status = S_IN_ARRAY;
-                            statusStack.addFirst(status);
-                            valueStack.addFirst(newArray);
+                            pushStatus(status);
+                            pushContainer(newArray, path);
                             break;
                         case Yytoken.TYPE_LEFT_BRACE:
-                            statusStack.removeFirst();
-                            key = (String) valueStack.removeFirst();
-                            parent = (Map<String, Object>) valueStack.getFirst();
-                            Map<?, ?> newObject = createObjectContainer(containerFactory);
+                            statusDepth--;
+                            key = (String) popValue();
+                            parent = (Map<String, Object>) peekValue();
+                            path = childPath(key);
+                            Map<?, ?> newObject = createObjectContainer(containerFactory, sizeHint(path));
                             parent.put(key, newObject);
                             status = S_IN_OBJECT;
-                            statusStack.addFirst(status);
-                            valueStack.addFirst(newObject);
+                            pushStatus(status);
+                            pushContainer(newObject, path);
                             break;
                         default:
                             status = S_IN_ERROR;
@@ -214,75 +888,237 @@ public class JSONParser {
                     break;
 
                 case S_IN_ARRAY:
-                    switch (token.type) {
+                    switch (tokenType) {
                         case Yytoken.TYPE_COMMA:
                             break;
                         case Yytoken.TYPE_VALUE:
-                            List<Object> val = (List<Object>) valueStack.getFirst();
-                            val.add(token.value);
+                            List<Object> val = (List<Object>) peekValue();
+                            val.add(tokenValue);
                             break;
                         case Yytoken.TYPE_RIGHT_SQUARE:
-                            if (valueStack.size() > 1) {
-                                statusStack.removeFirst();
-                                valueStack.removeFirst();
-                                status = peekStatus(statusStack);
+                            recordSize(((List<?>) peekValue()).size());
+                            if (valueDepth > 1) {
+                                statusDepth--;
+                                popValue();
+                                status = peekStatus();
                             } else {
                                 status = S_IN_FINISHED_VALUE;
                             }
                             break;
                         case Yytoken.TYPE_LEFT_BRACE:
-                            val = (List<Object>) valueStack.getFirst();
-                            Map<?, ?> newObject = createObjectContainer(containerFactory);
+                            val = (List<Object>) peekValue();
+                            int path = childPath(null);
+                            Map<?, ?> newObject = createObjectContainer(containerFactory, sizeHint(path));
                             val.add(newObject);
                             status = S_IN_OBJECT;
-                            statusStack.addFirst(status);
-                            valueStack.addFirst(newObject);
+                            pushStatus(status);
+                            pushContainer(newObject, path);
                             break;
                         case Yytoken.TYPE_LEFT_SQUARE:
-                            val = (List<Object>) valueStack.getFirst();
-                            List<?> newArray = createArrayContainer(containerFactory);
+                            val = (List<Object>) peekValue();
+                            path = childPath(null);
+                            List<?> newArray = createArrayContainer(containerFactory, sizeHint(path));
                             val.add(newArray);
                             status = S_IN_ARRAY;
-                            statusStack.addFirst(status);
-                            valueStack.addFirst(newArray);
+                            pushStatus(status);
+                            pushContainer(newArray, path);
                             break;
                         default:
                             status = S_IN_ERROR;
                     }//inner switch
                     break;
                 case S_IN_ERROR:
-                    throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, token);
+                    throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, unexpectedToken());
             }//switch
             if (status == S_IN_ERROR) {
-                throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, token);
+                throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, unexpectedToken());
             }
-        } while (token.type != Yytoken.TYPE_EOF);
+        } while (tokenType != Yytoken.TYPE_EOF);
 
-        throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, token);
+        throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, unexpectedToken());
     }
 
     private void nextToken() throws IOException, ParseException {
-        token = lexer.yylex();
-        if (token == null)
-            token = new Yytoken(Yytoken.TYPE_EOF, null);
+        // a string is a key if it comes in an object, the value of an entry comes after the key
+        if (keySymbols != null || valueSymbols != null)
+            source.setSymbols(status == S_IN_OBJECT ? keySymbols : valueSymbols);
+        tokenType = source.nextToken();
+        tokenValue = source.getValue();
+        if (limitsStructure)
+            checkLimits(status);
+    }
+
+    /**
+     * Checks the current token against the limits on the structure of the document.
+     *
+     * @param context the status the token is read in
+     */
+    private void checkLimits(int context) throws ParseException {
+        final ParserLimits l = limits;
+        final int position = getPosition();
+        // the end of input is right after the last character
+        if (position >= l.getMaxDocumentSize() && (tokenType != Yytoken.TYPE_EOF || position > l.getMaxDocumentSize()))
+            throw ParserLimits.exceeded(position, "document size", l.getMaxDocumentSize());
+        switch (tokenType) {
+            case Yytoken.TYPE_VALUE, Yytoken.TYPE_LEFT_BRACE, Yytoken.TYPE_LEFT_SQUARE -> {
+                // the key of an entry, or an element
+                if ((context == S_IN_ARRAY || context == S_IN_OBJECT && tokenType == Yytoken.TYPE_VALUE)
+                        && openDepth > 0 && ++entryCounts[openDepth - 1] > l.getMaxEntries())
+                    throw ParserLimits.exceeded(position, "entries", l.getMaxEntries());
+                if (tokenType != Yytoken.TYPE_VALUE) {
+                    if (openDepth >= l.getMaxDepth())
+                        throw ParserLimits.exceeded(position, "depth", l.getMaxDepth());
+                    if (openDepth == entryCounts.length)
+                        entryCounts = Arrays.copyOf(entryCounts, openDepth << 1);
+                    entryCounts[openDepth++] = 0;
+                }
+            }
+            case Yytoken.TYPE_RIGHT_BRACE, Yytoken.TYPE_RIGHT_SQUARE -> {
+                if (openDepth > 0)
+                    openDepth--;
+            }
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Reads the next token for stream processing.
+     *
+     * @return false if the input is fed and the next token is not complete yet, then the state is left unchanged and
+     * the token is read again on resume
+     * @see #parseFed(ContentHandler)
+     */
+    private boolean nextHandlerToken() throws IOException, ParseException {
+        nextToken();
+        return tokenType != Utf8Lexer.TYPE_NEED_MORE_INPUT;
+    }
+
+    /**
+     * Skip a value during stream processing. This method is called by the content handler from
+     * {@link ContentHandler#startObjectEntry(String)}, to skip the value of the entry, or from
+     * {@link ContentHandler#startObject()} or {@link ContentHandler#startArray()}, to skip the content of the
+     * container. No event is sent for the skipped tokens, and the processing continues with
+     * {@link ContentHandler#endObjectEntry()}, {@link ContentHandler#endObject()} or {@link ContentHandler#endArray()}.
+     * <p>
+     * The skipped value is still validated, but its strings are only delimited, without decoding their escapes, and its
+     * numbers are not converted. This makes skipping much cheaper than ignoring the events of large values.
+     *
+     * @see JSONCursor#skipValue()
+     */
+    public void skipValue() {
+        skipRequested = true;
+    }
+
+    /**
+     * Starts skipping the value the content handler was just notified of, if it asked for it.
+     *
+     * @param more the result of the notification
+     * @return the result of the notification
+     */
+    private boolean started(boolean more) {
+        if (skipRequested) {
+            skipRequested = false;
+            skipped = status;
+            skipBase = statusDepth - 1;
+        }
+        return more;
+    }
+
+    /**
+     * Reads the tokens of a value skipped by the content handler, validating them like the stream processing does.
+     *
+     * @return false if the input is fed and the next token is not complete yet
+     */
+    private boolean skipHandlerValue() throws IOException, ParseException {
+        do {
+            tokenType = source.skipToken();
+            tokenValue = source.getValue();
+            if (tokenType == Utf8Lexer.TYPE_NEED_MORE_INPUT)
+                return false;
+            final int top = statusStack[statusDepth - 1];
+            if (limitsStructure)
+                checkLimits(top);
+            switch (tokenType) {
+                case Yytoken.TYPE_COMMA -> {
+                    if (top == S_PASSED_PAIR_KEY)
+                        throw skippedTokenError();
+                }
+                case Yytoken.TYPE_COLON -> {
+                    if (top != S_PASSED_PAIR_KEY)
+                        throw skippedTokenError();
+                }
+                case Yytoken.TYPE_VALUE -> {
+                    if (top == S_PASSED_PAIR_KEY)
+                        statusDepth--;
+                    else if (top == S_IN_OBJECT) {
+                        if (!(tokenValue instanceof String))
+                            throw skippedTokenError();
+                        pushStatus(S_PASSED_PAIR_KEY);
+                    }
+                }
+                case Yytoken.TYPE_LEFT_BRACE, Yytoken.TYPE_LEFT_SQUARE -> {
+                    if (top == S_IN_OBJECT)
+                        throw skippedTokenError();
+                    // the value of an entry ends with its container
+                    if (top == S_PASSED_PAIR_KEY)
+                        statusDepth--;
+                    pushStatus(tokenType == Yytoken.TYPE_LEFT_BRACE ? S_IN_OBJECT : S_IN_ARRAY);
+                }
+                case Yytoken.TYPE_RIGHT_BRACE -> {
+                    if (top != S_IN_OBJECT)
+                        throw skippedTokenError();
+                    statusDepth--;
+                }
+                case Yytoken.TYPE_RIGHT_SQUARE -> {
+                    if (top != S_IN_ARRAY)
+                        throw skippedTokenError();
+                    statusDepth--;
+                }
+                default -> throw skippedTokenError();
+            }
+        } while (statusDepth > skipBase);
+        return true;
     }
 
     @NotNull
-    private Map<Object, Object> createObjectContainer(@Nullable ContainerFactory containerFactory) {
-        if (containerFactory == null)
-            return new JSONObject();
-        Map<Object, Object> m = containerFactory.createObjectContainer();
+    private ParseException skippedTokenError() throws ParseException {
+        int position = getPosition();
+        if (tokenType == Yytoken.TYPE_VALUE && source instanceof Utf8Lexer u) {
+            // the value was not decoded, do it now for the error report
+            u.seek(u.getTextStart());
+            u.nextToken();
+            tokenValue = u.getValue();
+        }
+        return new ParseException(position, ParseException.ERROR_UNEXPECTED_TOKEN, unexpectedToken());
+    }
 
-        return m == null ? new JSONObject() : m;
+    /**
+     * Token objects are only created to describe a parse error.
+     */
+    @NotNull
+    private Yytoken unexpectedToken() {
+        return new Yytoken(tokenType, tokenValue);
     }
 
     @NotNull
-    private List<?> createArrayContainer(@Nullable ContainerFactory containerFactory) {
-        if (containerFactory == null)
-            return new JSONArray();
-        List<?> l = containerFactory.createArrayContainer();
+    private static Map<Object, Object> createObjectContainer(@Nullable ContainerFactory containerFactory, int sizeHint) {
+        Map<Object, Object> m = containerFactory == null ? null : containerFactory.createObjectContainer(sizeHint);
+        if (m != null)
+            return m;
+        // the default capacity holds 12 entries, a larger table is created at once instead of growing step by step
+        return sizeHint <= 12 ? new JSONObject() : new JSONObject((int) Math.min(sizeHint * 4L / 3 + 1, 1 << 30));
+    }
 
-        return l == null ? new JSONArray() : l;
+    @NotNull
+    private static List<?> createArrayContainer(@Nullable ContainerFactory containerFactory, int sizeHint) {
+        List<?> l = containerFactory == null ? null : containerFactory.createArrayContainer(sizeHint);
+        if (l != null)
+            return l;
+        JSONArray a = new JSONArray();
+        if (sizeHint > 10)
+            a.ensureCapacity(sizeHint);
+        return a;
     }
 
     public void parse(@NotNull String s, @NotNull ContentHandler contentHandler) throws ParseException {
@@ -290,12 +1126,16 @@ public class JSONParser {
     }
 
     public void parse(@NotNull String s, @NotNull ContentHandler contentHandler, boolean isResume) throws ParseException {
-        StringReader in = new StringReader(s);
+        if (!isResume || !handlerStarted) {
+            reset(s);
+            handlerStarted = true;
+        }
+
         try {
-            parse(in, contentHandler, isResume);
+            parse(contentHandler);
         } catch (IOException ie) {
             /*
-             * Actually it will never happen.
+             * Actually it will never happen unless the content handler throws it.
              */
             throw new ParseException(-1, ParseException.ERROR_UNEXPECTED_EXCEPTION, ie);
         }
@@ -305,6 +1145,40 @@ public class JSONParser {
         parse(in, contentHandler, false);
     }
 
+    public void parse(byte @NotNull [] bytes, @NotNull ContentHandler contentHandler) throws ParseException {
+        parse(ByteBuffer.wrap(bytes), contentHandler, false);
+    }
+
+    public void parse(@NotNull ByteBuffer in, @NotNull ContentHandler contentHandler) throws ParseException {
+        parse(in, contentHandler, false);
+    }
+
+    /**
+     * Stream processing of UTF-8 encoded JSON text.
+     *
+     * @param in Buffer to use, the bytes between its position and its limit are parsed
+     * @param contentHandler {@link ContentHandler} to use
+     * @param isResume Indicates if it continues previous parsing operation. If set to true, resume parsing the old
+     *                 input, and parameter 'in' will be ignored. If this method is called for the first time in this
+     *                 instance, isResume will be ignored.
+     * @see #parse(Reader, ContentHandler, boolean)
+     */
+    public void parse(@NotNull ByteBuffer in, @NotNull ContentHandler contentHandler, boolean isResume) throws ParseException {
+        if (!isResume || !handlerStarted) {
+            reset(in);
+            handlerStarted = true;
+        }
+
+        try {
+            parse(contentHandler);
+        } catch (IOException ie) {
+            /*
+             * Actually it will never happen unless the content handler throws it.
+             */
+            throw new ParseException(-1, ParseException.ERROR_UNEXPECTED_EXCEPTION, ie);
+        }
+    }
+
     /**
      * Stream processing of JSON text.
      *
@@ -318,39 +1192,96 @@ public class JSONParser {
     public void parse(@NotNull Reader in, @NotNull ContentHandler contentHandler, boolean isResume) throws IOException, ParseException {
         if (!isResume) {
             reset(in);
-            handlerStatusStack = new LinkedList<>();
+            handlerStarted = true;
         } else {
-            if (handlerStatusStack == null) {
+            if (!handlerStarted) {
                 reset(in);
-                handlerStatusStack = new LinkedList<>();
+                handlerStarted = true;
             }
         }
 
-        LinkedList<Integer> statusStack = handlerStatusStack;
+        parse(contentHandler);
+    }
+
+    /**
+     * Continue with a new range of fed input, keeping the state of the parser.
+     *
+     * @param offset the input offset of the first byte of the range
+     * @param last whether the input ends with the range
+     * @see JSONFeedParser
+     */
+    void feed(@NotNull ByteBuffer in, int from, int to, long offset, boolean last) {
+        Utf8Lexer u = utf8Lexer();
+        u.reset(in, from, to, offset, !last);
+        source = u;
+    }
 
+    /**
+     * @return the buffer index of fed input the next token is read from
+     */
+    int getReadIndex() {
+        return ((Utf8Lexer) source).getReadIndex();
+    }
+
+    /**
+     * Stream processing of fed input.
+     *
+     * @return {@link JSONFeedParser#DONE}, {@link JSONFeedParser#NEED_MORE_INPUT} or {@link JSONFeedParser#PAUSED}
+     */
+    int parseFed(@NotNull ContentHandler contentHandler) throws IOException, ParseException {
+        parse(contentHandler);
+        if (status == S_END)
+            return JSONFeedParser.DONE;
+        return tokenType == Utf8Lexer.TYPE_NEED_MORE_INPUT ? JSONFeedParser.NEED_MORE_INPUT : JSONFeedParser.PAUSED;
+    }
+
+    void parse(@NotNull ContentHandler contentHandler) throws IOException, ParseException {
         try {
             do {
+                if (skipBase >= 0) {
+                    if (!skipHandlerValue())
+                        return;
+                    skipBase = -1;
+                    // like the end of the value, a container at the top level keeps its status
+                    if (statusDepth == 0) {
+                        statusDepth = 1;
+                        status = S_IN_FINISHED_VALUE;
+                    } else {
+                        status = peekStatus();
+                    }
+                    boolean more = switch (skipped) {
+                        case S_IN_OBJECT -> contentHandler.endObject();
+                        case S_IN_ARRAY -> contentHandler.endArray();
+                        default -> contentHandler.endObjectEntry();
+                    };
+                    if (!more)
+                        return;
+                    continue;
+                }
                 switch (status) {
                     case S_INIT:
-                        contentHandler.startJSON();
-                        nextToken();
-                        switch (token.type) {
+                        // fed input may have stopped before the first token, after startJSON
+                        if (tokenType != Utf8Lexer.TYPE_NEED_MORE_INPUT)
+                            contentHandler.startJSON();
+                        if (!nextHandlerToken())
+                            return;
+                        switch (tokenType) {
                             case Yytoken.TYPE_VALUE -> {
                                 status = S_IN_FINISHED_VALUE;
-                                statusStack.addFirst(status);
-                                if (!contentHandler.primitive(token.value))
+                                pushStatus(status);
+                                if (!contentHandler.primitive(tokenValue))
                                     return;
                             }
                             case Yytoken.TYPE_LEFT_BRACE -> {
                                 status = S_IN_OBJECT;
-                                statusStack.addFirst(status);
-                                if (!contentHandler.startObject())
+                                pushStatus(status);
+                                if (!started(contentHandler.startObject()))
                                     return;
                             }
                             case Yytoken.TYPE_LEFT_SQUARE -> {
                                 status = S_IN_ARRAY;
-                                statusStack.addFirst(status);
-                                if (!contentHandler.startArray())
+                                pushStatus(status);
+                                if (!started(contentHandler.startArray()))
                                     return;
                             }
                             default -> status = S_IN_ERROR;
@@ -358,35 +1289,37 @@ public class JSONParser {
                         break;
 
                     case S_IN_FINISHED_VALUE:
-                        nextToken();
-                        if (token.type == Yytoken.TYPE_EOF) {
+                        if (!nextHandlerToken())
+                            return;
+                        if (tokenType == Yytoken.TYPE_EOF) {
                             contentHandler.endJSON();
                             status = S_END;
                             return;
                         } else {
                             status = S_IN_ERROR;
-                            throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, token);
+                            throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, unexpectedToken());
                         }
 
                     case S_IN_OBJECT:
-                        nextToken();
-                        switch (token.type) {
+                        if (!nextHandlerToken())
+                            return;
+                        switch (tokenType) {
                             case Yytoken.TYPE_COMMA:
                                 break;
                             case Yytoken.TYPE_VALUE:
-                                if (token.value instanceof String key) {
+                                if (tokenValue instanceof String key) {
                                     status = S_PASSED_PAIR_KEY;
-                                    statusStack.addFirst(status);
-                                    if (!contentHandler.startObjectEntry(key))
+                                    pushStatus(status);
+                                    if (!started(contentHandler.startObjectEntry(key)))
                                         return;
                                 } else {
                                     status = S_IN_ERROR;
                                 }
                                 break;
                             case Yytoken.TYPE_RIGHT_BRACE:
-                                if (statusStack.size() > 1) {
-                                    statusStack.removeFirst();
-                                    status = peekStatus(statusStack);
+                                if (statusDepth > 1) {
+                                    statusDepth--;
+                                    status = peekStatus();
                                 } else {
                                     status = S_IN_FINISHED_VALUE;
                                 }
@@ -400,32 +1333,33 @@ public class JSONParser {
                         break;
 
                     case S_PASSED_PAIR_KEY:
-                        nextToken();
-                        switch (token.type) {
+                        if (!nextHandlerToken())
+                            return;
+                        switch (tokenType) {
                             case Yytoken.TYPE_COLON:
                                 break;
                             case Yytoken.TYPE_VALUE:
-                                statusStack.removeFirst();
-                                status = peekStatus(statusStack);
-                                if (!contentHandler.primitive(token.value))
+                                statusDepth--;
+                                status = peekStatus();
+                                if (!contentHandler.primitive(tokenValue))
                                     return;
                                 if (!contentHandler.endObjectEntry())
                                     return;
                                 break;
                             case Yytoken.TYPE_LEFT_SQUARE:
-                                statusStack.removeFirst();
-                                statusStack.addFirst(S_IN_PAIR_VALUE);
+                                statusDepth--;
+                                pushStatus(S_IN_PAIR_VALUE);
                                 status = S_IN_ARRAY;
-                                statusStack.addFirst(status);
-                                if (!contentHandler.startArray())
+                                pushStatus(status);
+                                if (!started(contentHandler.startArray()))
                                     return;
                                 break;
                             case Yytoken.TYPE_LEFT_BRACE:
-                                statusStack.removeFirst();
-                                statusStack.addFirst(S_IN_PAIR_VALUE);
+                                statusDepth--;
+                                pushStatus(S_IN_PAIR_VALUE);
                                 status = S_IN_OBJECT;
-                                statusStack.addFirst(status);
-                                if (!contentHandler.startObject())
+                                pushStatus(status);
+                                if (!started(contentHandler.startObject()))
                                     return;
                                 break;
                             default:
@@ -438,25 +1372,26 @@ public class JSONParser {
                          * S_IN_PAIR_VALUE is just a marker to indicate the end of an object entry, it doesn't process any token,
                          * therefore delay consuming token until next round.
                          */
-                        statusStack.removeFirst();
-                        status = peekStatus(statusStack);
+                        statusDepth--;
+                        status = peekStatus();
                         if (!contentHandler.endObjectEntry())
                             return;
                         break;
 
                     case S_IN_ARRAY:
-                        nextToken();
-                        switch (token.type) {
+                        if (!nextHandlerToken())
+                            return;
+                        switch (tokenType) {
                             case Yytoken.TYPE_COMMA:
                                 break;
                             case Yytoken.TYPE_VALUE:
-                                if (!contentHandler.primitive(token.value))
+                                if (!contentHandler.primitive(tokenValue))
                                     return;
                                 break;
                             case Yytoken.TYPE_RIGHT_SQUARE:
-                                if (statusStack.size() > 1) {
-                                    statusStack.removeFirst();
-                                    status = peekStatus(statusStack);
+                                if (statusDepth > 1) {
+                                    statusDepth--;
+                                    status = peekStatus();
                                 } else {
                                     status = S_IN_FINISHED_VALUE;
                                 }
@@ -465,14 +1400,14 @@ public class JSONParser {
                                 break;
                             case Yytoken.TYPE_LEFT_BRACE:
                                 status = S_IN_OBJECT;
-                                statusStack.addFirst(status);
-                                if (!contentHandler.startObject())
+                                pushStatus(status);
+                                if (!started(contentHandler.startObject()))
                                     return;
                                 break;
                             case Yytoken.TYPE_LEFT_SQUARE:
                                 status = S_IN_ARRAY;
-                                statusStack.addFirst(status);
-                                if (!contentHandler.startArray())
+                                pushStatus(status);
+                                if (!started(contentHandler.startArray()))
                                     return;
                                 break;
                             default:
@@ -484,18 +1419,18 @@ public class JSONParser {
                         return;
 
                     case S_IN_ERROR:
-                        throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, token);
+                        throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, unexpectedToken());
                 }//switch
                 if (status == S_IN_ERROR) {
-                    throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, token);
+                    throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, unexpectedToken());
                 }
-            } while (token.type != Yytoken.TYPE_EOF);
+            } while (tokenType != Yytoken.TYPE_EOF);
         } catch (Throwable t) {
             status = S_IN_ERROR;
             throw t;
         }
 
         status = S_IN_ERROR;
-        throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, token);
+        throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, unexpectedToken());
     }
 }
@@ -0,0 +1,171 @@
+package org.json.simple.parser;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Thread-safe pool of parsers, so that parsing from many threads reuses parsers and their buffers instead of
+ * allocating new ones for every document. The pool holds a bounded number of idle parsers in slots that are taken and
+ * returned with atomic operations only: it neither blocks nor pins virtual threads, and does not grow with the number
+ * of threads like thread-local parsers would. When all the slots are empty, a new parser is created, and a parser
+ * returned to a full pool is dropped.
+ * <p>
+ * A returned parser drops its input, the sizes of the containers it has seen, and the buffers that grew larger than
+ * the maximum capacity of the pool, so that one large document does not keep a large buffer alive or make the
+ * containers of the next user large.
+ * <pre>
+ * JSONObject message = (JSONObject) JSONParsers.shared().parse(text);
+ * </pre>
+ *
+ * @author l_MrBoom_l<admin@epserv.ru>
+ * @see JSONParser
+ */
+public final class JSONParsers {
+    /**
+     * the default largest capacity of a buffer that an idle parser keeps, in chars or bytes
+     */
+    public static final int DEFAULT_MAX_CAPACITY = 1 << 16;
+
+    private static final JSONParsers SHARED = new JSONParsers(2 * Runtime.getRuntime().availableProcessors(),
+            DEFAULT_MAX_CAPACITY);
+
+    @NotNull
+    private final AtomicReferenceArray<JSONParser> idle;
+    private final int maxCapacity;
+
+    /**
+     * @param size the largest number of idle parsers
+     * @param maxCapacity the largest capacity of a buffer that an idle parser keeps
+     * @throws IllegalArgumentException if the size is not positive or the capacity is negative
+     */
+    public JSONParsers(int size, int maxCapacity) {
+        if (size <= 0)
+            throw new IllegalArgumentException("Size must be positive: " + size);
+        if (maxCapacity < 0)
+            throw new IllegalArgumentException("Max capacity must not be negative: " + maxCapacity);
+        this.idle = new AtomicReferenceArray<>(size);
+        this.maxCapacity = maxCapacity;
+    }
+
+    /**
+     * @return the pool shared by the whole application, with {@link #DEFAULT_MAX_CAPACITY} and twice as many slots as
+     * there are processors
+     */
+    @NotNull
+    public static JSONParsers shared() {
+        return SHARED;
+    }
+
+    /**
+     * Take an idle parser, or create one. The parser is used by the calling thread only, and must be returned with
+     * {@link #release(JSONParser)} once its results are read, and not used afterwards.
+     *
+     * @return a parser with the default settings
+     */
+    @NotNull
+    public JSONParser acquire() {
+        final int size = idle.length();
+        // threads start at different slots, so that they rarely compete for the same one
+        final int start = (int) (Thread.currentThread().getId() % size);
+        for (int i = 0; i < size; i++) {
+            int slot = start + i < size ? start + i : start + i - size;
+            if (idle.get(slot) != null) {
+                JSONParser parser = idle.getAndSet(slot, null);
+                if (parser != null)
+                    return parser;
+            }
+        }
+        return new JSONParser();
+    }
+
+    /**
+     * Return a parser taken with {@link #acquire()}. Its settings are restored to the defaults.
+     */
+    public void release(@NotNull JSONParser parser) {
+        parser.trim(maxCapacity);
+        if (parser.getNumberMode() != NumberMode.DEFAULT)
+            parser.setNumberMode(NumberMode.DEFAULT);
+        if (parser.getLimits() != ParserLimits.NONE)
+            parser.setLimits(ParserLimits.NONE);
+        if (parser.getKeySymbols() != null)
+            parser.setKeySymbols(null);
+        if (parser.getValueSymbols() != null)
+            parser.setValueSymbols(null);
+
+        final int size = idle.length();
+        final int start = (int) (Thread.currentThread().getId() % size);
+        for (int i = 0; i < size; i++) {
+            int slot = start + i < size ? start + i : start + i - size;
+            if (idle.get(slot) == null && idle.compareAndSet(slot, null, parser))
+                return;
+        }
+    }
+
+    /**
+     * @see JSONParser#parse(CharSequence)
+     */
+    @NotNull
+    public Object parse(@NotNull CharSequence s) throws ParseException {
+        return parse(s, null);
+    }
+
+    /**
+     * @see JSONParser#parse(CharSequence, ContainerFactory)
+     */
+    @NotNull
+    public Object parse(@NotNull CharSequence s, @Nullable ContainerFactory containerFactory) throws ParseException {
+        JSONParser parser = acquire();
+        try {
+            return parser.parse(s, containerFactory);
+        } finally {
+            release(parser);
+        }
+    }
+
+    /**
+     * @see JSONParser#parse(byte[])
+     */
+    @NotNull
+    public Object parse(byte @NotNull [] bytes) throws ParseException {
+        return parse(ByteBuffer.wrap(bytes), null);
+    }
+
+    /**
+     * @see JSONParser#parse(ByteBuffer, ContainerFactory)
+     */
+    @NotNull
+    public Object parse(@NotNull ByteBuffer in, @Nullable ContainerFactory containerFactory) throws ParseException {
+        JSONParser parser = acquire();
+        try {
+            return parser.parse(in, containerFactory);
+        } finally {
+            release(parser);
+        }
+    }
+
+    /**
+     * @see JSONParser#parse(Reader)
+     */
+    @NotNull
+    public Object parse(@NotNull Reader in) throws IOException, ParseException {
+        return parse(in, null);
+    }
+
+    /**
+     * @see JSONParser#parse(Reader, ContainerFactory)
+     */
+    @NotNull
+    public Object parse(@NotNull Reader in, @Nullable ContainerFactory containerFactory) throws IOException, ParseException {
+        JSONParser parser = acquire();
+        try {
+            return parser.parse(in, containerFactory);
+        } finally {
+            release(parser);
+        }
+    }
+}
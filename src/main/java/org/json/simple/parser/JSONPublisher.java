@@ -0,0 +1,286 @@
+package org.json.simple.parser;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the elements of a JSON array, or the records of newline-delimited JSON, read from a blocking input.
+ * Elements are read and parsed only as the subscriber requests them, so at most the requested elements are held in
+ * memory however slow the subscriber is. If the input of {@link #FORMAT_ARRAY} is not an array, its value is the only
+ * element.
+ * <p>
+ * The publisher reads its input once and accepts one subscriber. The input is read on the executor, one element at a
+ * time, and closed when the subscription completes, fails or is cancelled.
+ *
+ * @author l_MrBoom_l<admin@epserv.ru>
+ * @see JSONCursor
+ * @see NDJSONReader
+ */
+public class JSONPublisher implements Flow.Publisher<Object> {
+    public static final int FORMAT_ARRAY = 0;//elements of one JSON array
+    public static final int FORMAT_NDJSON = 1;//one JSON text per line
+
+    private static final Object END = new Object();
+
+    @NotNull
+    private final ReadableByteChannel in;
+    private final int format;
+    @NotNull
+    private final Executor executor;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    @NotNull
+    private NumberMode numberMode = NumberMode.DEFAULT;
+    @NotNull
+    private ParserLimits limits = ParserLimits.NONE;
+    @Nullable
+    private ContainerFactory containerFactory;
+
+    /**
+     * @param format {@link #FORMAT_ARRAY} or {@link #FORMAT_NDJSON}
+     * @param executor the executor the input is read and parsed on, blocking for the time of a read
+     */
+    public JSONPublisher(@NotNull ReadableByteChannel in, int format, @NotNull Executor executor) {
+        if (format != FORMAT_ARRAY && format != FORMAT_NDJSON)
+            throw new IllegalArgumentException("Unknown format: " + format);
+        this.in = in;
+        this.format = format;
+        this.executor = executor;
+    }
+
+    public JSONPublisher(@NotNull InputStream in, int format, @NotNull Executor executor) {
+        this(Channels.newChannel(in), format, executor);
+    }
+
+    /**
+     * @see JSONParser#setNumberMode(NumberMode)
+     */
+    public void setNumberMode(@NotNull NumberMode numberMode) {
+        this.numberMode = numberMode;
+    }
+
+    /**
+     * Set the limits on the resources the input may use. For {@link #FORMAT_ARRAY} they apply to the whole array, for
+     * {@link #FORMAT_NDJSON} to every line.
+     *
+     * @see JSONParser#setLimits(ParserLimits)
+     */
+    public void setLimits(@NotNull ParserLimits limits) {
+        this.limits = limits;
+    }
+
+    /**
+     * Use this factory to create your own JSON object and JSON array containers.
+     */
+    public void setContainerFactory(@Nullable ContainerFactory containerFactory) {
+        this.containerFactory = containerFactory;
+    }
+
+    @Override
+    public void subscribe(@NotNull Flow.Subscriber<? super Object> subscriber) {
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("The input was already subscribed to"));
+            return;
+        }
+        ElementSubscription subscription = new ElementSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    /**
+     * Reads the elements on the executor while there is demand. Signals are serialized by the work counter: only the
+     * task that increments it from zero runs the loop, and it runs again for the requests made meanwhile.
+     */
+    private final class ElementSubscription implements Flow.Subscription, Runnable {
+        @NotNull
+        private final Flow.Subscriber<? super Object> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger work = new AtomicInteger();
+        private volatile boolean cancelled;
+        @Nullable
+        private volatile Throwable invalidRequest;
+        private boolean done;
+
+        @Nullable
+        private JSONCursor cursor;
+        @Nullable
+        private JSONParser parser;
+        @Nullable
+        private ByteBuffer lines;
+        private long lineOffset;
+        /**
+         * the index the search for the end of the current line resumes at, the bytes before it are no line feed
+         */
+        private int scanned;
+        private boolean endOfInput;
+
+        private ElementSubscription(@NotNull Flow.Subscriber<? super Object> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0)
+                invalidRequest = new IllegalArgumentException("Request must be positive: " + n);
+            else
+                demand.getAndAccumulate(n, (a, b) -> a + b < 0 ? Long.MAX_VALUE : a + b);
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (work.getAndIncrement() == 0)
+                executor.execute(this);
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                while (!done) {
+                    if (cancelled) {
+                        finish();
+                        break;
+                    }
+                    Throwable invalid = invalidRequest;
+                    if (invalid != null) {
+                        finish();
+                        subscriber.onError(invalid);
+                        break;
+                    }
+                    if (demand.get() == 0)
+                        break;
+
+                    Object element;
+                    try {
+                        element = next();
+                    } catch (Exception e) {
+                        finish();
+                        subscriber.onError(e);
+                        break;
+                    }
+                    if (element == END) {
+                        finish();
+                        subscriber.onComplete();
+                        break;
+                    }
+                    demand.decrementAndGet();
+                    subscriber.onNext(element);
+                }
+                missed = work.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void finish() {
+            done = true;
+            try {
+                in.close();
+            } catch (IOException e) {
+                // the elements were already read
+            }
+        }
+
+        /**
+         * @return the next element, or {@link #END}
+         */
+        @Nullable
+        private Object next() throws IOException, ParseException {
+            return format == FORMAT_ARRAY ? nextElement() : nextRecord();
+        }
+
+        @Nullable
+        private Object nextElement() throws IOException, ParseException {
+            JSONCursor c = cursor;
+            if (c == null) {
+                cursor = c = new JSONCursor(Channels.newReader(in, StandardCharsets.UTF_8));
+                c.setNumberMode(numberMode);
+                c.setLimits(limits);
+                if (c.nextToken() != JSONCursor.TOKEN_START_ARRAY) {
+                    // not an array, its value is the only element
+                    Object value = c.readValue(containerFactory);
+                    c.nextToken();
+                    return value;
+                }
+            }
+            if (c.currentToken() == JSONCursor.TOKEN_END_DOCUMENT)
+                return END;
+            // the previous element was read up to its last token, nested end tokens are never seen here
+            if (c.nextToken() == JSONCursor.TOKEN_END_ARRAY) {
+                // reports trailing text
+                c.nextToken();
+                return END;
+            }
+            return c.readValue(containerFactory);
+        }
+
+        @Nullable
+        private Object nextRecord() throws IOException {
+            ByteBuffer b = lines;
+            JSONParser p = parser;
+            if (b == null || p == null) {
+                lines = b = ByteBuffer.allocate(8192).flip();
+                parser = p = new JSONParser();
+                p.setNumberMode(numberMode);
+                p.setLimits(limits);
+            }
+            while (true) {
+                int start = b.position(), end = Math.max(start, scanned);
+                while (end < b.limit() && b.get(end) != '\n')
+                    end++;
+                if (end == b.limit() && !endOfInput) {
+                    // a line that already exceeds the size of a document is not buffered any further
+                    if (end - start > limits.getMaxDocumentSize()) {
+                        long max = limits.getMaxDocumentSize();
+                        throw new NDJSONReader.RecordException(lineOffset + start,
+                                ParserLimits.exceeded((int) max, "document size", max));
+                    }
+                    // read more input, growing the buffer for a line longer than it
+                    if (start == 0 && b.limit() == b.capacity())
+                        lines = b = ByteBuffer.allocate(2 * b.capacity()).put(b).flip();
+                    lineOffset += start;
+                    scanned = end - start;
+                    b.compact();
+                    endOfInput = in.read(b) < 0;
+                    b.flip();
+                    continue;
+                }
+                if (start == end && endOfInput)
+                    return END;
+
+                b.position(Math.min(end + 1, b.limit()));
+                if (NDJSONReader.isBlank(b, start, end))
+                    continue;
+                p.reset(b, start, end);
+                try {
+                    return p.parse(containerFactory);
+                } catch (ParseException e) {
+                    throw new NDJSONReader.RecordException(lineOffset + start, e);
+                }
+            }
+        }
+    }
+}
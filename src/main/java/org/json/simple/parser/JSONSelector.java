@@ -0,0 +1,201 @@
+package org.json.simple.parser;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set of JSON Pointers (RFC 6901) selecting the parts of a document to parse, such as {@code /user/id}. A segment
+ * {@code *} matches every key of an object and every index of an array, e.g. {@code /items/*}{@code /price}.
+ * <p>
+ * {@link #select(JSONCursor, ContainerFactory)} returns the document pruned to the selected values: the objects and
+ * arrays on the way to a selected value only keep the entries and the elements that lead to one, in order, and the
+ * values on no selected path are skipped without being decoded or built. A selector is immutable and can be shared
+ * by threads.
+ * <pre>
+ * JSONSelector selector = new JSONSelector(List.of("/user/id", "/items/*&#47;price"));
+ * JSONObject event = (JSONObject) parser.parse(bytes, selector);
+ * </pre>
+ *
+ * @author l_MrBoom_l<admin@epserv.ru>
+ * @see JSONParser#parse(byte[], JSONSelector)
+ */
+public final class JSONSelector {
+    /**
+     * returned for a value that is on no selected path
+     */
+    private static final Object NOT_SELECTED = new Object();
+
+    @NotNull
+    private final Node root = new Node();
+
+    /**
+     * @param pointers the JSON Pointers of the values to select, the empty pointer selects the whole document
+     * @throws IllegalArgumentException if a pointer is neither empty nor starts with a slash, or has an invalid escape
+     */
+    public JSONSelector(@NotNull Collection<String> pointers) {
+        for (String pointer : pointers)
+            add(pointer);
+        root.mergeWildcards();
+    }
+
+    public JSONSelector(@NotNull String @NotNull ... pointers) {
+        this(List.of(pointers));
+    }
+
+    private void add(@NotNull String pointer) {
+        if (!pointer.isEmpty() && pointer.charAt(0) != '/')
+            throw new IllegalArgumentException("JSON Pointer must start with '/': " + pointer);
+        Node node = root;
+        for (int start = 1; start <= pointer.length(); ) {
+            int end = pointer.indexOf('/', start);
+            if (end < 0)
+                end = pointer.length();
+            String segment = pointer.substring(start, end);
+            if (segment.equals("*")) {
+                if (node.wildcard == null)
+                    node.wildcard = new Node();
+                node = node.wildcard;
+            } else {
+                node = node.children.computeIfAbsent(unescape(segment, pointer), key -> new Node());
+            }
+            start = end + 1;
+        }
+        node.selected = true;
+    }
+
+    @NotNull
+    private static String unescape(@NotNull String segment, @NotNull String pointer) {
+        if (segment.indexOf('~') < 0)
+            return segment;
+        StringBuilder sb = new StringBuilder(segment.length());
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            if (c == '~') {
+                char next = ++i < segment.length() ? segment.charAt(i) : 0;
+                if (next != '0' && next != '1')
+                    throw new IllegalArgumentException("Invalid escape in JSON Pointer: " + pointer);
+                c = next == '0' ? '~' : '/';
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Read a whole document from a cursor that has not been advanced yet, keeping only the selected values.
+     *
+     * @param containerFactory Use this factory to create your own JSON object and JSON array containers.
+     * @return the pruned document, or null if it is a primitive value that is not selected
+     */
+    @Nullable
+    public Object select(@NotNull JSONCursor cursor, @Nullable ContainerFactory containerFactory)
+            throws IOException, ParseException {
+        cursor.nextToken();
+        Object value = select(cursor, root, containerFactory);
+        cursor.nextToken();
+        return value == NOT_SELECTED ? null : value;
+    }
+
+    /**
+     * Read the value at the cursor. The recursion is bounded by the length of the pointers: selected values are read
+     * and the other ones skipped without recursion.
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable
+    private static Object select(@NotNull JSONCursor cursor, @NotNull Node node,
+                                 @Nullable ContainerFactory containerFactory) throws IOException, ParseException {
+        if (node.selected)
+            return cursor.readValue(containerFactory);
+
+        switch (cursor.currentToken()) {
+            case JSONCursor.TOKEN_START_OBJECT -> {
+                Map<Object, Object> object = containerFactory == null ? null
+                        : containerFactory.createObjectContainer();
+                if (object == null)
+                    object = new JSONObject();
+                while (cursor.nextToken() == JSONCursor.TOKEN_KEY) {
+                    String key = (String) cursor.getValue();
+                    Node child = node.children.getOrDefault(key, node.wildcard);
+                    if (child == null) {
+                        cursor.skipValue();
+                        continue;
+                    }
+                    cursor.nextToken();
+                    Object value = select(cursor, child, containerFactory);
+                    if (value != NOT_SELECTED)
+                        object.put(key, value);
+                }
+                return object;
+            }
+            case JSONCursor.TOKEN_START_ARRAY -> {
+                List<Object> array = containerFactory == null ? null
+                        : (List<Object>) containerFactory.createArrayContainer();
+                if (array == null)
+                    array = new JSONArray();
+                for (int index = 0; cursor.nextToken() != JSONCursor.TOKEN_END_ARRAY; index++) {
+                    Node child = node.children.isEmpty() ? node.wildcard
+                            : node.children.getOrDefault(String.valueOf(index), node.wildcard);
+                    if (child == null) {
+                        cursor.skipValue();
+                        continue;
+                    }
+                    Object value = select(cursor, child, containerFactory);
+                    if (value != NOT_SELECTED)
+                        array.add(value);
+                }
+                return array;
+            }
+            default -> {
+                // a primitive value where the pointers go deeper
+                return NOT_SELECTED;
+            }
+        }
+    }
+
+    /**
+     * A segment of the selected pointers.
+     */
+    private static final class Node {
+        @NotNull
+        private final Map<String, Node> children = new HashMap<>();
+        @Nullable
+        private Node wildcard;
+        /**
+         * whether a pointer ends here, the whole value is selected
+         */
+        private boolean selected;
+
+        /**
+         * Copy the pointers that continue with {@code *} into every specific segment at the same level, so that a
+         * key or index that matches both follows one node with the union of the two.
+         */
+        private void mergeWildcards() {
+            if (wildcard != null)
+                for (Node child : children.values())
+                    child.merge(wildcard);
+            for (Node child : children.values())
+                child.mergeWildcards();
+            if (wildcard != null)
+                wildcard.mergeWildcards();
+        }
+
+        private void merge(@NotNull Node other) {
+            selected |= other.selected;
+            for (Map.Entry<String, Node> e : other.children.entrySet())
+                children.computeIfAbsent(e.getKey(), key -> new Node()).merge(e.getValue());
+            if (other.wildcard != null) {
+                if (wildcard == null)
+                    wildcard = new Node();
+                wildcard.merge(other.wildcard);
+            }
+        }
+    }
+}
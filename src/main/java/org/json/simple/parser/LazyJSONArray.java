@@ -0,0 +1,204 @@
+package org.json.simple.parser;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.json.simple.JSONArray;
+
+import java.io.Serial;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Read-only JSONArray view of an array of a {@link Tape}. {@link #get(int)}, {@link #size()} and {@link #isEmpty()}
+ * decode only the requested element; any other operation decodes all the elements into the underlying list once.
+ * Like the tape, it is NOT thread-safe.
+ *
+ * @author l_MrBoom_l<admin@epserv.ru>
+ */
+final class LazyJSONArray extends JSONArray {
+    @Serial
+    private static final long serialVersionUID = 8925426178164203561L;
+
+    private transient final Tape tape;
+    /**
+     * the tape index of the start word
+     */
+    private transient final int start;
+    /**
+     * the tape indexes of the elements, computed on the first call to {@link #get(int)}
+     */
+    private transient int @Nullable [] elements;
+    private transient boolean materialized;
+
+    LazyJSONArray(@NotNull Tape tape, int start) {
+        this.tape = tape;
+        this.start = start;
+    }
+
+    private void materialize() {
+        if (materialized)
+            return;
+        materialized = true;
+        final int end = tape.payload(start);
+        super.ensureCapacity(tape.payload(end));
+        for (int i = start + 1; i < end; i = tape.next(i))
+            super.add(tape.value(i));
+    }
+
+    @Nullable
+    @Override
+    public Object get(int index) {
+        if (materialized)
+            return super.get(index);
+        int[] e = elements;
+        if (e == null) {
+            final int end = tape.payload(start);
+            elements = e = new int[tape.payload(end)];
+            for (int i = start + 1, n = 0; i < end; i = tape.next(i))
+                e[n++] = i;
+        }
+        Objects.checkIndex(index, e.length);
+        return tape.value(e[index]);
+    }
+
+    @Override
+    public int size() {
+        return tape.payload(tape.payload(start));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean contains(@Nullable Object o) {
+        materialize();
+        return super.contains(o);
+    }
+
+    @Override
+    public int indexOf(@Nullable Object o) {
+        materialize();
+        return super.indexOf(o);
+    }
+
+    @Override
+    public int lastIndexOf(@Nullable Object o) {
+        materialize();
+        return super.lastIndexOf(o);
+    }
+
+    @NotNull
+    @Override
+    public Object @NotNull [] toArray() {
+        materialize();
+        return super.toArray();
+    }
+
+    @NotNull
+    @Override
+    public <T> T @NotNull [] toArray(T @NotNull [] a) {
+        materialize();
+        return super.toArray(a);
+    }
+
+    // the iterators modify the list through the overridden methods, so they are read-only as well
+    @NotNull
+    @Override
+    public Iterator<Object> iterator() {
+        materialize();
+        return super.iterator();
+    }
+
+    @NotNull
+    @Override
+    public ListIterator<Object> listIterator() {
+        materialize();
+        return super.listIterator();
+    }
+
+    @NotNull
+    @Override
+    public ListIterator<Object> listIterator(int index) {
+        materialize();
+        return super.listIterator(index);
+    }
+
+    @NotNull
+    @Override
+    public List<Object> subList(int fromIndex, int toIndex) {
+        materialize();
+        return Collections.unmodifiableList(super.subList(fromIndex, toIndex));
+    }
+
+    @NotNull
+    @Override
+    public Spliterator<Object> spliterator() {
+        materialize();
+        return super.spliterator();
+    }
+
+    @Override
+    public void forEach(@NotNull Consumer<? super Object> action) {
+        materialize();
+        super.forEach(action);
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+        materialize();
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        materialize();
+        return super.hashCode();
+    }
+
+    @NotNull
+    @Override
+    public Object clone() {
+        return new JSONArray(this);
+    }
+
+    /**
+     * Serialize a plain copy, the tape is not serializable.
+     */
+    @Serial
+    @NotNull
+    private Object writeReplace() {
+        return new JSONArray(this);
+    }
+
+    @Override
+    public boolean add(Object o) { throw new UnsupportedOperationException(); }
+    @Override
+    public boolean addAll(Collection<?> c) { throw new UnsupportedOperationException(); }
+    @Override
+    public void clear() { throw new UnsupportedOperationException(); }
+    @Override
+    public boolean remove(Object o) { throw new UnsupportedOperationException(); }
+    @Override
+    public boolean removeAll(Collection<?> c) { throw new UnsupportedOperationException(); }
+    @Override
+    public boolean removeIf(Predicate<? super Object> filter) { throw new UnsupportedOperationException(); }
+    @Override
+    public boolean retainAll(Collection<?> c) { throw new UnsupportedOperationException(); }
+
+    @Override
+    public void add(int index, Object o) { throw new UnsupportedOperationException(); }
+    @Override
+    public boolean addAll(int index, Collection<?> c) { throw new UnsupportedOperationException(); }
+    @Override
+    public Object remove(int index) { throw new UnsupportedOperationException(); }
+    @Override
+    public void replaceAll(UnaryOperator<Object> operator) { throw new UnsupportedOperationException(); }
+    @Override
+    public Object set(int index, Object o) { throw new UnsupportedOperationException(); }
+    @Override
+    public void sort(Comparator<? super Object> c) { throw new UnsupportedOperationException(); }
+}
@@ -0,0 +1,191 @@
+package org.json.simple.parser;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.json.simple.JSONObject;
+
+import java.io.Serial;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Read-only JSONObject view of an object of a {@link Tape}. {@link #get(Object)}, {@link #containsKey(Object)} and
+ * {@link #isEmpty()} search the tape and decode only the requested value; any other operation decodes all the entries
+ * into the underlying map once. Like the tape, it is NOT thread-safe.
+ *
+ * @author l_MrBoom_l<admin@epserv.ru>
+ */
+final class LazyJSONObject extends JSONObject {
+    @Serial
+    private static final long serialVersionUID = -2496372914284946175L;
+
+    private transient final Tape tape;
+    /**
+     * the tape index of the start word
+     */
+    private transient final int start;
+    private transient boolean materialized;
+
+    LazyJSONObject(@NotNull Tape tape, int start) {
+        this.tape = tape;
+        this.start = start;
+    }
+
+    /**
+     * @return the tape index of the value of the last entry with this key, or -1. Like the parser, later duplicate
+     * keys win.
+     */
+    private int find(@NotNull String key) {
+        final int end = tape.payload(start);
+        int found = -1;
+        for (int i = start + 1; i < end; i = tape.next(i + 1)) {
+            if (tape.keyEquals(i, key))
+                found = i + 1;
+        }
+        return found;
+    }
+
+    private void materialize() {
+        if (materialized)
+            return;
+        materialized = true;
+        final int end = tape.payload(start);
+        for (int i = start + 1; i < end; i = tape.next(i + 1))
+            super.put(tape.value(i), tape.value(i + 1));
+    }
+
+    @Nullable
+    @Override
+    public Object get(@Nullable Object key) {
+        if (materialized)
+            return super.get(key);
+        if (!(key instanceof String s))
+            return null;
+        int index = find(s);
+        return index < 0 ? null : tape.value(index);
+    }
+
+    @Nullable
+    @Override
+    public Object getOrDefault(@Nullable Object key, @Nullable Object defaultValue) {
+        if (materialized)
+            return super.getOrDefault(key, defaultValue);
+        if (!(key instanceof String s))
+            return defaultValue;
+        int index = find(s);
+        return index < 0 ? defaultValue : tape.value(index);
+    }
+
+    @Override
+    public boolean containsKey(@Nullable Object key) {
+        if (materialized)
+            return super.containsKey(key);
+        return key instanceof String s && find(s) >= 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return tape.payload(tape.payload(start)) == 0;
+    }
+
+    @Override
+    public int size() {
+        materialize();
+        return super.size();
+    }
+
+    @Override
+    public boolean containsValue(@Nullable Object value) {
+        materialize();
+        return super.containsValue(value);
+    }
+
+    @NotNull
+    @Override
+    public Set<Object> keySet() {
+        materialize();
+        return Collections.unmodifiableSet(super.keySet());
+    }
+
+    @NotNull
+    @Override
+    public Collection<Object> values() {
+        materialize();
+        return Collections.unmodifiableCollection(super.values());
+    }
+
+    @NotNull
+    @Override
+    public Set<Map.Entry<Object, Object>> entrySet() {
+        materialize();
+        final Set<Map.Entry<Object, Object>> entries = super.entrySet();
+        return new AbstractSet<>() {
+            @NotNull
+            @Override
+            public Iterator<Map.Entry<Object, Object>> iterator() {
+                final Iterator<Map.Entry<Object, Object>> iterator = entries.iterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() { return iterator.hasNext(); }
+                    @Override
+                    public Map.Entry<Object, Object> next() { return new AbstractMap.SimpleImmutableEntry<>(iterator.next()); }
+                };
+            }
+
+            @Override
+            public int size() {
+                return entries.size();
+            }
+        };
+    }
+
+    @Override
+    public void forEach(@NotNull BiConsumer<? super Object, ? super Object> action) {
+        materialize();
+        super.forEach(action);
+    }
+
+    @NotNull
+    @Override
+    public Object clone() {
+        return new JSONObject(this);
+    }
+
+    /**
+     * Serialize a plain copy, the tape is not serializable.
+     */
+    @Serial
+    @NotNull
+    private Object writeReplace() {
+        return new JSONObject(this);
+    }
+
+    @Override
+    public Object put(Object key, Object value) { throw new UnsupportedOperationException(); }
+    @Override
+    public void putAll(@NotNull Map<?, ?> m) { throw new UnsupportedOperationException(); }
+    @Override
+    public Object remove(Object key) { throw new UnsupportedOperationException(); }
+    @Override
+    public boolean remove(Object key, Object value) { throw new UnsupportedOperationException(); }
+    @Override
+    public void clear() { throw new UnsupportedOperationException(); }
+    @Override
+    public Object putIfAbsent(Object key, Object value) { throw new UnsupportedOperationException(); }
+    @Override
+    public boolean replace(Object key, Object oldValue, Object newValue) { throw new UnsupportedOperationException(); }
+    @Override
+    public Object replace(Object key, Object value) { throw new UnsupportedOperationException(); }
+    @Override
+    public void replaceAll(BiFunction<? super Object, ? super Object, ?> function) { throw new UnsupportedOperationException(); }
+    @Override
+    public Object computeIfAbsent(Object key, Function<? super Object, ?> mappingFunction) { throw new UnsupportedOperationException(); }
+    @Override
+    public Object computeIfPresent(Object key, BiFunction<? super Object, ? super Object, ?> remappingFunction) { throw new UnsupportedOperationException(); }
+    @Override
+    public Object compute(Object key, BiFunction<? super Object, ? super Object, ?> remappingFunction) { throw new UnsupportedOperationException(); }
+    @Override
+    public Object merge(Object key, Object value, BiFunction<? super Object, ? super Object, ?> remappingFunction) { throw new UnsupportedOperationException(); }
+}
@@ -0,0 +1,70 @@
+package org.json.simple.parser;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+
+/**
+ * Token source driven by {@link JSONParser}.
+ *
+ * @author l_MrBoom_l<admin@epserv.ru>
+ * @see Yylex
+ * @see Utf8Lexer
+ */
+interface Lexer {
+    /**
+     * Scans the next token without allocating a token object.
+     *
+     * @return The type of the next token, one of the {@code Yytoken.TYPE_*} constants,
+     * {@link Yytoken#TYPE_EOF} at the end of input.
+     * @see #getValue()
+     */
+    int nextToken() throws IOException, ParseException;
+
+    /**
+     * Scans the next token like {@link #nextToken()}, for a value that is skipped. Lexers that can delimit strings
+     * and numbers without decoding them do so; {@link #getValue()} is then any String for strings, so that keys can
+     * still be told from other values, and may be null for numbers.
+     *
+     * @return The type of the next token.
+     */
+    default int skipToken() throws IOException, ParseException {
+        return nextToken();
+    }
+
+    /**
+     * @return The value of the current {@link Yytoken#TYPE_VALUE} token.
+     */
+    @Nullable
+    Object getValue();
+
+    /**
+     * @return The position of the beginning of the current token.
+     */
+    int getPosition();
+
+    /**
+     * @param numberMode How numbers are converted from now on.
+     */
+    void setNumberMode(@NotNull NumberMode numberMode);
+
+    /**
+     * @param limits The limits on the lengths of strings and numbers from now on.
+     */
+    void setLimits(@NotNull ParserLimits limits);
+
+    /**
+     * @param symbols The table the string of the next token is interned into, or null.
+     */
+    void setSymbols(@Nullable SymbolTable symbols);
+
+    /**
+     * @return The next token, or null at the end of input.
+     */
+    @Nullable
+    default Yytoken yylex() throws IOException, ParseException {
+        int type = nextToken();
+        return type == Yytoken.TYPE_EOF ? null : new Yytoken(type, getValue());
+    }
+}
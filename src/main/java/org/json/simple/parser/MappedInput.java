@@ -0,0 +1,74 @@
+package org.json.simple.parser;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A file read by {@link Utf8Lexer} through memory-mapped windows. A single {@link ByteBuffer} cannot map more than
+ * 2 GB, so larger files are read window by window, each new window starting at the token that crossed the end of the
+ * previous one.
+ * <p>
+ * The mappings stay valid after the channel is closed, and are released when the buffers are garbage collected.
+ *
+ * @author l_MrBoom_l<admin@epserv.ru>
+ */
+final class MappedInput {
+    static final int DEFAULT_WINDOW_SIZE = 1 << 30;
+
+    @NotNull
+    private final FileChannel channel;
+    private final long start;
+    private final long end;
+    private final int windowSize;
+
+    /**
+     * @param channel the file, read from its current position to its end
+     * @param windowSize the maximum number of bytes mapped at once
+     */
+    MappedInput(@NotNull FileChannel channel, int windowSize) throws IOException {
+        this.channel = channel;
+        this.start = channel.position();
+        this.end = channel.size();
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * @return the file offset of the first byte of input
+     */
+    long start() {
+        return start;
+    }
+
+    /**
+     * @return the file offset after the last byte of input
+     */
+    long end() {
+        return end;
+    }
+
+    /**
+     * @return the number of bytes mapped at once, unless a token is larger
+     */
+    int windowSize() {
+        return windowSize;
+    }
+
+    /**
+     * Map the window starting at a file offset.
+     *
+     * @param size the maximum size of the window
+     * @throws UncheckedIOException if the file cannot be mapped, since the scanner methods only throw ParseException
+     */
+    @NotNull
+    ByteBuffer map(long offset, int size) {
+        try {
+            return channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(size, end - offset));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,461 @@
+package org.json.simple.parser;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Serial;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Parallel reader for newline-delimited JSON (NDJSON, JSON Lines): UTF-8 encoded text with one JSON document per
+ * line. The input is cut into chunks of about {@link #setChunkSize(int) chunkSize} bytes that end at a newline, and
+ * the chunks are parsed concurrently on a {@link ForkJoinPool}, with one {@link JSONParser} per worker thread.
+ * Files are memory-mapped chunk by chunk, so they may be larger than 2 GB. Blank lines are skipped.
+ * <pre>
+ * try (NDJSONReader reader = new NDJSONReader(path)) {
+ *     long errors = reader.stream().filter(record -&gt; ((JSONObject) record).containsKey("error")).count();
+ * }
+ * </pre>
+ * Invalid records are reported as a {@link RecordException}. Please note that NDJSONReader is NOT thread-safe, but
+ * the parsing it starts is.
+ *
+ * @author l_MrBoom_l<admin@epserv.ru>
+ * @see JSONParser
+ */
+public class NDJSONReader implements Closeable {
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+    private static final int BOUNDARY_BLOCK_SIZE = 8192;
+
+    @Nullable
+    private final ByteBuffer buffer;
+    @Nullable
+    private final FileChannel channel;
+    private final boolean ownChannel;
+    /**
+     * the buffer index or the file offset of the first byte of input
+     */
+    private final long start;
+    /**
+     * the buffer index or the file offset after the last byte of input
+     */
+    private final long end;
+    @NotNull
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    @NotNull
+    private NumberMode numberMode = NumberMode.DEFAULT;
+    @NotNull
+    private ParserLimits limits = ParserLimits.NONE;
+    @Nullable
+    private ContainerFactory containerFactory;
+    @Nullable
+    private SymbolTable keySymbols;
+    @Nullable
+    private SymbolTable valueSymbols;
+    /**
+     * parser of each worker thread
+     */
+    @NotNull
+    private final ThreadLocal<JSONParser> parsers = ThreadLocal.withInitial(JSONParser::new);
+
+    public NDJSONReader(byte @NotNull [] bytes) {
+        this(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * @param in UTF-8 encoded input, the bytes between its position and its limit are read. The buffer is read
+     *           concurrently and must not be modified while it is read.
+     */
+    public NDJSONReader(@NotNull ByteBuffer in) {
+        this.buffer = in;
+        this.channel = null;
+        this.ownChannel = false;
+        this.start = in.position();
+        this.end = in.limit();
+    }
+
+    /**
+     * @param file UTF-8 encoded input file, it is opened now and closed by {@link #close()}
+     */
+    public NDJSONReader(@NotNull Path file) throws IOException {
+        this(FileChannel.open(file, StandardOpenOption.READ), true);
+    }
+
+    /**
+     * @param in UTF-8 encoded input file, read from its current position to its end. The position of the channel is
+     *           not modified and the channel is not closed by {@link #close()}.
+     */
+    public NDJSONReader(@NotNull FileChannel in) throws IOException {
+        this(in, false);
+    }
+
+    private NDJSONReader(@NotNull FileChannel in, boolean ownChannel) throws IOException {
+        this.buffer = null;
+        this.channel = in;
+        this.ownChannel = ownChannel;
+        this.start = in.position();
+        this.end = in.size();
+    }
+
+    /**
+     * Set the pool the chunks are parsed on. The default is the common pool.
+     */
+    public void setPool(@NotNull ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Set the approximate number of bytes parsed by one task. The default is {@link #DEFAULT_CHUNK_SIZE}.
+     */
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize <= 0)
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @see JSONParser#setNumberMode(NumberMode)
+     */
+    public void setNumberMode(@NotNull NumberMode numberMode) {
+        this.numberMode = numberMode;
+    }
+
+    /**
+     * Set the limits every record is checked against on its own.
+     *
+     * @see JSONParser#setLimits(ParserLimits)
+     */
+    public void setLimits(@NotNull ParserLimits limits) {
+        this.limits = limits;
+    }
+
+    /**
+     * Set the table object keys are interned into, shared by the worker threads.
+     *
+     * @see JSONParser#setKeySymbols(SymbolTable)
+     */
+    public void setKeySymbols(@Nullable SymbolTable keySymbols) {
+        this.keySymbols = keySymbols;
+    }
+
+    /**
+     * Set the table short string values are deduplicated through, shared by the worker threads.
+     *
+     * @see JSONParser#setValueSymbols(SymbolTable)
+     */
+    public void setValueSymbols(@Nullable SymbolTable valueSymbols) {
+        this.valueSymbols = valueSymbols;
+    }
+
+    /**
+     * Use this factory to create your own JSON object and JSON array containers. It is called from the worker
+     * threads concurrently.
+     */
+    public void setContainerFactory(@Nullable ContainerFactory containerFactory) {
+        this.containerFactory = containerFactory;
+    }
+
+    /**
+     * @return the records in the order of the input
+     * @see #stream(boolean)
+     */
+    @NotNull
+    public Stream<Object> stream() throws IOException {
+        return stream(true);
+    }
+
+    /**
+     * Parse the records in parallel. Only a few chunks are parsed ahead of the consumer of the stream, so the records
+     * of large inputs are not all held in memory at once. Closing the stream cancels the chunks parsed ahead.
+     *
+     * @param ordered whether the records are returned in the order of the input; otherwise, the records of each chunk
+     *                are returned as soon as it is parsed
+     * @return the records, a sequential stream of instances of the following:
+     * org.json.simple.JSONObject,
+     * org.json.simple.JSONArray,
+     * java.lang.String,
+     * java.lang.Number,
+     * java.lang.Boolean,
+     * null
+     * @throws RecordException from the stream operations if a record is not valid JSON text
+     */
+    @NotNull
+    public Stream<Object> stream(boolean ordered) throws IOException {
+        RecordSpliterator spliterator = new RecordSpliterator(chunks(), ordered);
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::cancel);
+    }
+
+    /**
+     * Parse the records in parallel and send each of them to a content handler, and wait for all of them. The records
+     * of a chunk are sent in order to the same handler, created for the chunk; chunks are processed concurrently.
+     *
+     * @param handlers supplier of the handler of each chunk, called from the worker threads concurrently
+     * @throws RecordException if a record is not valid JSON text, or the handler throws an exception
+     * @see JSONParser#parse(ByteBuffer, ContentHandler)
+     */
+    public void parse(@NotNull Supplier<? extends ContentHandler> handlers) throws IOException {
+        List<ChunkTask> tasks = new ArrayList<>();
+        for (long[] chunk : chunks())
+            tasks.add(new ChunkTask(chunk, handlers, null));
+        try {
+            pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Close the input file if it was opened by this reader.
+     */
+    @Override
+    public void close() throws IOException {
+        if (ownChannel && channel != null)
+            channel.close();
+    }
+
+    /**
+     * Cut the input into chunks, each one ending right after a newline or at the end of input.
+     *
+     * @return the start and the end of each chunk
+     */
+    @NotNull
+    private List<long[]> chunks() throws IOException {
+        List<long[]> chunks = new ArrayList<>();
+        for (long from = start; from < end; ) {
+            long to = from + chunkSize >= end ? end : nextLine(from + chunkSize);
+            chunks.add(new long[]{from, to});
+            from = to;
+        }
+        return chunks;
+    }
+
+    /**
+     * @return the index after the first newline at or after {@code from}, or the end of input
+     */
+    private long nextLine(long from) throws IOException {
+        if (buffer != null) {
+            for (int i = (int) from; i < end; i++) {
+                if (buffer.get(i) == '\n')
+                    return i + 1;
+            }
+            return end;
+        }
+
+        final FileChannel ch = Objects.requireNonNull(channel);
+        ByteBuffer block = ByteBuffer.allocate(BOUNDARY_BLOCK_SIZE);
+        for (long offset = from; offset < end; offset += block.limit()) {
+            block.clear();
+            // positional reads, the position of the channel is not modified
+            if (ch.read(block, offset) < 0)
+                break;
+            block.flip();
+            for (int i = 0; i < block.limit(); i++) {
+                if (block.get(i) == '\n')
+                    return offset + i + 1;
+            }
+        }
+        return end;
+    }
+
+    private void parseChunk(long @NotNull [] chunk, @Nullable Supplier<? extends ContentHandler> handlers,
+                            @NotNull Consumer<Object> records) {
+        final ByteBuffer buf;
+        final int from;
+        final int to;
+        if (buffer != null) {
+            buf = buffer;
+            from = (int) chunk[0];
+            to = (int) chunk[1];
+        } else {
+            if (chunk[1] - chunk[0] > Integer.MAX_VALUE)
+                throw new UncheckedIOException(new IOException("Record larger than 2 GB at offset " + chunk[0]));
+            try {
+                buf = Objects.requireNonNull(channel).map(FileChannel.MapMode.READ_ONLY, chunk[0], chunk[1] - chunk[0]);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            from = 0;
+            to = buf.limit();
+        }
+
+        final JSONParser parser = parsers.get();
+        parser.setNumberMode(numberMode);
+        parser.setLimits(limits);
+        parser.setKeySymbols(keySymbols);
+        parser.setValueSymbols(valueSymbols);
+        final ContentHandler handler = handlers == null ? null : handlers.get();
+        for (int line = from, lineEnd; line < to; line = lineEnd + 1) {
+            lineEnd = line;
+            while (lineEnd < to && buf.get(lineEnd) != '\n')
+                lineEnd++;
+            if (isBlank(buf, line, lineEnd))
+                continue;
+
+            parser.reset(buf, line, lineEnd);
+            try {
+                if (handler == null)
+                    records.accept(parser.parse(containerFactory));
+                else
+                    parser.parse(handler);
+            } catch (ParseException | IOException e) {
+                throw new RecordException(chunk[0] - start + line - from, e);
+            }
+        }
+    }
+
+    static boolean isBlank(@NotNull ByteBuffer buf, int from, int to) {
+        for (int i = from; i < to; i++) {
+            int c = buf.get(i);
+            if (c != ' ' && c != '\t' && c != '\r')
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Parses one chunk, either into a list of records or into a content handler.
+     */
+    private final class ChunkTask extends RecursiveTask<List<Object>> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final long @NotNull [] chunk;
+        @Nullable
+        private final Supplier<? extends ContentHandler> handlers;
+        /**
+         * queue the task adds itself to when it is done, for unordered streams
+         */
+        @Nullable
+        private final Queue<ChunkTask> done;
+
+        private ChunkTask(long @NotNull [] chunk, @Nullable Supplier<? extends ContentHandler> handlers,
+                          @Nullable Queue<ChunkTask> done) {
+            this.chunk = chunk;
+            this.handlers = handlers;
+            this.done = done;
+        }
+
+        @Override
+        protected List<Object> compute() {
+            try {
+                List<Object> records = new ArrayList<>();
+                parseChunk(chunk, handlers, records::add);
+                return records;
+            } finally {
+                if (done != null)
+                    done.add(this);
+            }
+        }
+    }
+
+    /**
+     * Returns the records of the chunks, keeping a few chunks parsed ahead.
+     */
+    private final class RecordSpliterator implements Spliterator<Object> {
+        @NotNull
+        private final Iterator<long[]> chunks;
+        private final boolean ordered;
+        private final int maxRunning = Math.max(2, 2 * pool.getParallelism());
+        @NotNull
+        private final ArrayDeque<ChunkTask> running = new ArrayDeque<>();
+        @NotNull
+        private final LinkedBlockingQueue<ChunkTask> done = new LinkedBlockingQueue<>();
+        @NotNull
+        private Iterator<Object> records = Collections.emptyIterator();
+
+        private RecordSpliterator(@NotNull List<long[]> chunks, boolean ordered) {
+            this.chunks = chunks.iterator();
+            this.ordered = ordered;
+        }
+
+        @Override
+        public boolean tryAdvance(@NotNull Consumer<? super Object> action) {
+            while (!records.hasNext()) {
+                while (running.size() < maxRunning && chunks.hasNext()) {
+                    ChunkTask task = new ChunkTask(chunks.next(), null, ordered ? null : done);
+                    running.add(task);
+                    pool.execute(task);
+                }
+                if (running.isEmpty())
+                    return false;
+
+                ChunkTask task;
+                if (ordered) {
+                    task = running.remove();
+                } else {
+                    try {
+                        task = done.take();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new CancellationException("Interrupted while waiting for a chunk");
+                    }
+                    running.remove(task);
+                }
+                records = task.join().iterator();
+            }
+            action.accept(records.next());
+            return true;
+        }
+
+        private void cancel() {
+            for (ChunkTask task : running)
+                task.cancel(false);
+            running.clear();
+        }
+
+        @Nullable
+        @Override
+        public Spliterator<Object> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return ordered ? ORDERED : 0;
+        }
+    }
+
+    /**
+     * Thrown when a record cannot be parsed. The cause is the {@link ParseException} or the exception thrown by the
+     * content handler, and the positions of a ParseException are relative to the beginning of the record.
+     */
+    public static class RecordException extends RuntimeException {
+        @Serial
+        private static final long serialVersionUID = 2218394711466350173L;
+
+        private final long offset;
+
+        public RecordException(long offset, @NotNull Exception cause) {
+            super("Invalid record at offset " + offset + ": " + cause.getMessage(), cause);
+            this.offset = offset;
+        }
+
+        /**
+         * @return The byte offset of the beginning of the record in the input.
+         */
+        public long getOffset() {
+            return offset;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.json.simple.parser;
+
+/**
+ * How the parser converts JSON numbers into java objects.
+ *
+ * @author l_MrBoom_l<admin@epserv.ru>
+ * @see JSONParser#setNumberMode(NumberMode)
+ */
+public enum NumberMode {
+    /**
+     * Integers become {@link Long}, other numbers become {@link Double}.
+     * Integers out of the long range are reported as a {@link ParseException}.
+     */
+    DEFAULT,
+    /**
+     * All numbers become {@link Double}.
+     */
+    DOUBLE,
+    /**
+     * All numbers become {@link java.math.BigDecimal}, keeping every digit and the scale of the source text.
+     */
+    BIG_DECIMAL,
+    /**
+     * Integers become {@link Long}, or {@link java.math.BigInteger} if they are out of the long range. Other numbers
+     * become {@link Double}, or {@link java.math.BigDecimal} if they have more than 15 significant digits or are out
+     * of the normal double range, so no precision is lost.
+     */
+    WIDEN,
+    /**
+     * Numbers become {@link org.json.simple.JSONNumber} instances holding the source text, which is converted only
+     * when the value is read and written verbatim by {@link org.json.simple.JSONValue#writeJSONString}.
+     */
+    LAZY
+}
@@ -0,0 +1,300 @@
+package org.json.simple.parser;
+
+import org.jetbrains.annotations.NotNull;
+import org.json.simple.JSONNumber;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+/**
+ * Converts number tokens straight from the lexer buffers. Integers are accumulated digit by digit without creating a
+ * String, and doubles are computed with the Clinger fast path, then the Eisel-Lemire algorithm, and only fall back to
+ * {@link Double#parseDouble(String)} for inputs with more than 19 significant digits or the rare ambiguous cases.
+ *
+ * @author l_MrBoom_l<admin@epserv.ru>
+ * @see NumberMode
+ */
+final class NumberScanner {
+    private static final int MAX_SIGNIFICANT_DIGITS = 19;
+    private static final int SMALLEST_POWER_OF_TEN = -342;
+    private static final int LARGEST_POWER_OF_TEN = 308;
+    private static final long SIGN_BIT = 0x8000000000000000L;
+    /**
+     * doubles with at most this many significant decimal digits survive the round trip through binary64
+     */
+    private static final int DOUBLE_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    /**
+     * 128-bit mantissas of 5^q (and so of 10^q) rounded down, for q in [-342, 308], high and low word interleaved.
+     */
+    private static final long[] POWERS_OF_FIVE = powersOfFive();
+
+    private NumberScanner() {
+    }
+
+    /**
+     * Convert the number token {@code buf[start, end)}.
+     *
+     * @throws NumberFormatException if the integer is out of the long range in {@link NumberMode#DEFAULT} mode
+     */
+    @NotNull
+    static Number scan(char @NotNull [] buf, int start, int end, @NotNull NumberMode mode) {
+        if (mode == NumberMode.LAZY)
+            return new JSONNumber(new String(buf, start, end - start));
+        if (mode == NumberMode.BIG_DECIMAL)
+            return new BigDecimal(buf, start, end - start);
+
+        int p = start;
+        boolean negative = buf[p] == '-';
+        if (negative)
+            p++;
+
+        long significand = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean truncated = false;
+        boolean integer = true;
+
+        for (char c; p < end && (c = buf[p]) >= '0' && c <= '9'; p++) {
+            if (digits < MAX_SIGNIFICANT_DIGITS) {
+                significand = significand * 10 + (c - '0');
+                if (significand != 0)
+                    digits++;
+            } else {
+                truncated = true;
+                exponent++;
+            }
+        }
+        if (p < end && buf[p] == '.') {
+            integer = false;
+            for (char c; ++p < end && (c = buf[p]) >= '0' && c <= '9'; ) {
+                if (digits < MAX_SIGNIFICANT_DIGITS) {
+                    significand = significand * 10 + (c - '0');
+                    exponent--;
+                    if (significand != 0)
+                        digits++;
+                } else {
+                    truncated = true;
+                }
+            }
+        }
+        if (p < end) {
+            integer = false;
+            boolean negativeExponent = buf[++p] == '-';
+            if (buf[p] == '-' || buf[p] == '+')
+                p++;
+            int e = 0;
+            for (; p < end; p++) {
+                if (e < 100_000)
+                    e = e * 10 + (buf[p] - '0');
+            }
+            exponent += negativeExponent ? -e : e;
+        }
+
+        return finish(buf, start, end, negative, significand, digits, exponent, truncated, integer, mode);
+    }
+
+    /**
+     * Convert the number token between the indexes {@code start} and {@code end} of a byte buffer.
+     *
+     * @see #scan(char[], int, int, NumberMode)
+     */
+    @NotNull
+    static Number scan(@NotNull ByteBuffer buf, int start, int end, @NotNull NumberMode mode) {
+        if (mode == NumberMode.LAZY)
+            return new JSONNumber(text(buf, start, end));
+        if (mode == NumberMode.BIG_DECIMAL)
+            return new BigDecimal(text(buf, start, end));
+
+        int p = start;
+        boolean negative = buf.get(p) == '-';
+        if (negative)
+            p++;
+
+        long significand = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean truncated = false;
+        boolean integer = true;
+
+        for (int c; p < end && (c = buf.get(p)) >= '0' && c <= '9'; p++) {
+            if (digits < MAX_SIGNIFICANT_DIGITS) {
+                significand = significand * 10 + (c - '0');
+                if (significand != 0)
+                    digits++;
+            } else {
+                truncated = true;
+                exponent++;
+            }
+        }
+        if (p < end && buf.get(p) == '.') {
+            integer = false;
+            for (int c; ++p < end && (c = buf.get(p)) >= '0' && c <= '9'; ) {
+                if (digits < MAX_SIGNIFICANT_DIGITS) {
+                    significand = significand * 10 + (c - '0');
+                    exponent--;
+                    if (significand != 0)
+                        digits++;
+                } else {
+                    truncated = true;
+                }
+            }
+        }
+        if (p < end) {
+            integer = false;
+            boolean negativeExponent = buf.get(++p) == '-';
+            if (buf.get(p) == '-' || buf.get(p) == '+')
+                p++;
+            int e = 0;
+            for (; p < end; p++) {
+                if (e < 100_000)
+                    e = e * 10 + (buf.get(p) - '0');
+            }
+            exponent += negativeExponent ? -e : e;
+        }
+
+        return finish(buf, start, end, negative, significand, digits, exponent, truncated, integer, mode);
+    }
+
+    @NotNull
+    private static Number finish(@NotNull Object src, int start, int end, boolean negative, long significand,
+                                 int digits, int exponent, boolean truncated, boolean integer, @NotNull NumberMode mode) {
+        if (integer) {
+            // at most 19 digits, so the unsigned comparison is exact
+            if (!truncated && Long.compareUnsigned(significand, negative ? Long.MIN_VALUE : Long.MAX_VALUE) <= 0) {
+                long value = negative ? -significand : significand;
+                if (mode == NumberMode.DOUBLE)
+                    return (double) value;
+                return value;
+            }
+            if (mode == NumberMode.WIDEN)
+                return new BigInteger(text(src, start, end));
+            if (mode != NumberMode.DOUBLE)
+                throw new NumberFormatException("Number out of the long range: " + text(src, start, end));
+        }
+
+        double d = truncated ? Double.NaN : toDouble(negative, significand, exponent);
+        if (Double.isNaN(d))
+            d = Double.parseDouble(text(src, start, end));
+
+        if (mode == NumberMode.WIDEN && !integer
+                && (truncated || digits > DOUBLE_DIGITS || Double.isInfinite(d) || significand != 0 && Math.abs(d) < Double.MIN_NORMAL))
+            return src instanceof char[] chars ? new BigDecimal(chars, start, end - start) : new BigDecimal(text(src, start, end));
+        return d;
+    }
+
+    /**
+     * Compute the double nearest to {@code significand * 10^exponent}.
+     *
+     * @return the double value, or NaN if the value could not be determined without the slow path
+     */
+    static double toDouble(boolean negative, long significand, int exponent) {
+        if (significand == 0 || exponent < SMALLEST_POWER_OF_TEN)
+            return negative ? -0.0 : 0.0;
+        if (exponent > LARGEST_POWER_OF_TEN)
+            return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+
+        // Clinger's fast path: both operands are exact, so is the correctly rounded result
+        if (exponent >= -22 && exponent <= 22 && significand >= 0 && significand <= 1L << 53) {
+            double d = significand;
+            d = exponent < 0 ? d / POWERS_OF_TEN[-exponent] : d * POWERS_OF_TEN[exponent];
+            return negative ? -d : d;
+        }
+
+        long bits = eiselLemire(significand, exponent);
+        if (bits == -1)
+            return Double.NaN;
+        return Double.longBitsToDouble(negative ? bits | SIGN_BIT : bits);
+    }
+
+    /**
+     * The Eisel-Lemire algorithm, see Daniel Lemire, "Number Parsing at a Gigabyte per Second". Like the Go
+     * implementation, it gives up on the halfway, subnormal and overflow cases instead of resolving them.
+     *
+     * @param w significand, not zero, read as an unsigned value
+     * @param q decimal exponent in [-342, 308]
+     * @return the bits of the positive double nearest to {@code w * 10^q}, or -1 if it could not be determined
+     */
+    private static long eiselLemire(long w, int q) {
+        final int lz = Long.numberOfLeadingZeros(w);
+        w <<= lz;
+
+        final int index = 2 * (q - SMALLEST_POWER_OF_TEN);
+        long high = unsignedMultiplyHigh(w, POWERS_OF_FIVE[index]);
+        long low = w * POWERS_OF_FIVE[index];
+        // 55 bits of precision are needed, refine with the low word of the power when they may be inexact
+        if ((high & 0x1FF) == 0x1FF && Long.compareUnsigned(low + w, w) < 0) {
+            long secondHigh = unsignedMultiplyHigh(w, POWERS_OF_FIVE[index + 1]);
+            long secondLow = w * POWERS_OF_FIVE[index + 1];
+            long mergedHigh = high;
+            long mergedLow = low + secondHigh;
+            if (Long.compareUnsigned(mergedLow, low) < 0)
+                mergedHigh++;
+            if ((mergedHigh & 0x1FF) == 0x1FF && mergedLow == -1 && Long.compareUnsigned(secondLow + w, w) < 0)
+                return -1;
+            high = mergedHigh;
+            low = mergedLow;
+        }
+
+        final int msb = (int) (high >>> 63);
+        long mantissa = high >>> (msb + 9);
+        int power2 = ((217706 * q) >> 16) + 63 + msb - lz + 1023;
+
+        // halfway between two doubles
+        if (low == 0 && (high & 0x1FF) == 0 && (mantissa & 3) == 1)
+            return -1;
+
+        mantissa += mantissa & 1;
+        mantissa >>>= 1;
+        if (mantissa >>> 53 != 0) {
+            mantissa >>>= 1;
+            power2++;
+        }
+        // subnormal or infinite
+        if (power2 <= 0 || power2 >= 0x7FF)
+            return -1;
+        return mantissa & ~(1L << 52) | (long) power2 << 52;
+    }
+
+    private static long unsignedMultiplyHigh(long x, long y) {
+        return Math.multiplyHigh(x, y) + (y & x >> 63) + (x & y >> 63);
+    }
+
+    @NotNull
+    private static long[] powersOfFive() {
+        final BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+        long[] table = new long[2 * (LARGEST_POWER_OF_TEN - SMALLEST_POWER_OF_TEN + 1)];
+        int i = 0;
+        for (int q = SMALLEST_POWER_OF_TEN; q <= LARGEST_POWER_OF_TEN; q++) {
+            BigInteger c;
+            if (q < 0) {
+                BigInteger power5 = BigInteger.valueOf(5).pow(-q);
+                // 2^b / 5^-q has exactly 128 bits
+                c = BigInteger.ONE.shiftLeft(power5.bitLength() + 127).divide(power5);
+            } else {
+                c = BigInteger.valueOf(5).pow(q);
+            }
+            // keep exactly 128 significant bits, rounding down
+            int shift = c.bitLength() - 128;
+            c = shift > 0 ? c.shiftRight(shift) : c.shiftLeft(-shift);
+            table[i++] = c.shiftRight(64).longValue();
+            table[i++] = c.and(mask).longValue();
+        }
+        return table;
+    }
+
+    @NotNull
+    private static String text(@NotNull Object src, int start, int end) {
+        if (src instanceof char[] chars)
+            return new String(chars, start, end - start);
+        ByteBuffer buf = (ByteBuffer) src;
+        char[] chars = new char[end - start];
+        for (int i = 0; i < chars.length; i++)
+            chars[i] = (char) buf.get(start + i);
+        return new String(chars);
+    }
+}
@@ -0,0 +1,175 @@
+package org.json.simple.parser;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.json.simple.JSONArray;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Parses the elements of one large top-level array concurrently.
+ * <p>
+ * The body of the array is cut into pieces at speculative element boundaries: a comma that looks like it separates
+ * two values, which may actually be inside a string or a nested container. Every piece is parsed on its own as a list
+ * of elements, then the pieces are accepted in order. The first piece starts right after the left square bracket, and
+ * a piece that parses completely ends at a real boundary, so the next piece is known to start at one as well. A piece
+ * that starts at a real boundary but cannot be parsed to its end was cut at a wrong guess: the rest of the body, from
+ * the start of that piece, is parsed once sequentially, so that wrong guesses cost no more than one sequential parse.
+ * An error before the end of such a piece is an error of the input.
+ *
+ * @author l_MrBoom_l<admin@epserv.ru>
+ */
+final class ParallelArrayParser {
+    /**
+     * the smallest piece worth parsing on its own
+     */
+    static final int MIN_PIECE_SIZE = 1 << 16;
+
+    private ParallelArrayParser() {
+    }
+
+    /**
+     * Parse UTF-8 encoded JSON text, the elements of a top-level array concurrently. Any other input, or an array
+     * too small to be cut, is parsed by the parser itself.
+     *
+     * @param parser the parser of the calling thread, its number mode and symbol tables are used for the pieces
+     */
+    @NotNull
+    static Object parse(@NotNull JSONParser parser, @NotNull ByteBuffer in, @Nullable ContainerFactory containerFactory,
+                        @NotNull ForkJoinPool pool) throws ParseException {
+        final int from = in.position();
+        int open = from, close = in.limit();
+        while (open < close && isWhitespace(in.get(open)))
+            open++;
+        while (close > open && isWhitespace(in.get(close - 1)))
+            close--;
+        int pieces = Math.min(4 * pool.getParallelism(), (close - open) / MIN_PIECE_SIZE);
+        // the limits on the structure apply to the whole document, which only a sequential parse sees
+        final ParserLimits limits = parser.getLimits();
+        if (pieces < 2 || in.get(open) != '[' || in.get(close - 1) != ']' || limits.limitsStructure())
+            return parser.parse(in, containerFactory);
+
+        final int[] cuts = cuts(in, open + 1, close - 1, pieces);
+        final NumberMode numberMode = parser.getNumberMode();
+        final SymbolTable keySymbols = parser.getKeySymbols();
+        final SymbolTable valueSymbols = parser.getValueSymbols();
+        List<ForkJoinTask<Object>> tasks = new ArrayList<>(cuts.length - 1);
+        for (int i = 0; i + 1 < cuts.length; i++) {
+            final int start = cuts[i], end = cuts[i + 1];
+            tasks.add(ForkJoinTask.adapt(() -> {
+                JSONParser p = new JSONParser();
+                p.setNumberMode(numberMode);
+                p.setLimits(limits);
+                p.setKeySymbols(keySymbols);
+                p.setValueSymbols(valueSymbols);
+                try {
+                    return p.parseElements(in, start, end, containerFactory);
+                } catch (ParseException e) {
+                    return e;
+                }
+            }));
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+
+        List<List<?>> pieceValues = new ArrayList<>(tasks.size());
+        int size = 0;
+        for (int i = 0; i < tasks.size(); i++) {
+            Object value = tasks.get(i).join();
+            if (value instanceof ParseException e) {
+                // the piece starts at a real boundary, the rest of the body is parsed without the guessed cuts
+                final int start = cuts[i], to = cuts[cuts.length - 1];
+                if (e.getPosition() < cuts[i + 1] - start) {
+                    e.setPosition(e.getPosition() + start - from);
+                    throw e;
+                }
+                try {
+                    value = parser.parseElements(in, start, to, containerFactory);
+                } catch (ParseException ex) {
+                    if (ex.getPosition() < to - start) {
+                        ex.setPosition(ex.getPosition() + start - from);
+                        throw ex;
+                    }
+                    // an error at the end of the body, reported as the whole document sees it
+                    return parser.parse(in, containerFactory);
+                }
+                List<?> elements = (List<?>) value;
+                pieceValues.add(elements);
+                size += elements.size();
+                break;
+            }
+            List<?> elements = (List<?>) value;
+            pieceValues.add(elements);
+            size += elements.size();
+        }
+
+        List<Object> array = createArrayContainer(containerFactory, size);
+        if (array instanceof ArrayList<Object> a)
+            a.ensureCapacity(size);
+        for (List<?> elements : pieceValues)
+            array.addAll(elements);
+        return array;
+    }
+
+    /**
+     * Choose the piece boundaries, each one a comma between what looks like the end of a value and the start of the
+     * next one, near evenly spaced positions.
+     *
+     * @return the start of the body, the boundaries found in order, and the end of the body
+     */
+    private static int @NotNull [] cuts(@NotNull ByteBuffer in, int from, int to, int pieces) {
+        int[] cuts = new int[pieces + 1];
+        int n = 0;
+        cuts[n++] = from;
+        final long step = (long) (to - from) / pieces;
+        for (int k = 1; k < pieces; k++) {
+            final int nominal = (int) (from + k * step), bound = (int) Math.min(to, nominal + step);
+            for (int p = Math.max(nominal, cuts[n - 1] + 1); p < bound; p++) {
+                if (in.get(p) == ',' && endsValue(in, from, p) && startsValue(in, p, to)) {
+                    cuts[n++] = p;
+                    break;
+                }
+            }
+        }
+        cuts[n++] = to;
+        return n == cuts.length ? cuts : Arrays.copyOf(cuts, n);
+    }
+
+    private static boolean endsValue(@NotNull ByteBuffer in, int from, int comma) {
+        int p = comma - 1;
+        while (p >= from && isWhitespace(in.get(p)))
+            p--;
+        if (p < from)
+            return false;
+        byte b = in.get(p);
+        return b == '}' || b == ']' || b == '"' || b >= '0' && b <= '9' || b == 'e' || b == 'l';
+    }
+
+    private static boolean startsValue(@NotNull ByteBuffer in, int comma, int to) {
+        int p = comma + 1;
+        while (p < to && isWhitespace(in.get(p)))
+            p++;
+        if (p >= to)
+            return false;
+        byte b = in.get(p);
+        return b == '{' || b == '[' || b == '"' || b == '-' || b >= '0' && b <= '9' || b == 't' || b == 'f' || b == 'n';
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r' || b == '\f';
+    }
+
+    @SuppressWarnings("unchecked")
+    @NotNull
+    private static List<Object> createArrayContainer(@Nullable ContainerFactory containerFactory, int size) {
+        if (containerFactory == null)
+            return new JSONArray();
+        List<Object> l = (List<Object>) containerFactory.createArrayContainer(size);
+
+        return l == null ? new JSONArray() : l;
+    }
+}
@@ -16,6 +16,7 @@ public class ParseException extends Exception {
     public static final int ERROR_UNEXPECTED_CHAR = 0;
     public static final int ERROR_UNEXPECTED_TOKEN = 1;
     public static final int ERROR_UNEXPECTED_EXCEPTION = 2;
+    public static final int ERROR_LIMIT_EXCEEDED = 3;
     @Serial
     private static final long serialVersionUID = -7880698968187728547L;
     private int errorType;
@@ -62,6 +63,7 @@ public class ParseException extends Exception {
      * ERROR_UNEXPECTED_CHAR		java.lang.Character
      * ERROR_UNEXPECTED_TOKEN		org.json.simple.parser.Yytoken
      * ERROR_UNEXPECTED_EXCEPTION	java.lang.Exception
+     * ERROR_LIMIT_EXCEEDED		java.lang.String, the exceeded limit
      * @see org.json.simple.parser.Yytoken
      */
     @Nullable
@@ -79,6 +81,7 @@ public class ParseException extends Exception {
             case ERROR_UNEXPECTED_CHAR -> String.format("Unexpected character (%s) at position %d.", Objects.requireNonNullElse(unexpectedObject, ""), position);
             case ERROR_UNEXPECTED_TOKEN -> String.format("Unexpected token %s at position %d.", Objects.requireNonNullElse(unexpectedObject, ""), position);
             case ERROR_UNEXPECTED_EXCEPTION -> String.format("Unexpected exception at position %d: %s", position, Objects.requireNonNullElse(unexpectedObject, ""));
+            case ERROR_LIMIT_EXCEEDED -> String.format("Limit exceeded at position %d: %s", position, Objects.requireNonNullElse(unexpectedObject, ""));
             default -> String.format("Unknown error at position %d.", position);
         };
     }
@@ -0,0 +1,127 @@
+package org.json.simple.parser;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Limits on the resources a parsed document may use, for input that cannot be trusted. They are checked while the
+ * input is scanned, before the memory for the offending part is committed, and a violation is reported as a
+ * {@link ParseException} of type {@link ParseException#ERROR_LIMIT_EXCEEDED} whose unexpected object names the limit.
+ * <p>
+ * Limits are immutable; {@link #NONE} has no limit and each {@code with} method returns a copy with one limit changed:
+ * <pre>
+ * parser.setLimits(ParserLimits.NONE.withMaxDepth(64).withMaxStringLength(1 &lt;&lt; 20).withMaxDocumentSize(1 &lt;&lt; 24));
+ * </pre>
+ *
+ * @author l_MrBoom_l<admin@epserv.ru>
+ * @see JSONParser#setLimits(ParserLimits)
+ */
+public final class ParserLimits {
+    public static final ParserLimits NONE = new ParserLimits(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE,
+            Integer.MAX_VALUE, Long.MAX_VALUE);
+
+    private final int maxDepth;
+    private final int maxStringLength;
+    private final int maxNumberLength;
+    private final int maxEntries;
+    private final long maxDocumentSize;
+
+    private ParserLimits(int maxDepth, int maxStringLength, int maxNumberLength, int maxEntries, long maxDocumentSize) {
+        this.maxDepth = maxDepth;
+        this.maxStringLength = maxStringLength;
+        this.maxNumberLength = maxNumberLength;
+        this.maxEntries = maxEntries;
+        this.maxDocumentSize = maxDocumentSize;
+    }
+
+    /**
+     * @return the largest number of nested objects and arrays
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * @return the largest number of characters of a decoded string, key or value
+     */
+    public int getMaxStringLength() {
+        return maxStringLength;
+    }
+
+    /**
+     * @return the largest number of characters of a number
+     */
+    public int getMaxNumberLength() {
+        return maxNumberLength;
+    }
+
+    /**
+     * @return the largest number of entries of an object, or of elements of an array
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * @return the largest size of a document, in characters for character input and in bytes for UTF-8 input
+     */
+    public long getMaxDocumentSize() {
+        return maxDocumentSize;
+    }
+
+    @NotNull
+    public ParserLimits withMaxDepth(int maxDepth) {
+        return new ParserLimits(positive(maxDepth, "Max depth"), maxStringLength, maxNumberLength, maxEntries,
+                maxDocumentSize);
+    }
+
+    @NotNull
+    public ParserLimits withMaxStringLength(int maxStringLength) {
+        if (maxStringLength < 0)
+            throw new IllegalArgumentException("Max string length must not be negative: " + maxStringLength);
+        return new ParserLimits(maxDepth, maxStringLength, maxNumberLength, maxEntries, maxDocumentSize);
+    }
+
+    @NotNull
+    public ParserLimits withMaxNumberLength(int maxNumberLength) {
+        return new ParserLimits(maxDepth, maxStringLength, positive(maxNumberLength, "Max number length"), maxEntries,
+                maxDocumentSize);
+    }
+
+    @NotNull
+    public ParserLimits withMaxEntries(int maxEntries) {
+        if (maxEntries < 0)
+            throw new IllegalArgumentException("Max entries must not be negative: " + maxEntries);
+        return new ParserLimits(maxDepth, maxStringLength, maxNumberLength, maxEntries, maxDocumentSize);
+    }
+
+    @NotNull
+    public ParserLimits withMaxDocumentSize(long maxDocumentSize) {
+        if (maxDocumentSize <= 0)
+            throw new IllegalArgumentException("Max document size must be positive: " + maxDocumentSize);
+        return new ParserLimits(maxDepth, maxStringLength, maxNumberLength, maxEntries, maxDocumentSize);
+    }
+
+    private static int positive(int limit, @NotNull String name) {
+        if (limit <= 0)
+            throw new IllegalArgumentException(name + " must be positive: " + limit);
+        return limit;
+    }
+
+    /**
+     * @return whether the structure of documents is limited, which the parser then tracks
+     */
+    boolean limitsStructure() {
+        return maxDepth != Integer.MAX_VALUE || maxEntries != Integer.MAX_VALUE || maxDocumentSize != Long.MAX_VALUE;
+    }
+
+    @NotNull
+    static ParseException exceeded(int position, @NotNull String limit, long value) {
+        return new ParseException(position, ParseException.ERROR_LIMIT_EXCEEDED, limit + " > " + value);
+    }
+
+    @Override
+    public String toString() {
+        return "ParserLimits{maxDepth=" + maxDepth + ", maxStringLength=" + maxStringLength + ", maxNumberLength="
+                + maxNumberLength + ", maxEntries=" + maxEntries + ", maxDocumentSize=" + maxDocumentSize + '}';
+    }
+}
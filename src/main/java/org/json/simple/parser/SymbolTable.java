@@ -0,0 +1,166 @@
+package org.json.simple.parser;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded table of canonical strings, used by {@link JSONParser#setKeySymbols(SymbolTable)} and
+ * {@link JSONParser#setValueSymbols(SymbolTable)} so that equal object keys or short string values are returned as the
+ * same String instance. A string is looked up by its scanned characters, and only allocated when it is not found, so
+ * documents that repeat the same strings keep only one copy of each, whose hash code is computed once.
+ * <p>
+ * The table never grows: it has a fixed number of slots, a new string replaces an older one with a colliding hash,
+ * and strings longer than the maximum length are neither looked up nor stored. Input with many distinct strings only
+ * makes lookups miss, which {@link #getHits()} and {@link #getMisses()} show.
+ * <p>
+ * The table is thread-safe and lock-free, and can be shared by parsers of several threads. A string may be stored
+ * twice by concurrent lookups, after which one of the copies is returned.
+ *
+ * @author l_MrBoom_l<admin@epserv.ru>
+ */
+public final class SymbolTable {
+    public static final int DEFAULT_CAPACITY = 1024;
+    public static final int DEFAULT_MAX_LENGTH = 64;
+
+    /**
+     * buckets of two slots, the most recently stored string first. Strings are immutable, so they can be published
+     * through plain array writes.
+     */
+    private final String @NotNull [] slots;
+    private final int mask;
+    private final int maxLength;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public SymbolTable() {
+        this(DEFAULT_CAPACITY, DEFAULT_MAX_LENGTH);
+    }
+
+    /**
+     * @param capacity the number of strings the table can hold, rounded up to a power of two
+     * @param maxLength the length of the longest string stored
+     */
+    public SymbolTable(int capacity, int maxLength) {
+        if (capacity < 2 || capacity > 1 << 30)
+            throw new IllegalArgumentException("Capacity must be between 2 and 2^30: " + capacity);
+        if (maxLength < 0)
+            throw new IllegalArgumentException("Max length must not be negative: " + maxLength);
+        this.slots = new String[Integer.highestOneBit(capacity - 1) << 1];
+        this.mask = slots.length - 2;
+        this.maxLength = maxLength;
+    }
+
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * @return the number of lookups that found the string, since the table was created or cleared
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of lookups that stored a new string, since the table was created or cleared
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Remove all the strings and reset the statistics.
+     */
+    public void clear() {
+        Arrays.fill(slots, null);
+        hits.reset();
+        misses.reset();
+    }
+
+    /**
+     * @return the canonical string with the characters of {@code s}
+     */
+    @NotNull
+    String intern(@NotNull CharSequence s) {
+        final int length = s.length();
+        if (length > maxLength)
+            return s.toString();
+        int h = 0;
+        for (int i = 0; i < length; i++)
+            h = 31 * h + s.charAt(i);
+
+        final int bucket = bucket(h);
+        String found = slots[bucket];
+        if (found == null || found.hashCode() != h || !found.contentEquals(s)) {
+            found = slots[bucket + 1];
+            if (found == null || found.hashCode() != h || !found.contentEquals(s))
+                return store(bucket, s.toString());
+        }
+        hits.increment();
+        return found;
+    }
+
+    /**
+     * @param from the index of the first byte, all the bytes up to {@code to} are ASCII
+     * @return the canonical string with the characters of the bytes
+     */
+    @NotNull
+    String intern(@NotNull ByteBuffer in, int from, int to) {
+        final int length = to - from;
+        if (length <= maxLength) {
+            int h = 0;
+            for (int i = from; i < to; i++)
+                h = 31 * h + in.get(i);
+
+            final int bucket = bucket(h);
+            String found = slots[bucket];
+            if (found == null || found.hashCode() != h || !equals(found, in, from, length)) {
+                found = slots[bucket + 1];
+                if (found == null || found.hashCode() != h || !equals(found, in, from, length))
+                    return store(bucket, ascii(in, from, length));
+            }
+            hits.increment();
+            return found;
+        }
+        return ascii(in, from, length);
+    }
+
+    private int bucket(int h) {
+        return (h ^ h >>> 16) << 1 & mask;
+    }
+
+    @NotNull
+    private String store(int bucket, @NotNull String s) {
+        misses.increment();
+        slots[bucket + 1] = slots[bucket];
+        slots[bucket] = s;
+        return s;
+    }
+
+    private static boolean equals(@NotNull String s, @NotNull ByteBuffer in, int from, int length) {
+        if (s.length() != length)
+            return false;
+        for (int i = 0; i < length; i++) {
+            if (s.charAt(i) != in.get(from + i))
+                return false;
+        }
+        return true;
+    }
+
+    @NotNull
+    private static String ascii(@NotNull ByteBuffer in, int from, int length) {
+        if (in.hasArray())
+            return new String(in.array(), in.arrayOffset() + from, length, StandardCharsets.ISO_8859_1);
+        byte[] bytes = new byte[length];
+        in.get(from, bytes);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,242 @@
+package org.json.simple.parser;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Structural index of a UTF-8 encoded JSON document. It is built in one pass that only delimits tokens, and values
+ * are decoded from the input buffer when they are accessed through {@link LazyJSONObject} and {@link LazyJSONArray}.
+ * <p>
+ * Every word of the tape holds a type in its high half and a payload in its low half:
+ * <ul>
+ * <li>{@link #OBJECT_START}, {@link #ARRAY_START}: the tape index of the matching end word;</li>
+ * <li>{@link #OBJECT_END}, {@link #ARRAY_END}: the number of entries or elements;</li>
+ * <li>{@link #PRIMITIVE}: the buffer index of the token text, for object keys as well as for values.</li>
+ * </ul>
+ * Object entries are a key word followed by the value, so the entries of a container are found by skipping from
+ * the end of each value to the next word.
+ *
+ * @author l_MrBoom_l<admin@epserv.ru>
+ * @see JSONParser#parseLazy(ByteBuffer)
+ */
+final class Tape {
+    static final int OBJECT_START = 1;
+    static final int OBJECT_END = 2;
+    static final int ARRAY_START = 3;
+    static final int ARRAY_END = 4;
+    static final int PRIMITIVE = 5;
+
+    @NotNull
+    private final ByteBuffer buf;
+    private final long @NotNull [] words;
+    /**
+     * scanner used to decode values, created on first use
+     */
+    @Nullable
+    private Utf8Lexer decoder;
+    @NotNull
+    private final NumberMode numberMode;
+
+    private Tape(@NotNull ByteBuffer buf, long @NotNull [] words, @NotNull NumberMode numberMode) {
+        this.buf = buf;
+        this.words = words;
+        this.numberMode = numberMode;
+    }
+
+    /**
+     * Build the tape of the input of a scanner. It accepts the same grammar as {@link JSONParser}.
+     *
+     * @param scanner the scanner, reset to the input buffer
+     * @param in the input buffer, it must not be modified as long as the tape is used
+     * @param numberMode the number conversion of the decoded values
+     * @throws ParseException if the input is not valid JSON text
+     */
+    @NotNull
+    static Tape build(@NotNull Utf8Lexer scanner, @NotNull ByteBuffer in, @NotNull NumberMode numberMode)
+            throws ParseException {
+        long[] words = new long[Math.max(16, in.remaining() >> 5)];
+        int size = 0;
+        // tape indexes of the start words of the open containers
+        int[] open = new int[16];
+        int depth = 0;
+        int status = JSONParser.S_INIT;
+
+        while (true) {
+            int type = scanner.skipToken();
+            if (words.length - size < 1)
+                words = Arrays.copyOf(words, size << 1);
+
+            switch (status) {
+                case JSONParser.S_INIT, JSONParser.S_PASSED_PAIR_KEY, JSONParser.S_IN_ARRAY -> {
+                    if (status == JSONParser.S_PASSED_PAIR_KEY && type == Yytoken.TYPE_COLON
+                            || status == JSONParser.S_IN_ARRAY && type == Yytoken.TYPE_COMMA)
+                        continue;
+                    if (status == JSONParser.S_IN_ARRAY && type == Yytoken.TYPE_RIGHT_SQUARE) {
+                        int start = open[--depth];
+                        words[start] = word(ARRAY_START, size);
+                        words[size] = word(ARRAY_END, count(words, start, size));
+                        size++;
+                        status = depth == 0 ? JSONParser.S_IN_FINISHED_VALUE : containerStatus(words, open[depth - 1]);
+                        continue;
+                    }
+
+                    int next = depth == 0 ? JSONParser.S_IN_FINISHED_VALUE : containerStatus(words, open[depth - 1]);
+                    switch (type) {
+                        case Yytoken.TYPE_VALUE -> {
+                            words[size++] = word(PRIMITIVE, scanner.getTextStart());
+                            status = next;
+                        }
+                        case Yytoken.TYPE_LEFT_BRACE, Yytoken.TYPE_LEFT_SQUARE -> {
+                            if (depth == open.length)
+                                open = Arrays.copyOf(open, depth << 1);
+                            open[depth++] = size;
+                            boolean object = type == Yytoken.TYPE_LEFT_BRACE;
+                            words[size++] = word(object ? OBJECT_START : ARRAY_START, 0);
+                            status = object ? JSONParser.S_IN_OBJECT : JSONParser.S_IN_ARRAY;
+                        }
+                        default -> throw unexpectedToken(scanner, type);
+                    }
+                }
+
+                case JSONParser.S_IN_FINISHED_VALUE -> {
+                    if (type != Yytoken.TYPE_EOF)
+                        throw unexpectedToken(scanner, type);
+                    return new Tape(in, words, numberMode);
+                }
+
+                case JSONParser.S_IN_OBJECT -> {
+                    switch (type) {
+                        case Yytoken.TYPE_COMMA -> {
+                        }
+                        case Yytoken.TYPE_VALUE -> {
+                            if (in.get(scanner.getTextStart()) != '"')
+                                throw unexpectedToken(scanner, type);
+                            words[size++] = word(PRIMITIVE, scanner.getTextStart());
+                            status = JSONParser.S_PASSED_PAIR_KEY;
+                        }
+                        case Yytoken.TYPE_RIGHT_BRACE -> {
+                            int start = open[--depth];
+                            words[start] = word(OBJECT_START, size);
+                            words[size] = word(OBJECT_END, count(words, start, size) >> 1);
+                            size++;
+                            status = depth == 0 ? JSONParser.S_IN_FINISHED_VALUE : containerStatus(words, open[depth - 1]);
+                        }
+                        default -> throw unexpectedToken(scanner, type);
+                    }
+                }
+
+                default -> throw unexpectedToken(scanner, type);
+            }
+        }
+    }
+
+    /**
+     * @return the status to return to after a value inside the container
+     */
+    private static int containerStatus(long @NotNull [] words, int start) {
+        return type(words[start]) == OBJECT_START ? JSONParser.S_IN_OBJECT : JSONParser.S_IN_ARRAY;
+    }
+
+    /**
+     * @return the number of words directly inside the container, keys included
+     */
+    private static int count(long @NotNull [] words, int start, int end) {
+        int count = 0;
+        for (int i = start + 1; i < end; i = next(words, i))
+            count++;
+        return count;
+    }
+
+    @NotNull
+    private static ParseException unexpectedToken(@NotNull Utf8Lexer scanner, int type) throws ParseException {
+        int position = scanner.getPosition();
+        Object value = null;
+        if (type == Yytoken.TYPE_VALUE) {
+            // the scanner did not decode the value, do it now for the error report
+            scanner.seek(scanner.getTextStart());
+            scanner.nextToken();
+            value = scanner.getValue();
+        }
+        return new ParseException(position, ParseException.ERROR_UNEXPECTED_TOKEN, new Yytoken(type, value));
+    }
+
+    private static long word(int type, int payload) {
+        return (long) type << 32 | payload & 0xFFFFFFFFL;
+    }
+
+    private static int type(long word) {
+        return (int) (word >>> 32);
+    }
+
+    private static int next(long @NotNull [] words, int index) {
+        long word = words[index];
+        int type = type(word);
+        return type == OBJECT_START || type == ARRAY_START ? (int) word + 1 : index + 1;
+    }
+
+    int type(int index) {
+        return type(words[index]);
+    }
+
+    int payload(int index) {
+        return (int) words[index];
+    }
+
+    /**
+     * @return the tape index of the value following the value at {@code index}
+     */
+    int next(int index) {
+        return next(words, index);
+    }
+
+    /**
+     * @return the value at the tape index, containers are returned as lazy views
+     */
+    @Nullable
+    Object value(int index) {
+        return switch (type(index)) {
+            case OBJECT_START -> new LazyJSONObject(this, index);
+            case ARRAY_START -> new LazyJSONArray(this, index);
+            default -> decode(payload(index));
+        };
+    }
+
+    @Nullable
+    private Object decode(int textStart) {
+        Utf8Lexer d = decoder;
+        if (d == null) {
+            decoder = d = new Utf8Lexer();
+            d.reset(buf);
+            d.setNumberMode(numberMode);
+        }
+        d.seek(textStart);
+        try {
+            d.nextToken();
+        } catch (ParseException e) {
+            // This should never happen, the token was validated when the tape was built
+            throw new RuntimeException(e);
+        }
+        return d.getValue();
+    }
+
+    /**
+     * Compare the key at a tape index with a string, without decoding the key if it has no escape sequences and is
+     * ASCII only.
+     */
+    boolean keyEquals(int index, @NotNull String key) {
+        final ByteBuffer b = buf;
+        final int len = key.length();
+        int p = payload(index) + 1;
+        for (int i = 0; i < len; i++, p++) {
+            int c = b.get(p);
+            if (c == '\\' || c < 0)
+                return key.equals(decode(payload(index)));
+            if (c != key.charAt(i) || c == '"')
+                return false;
+        }
+        return b.get(p) == '"';
+    }
+}
@@ -0,0 +1,711 @@
+package org.json.simple.parser;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Scanner for UTF-8 encoded JSON text. It recognizes the same tokens as {@link Yylex}, but reads the bytes of a
+ * {@link ByteBuffer} (heap or direct) directly, so there is no charset decoding pass and no intermediate char buffer.
+ * Positions are byte offsets relative to the buffer position at {@link #reset(ByteBuffer)}.
+ * <p>
+ * Malformed UTF-8 sequences inside strings are decoded as U+FFFD, like the default charset decoder does.
+ *
+ * @author l_MrBoom_l<admin@epserv.ru>
+ */
+final class Utf8Lexer implements Lexer {
+    private static final char REPLACEMENT_CHAR = '\uFFFD';
+    /*
+     * Strings are scanned 8 bytes at a time: a long read from the buffer is compared with all of these patterns at
+     * once, see plainRun(int, boolean).
+     */
+    private static final long ONES = 0x0101010101010101L;
+    private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long QUOTES = ONES * '"';
+    private static final long BACKSLASHES = ONES * '\\';
+    /**
+     * a token that fails to scan this close to the end of a mapped window is scanned again in the next window
+     */
+    private static final int WINDOW_MARGIN = 4096;
+    /**
+     * the longest token that fails to scan because it is cut by the limit of partial input, a literal
+     */
+    private static final int PARTIAL_MARGIN = 5;
+    /**
+     * token type returned for partial input when the next token may continue after the limit
+     */
+    static final int TYPE_NEED_MORE_INPUT = -2;
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    @NotNull
+    private ByteBuffer buf = EMPTY;
+    /**
+     * the buffer index of the first byte of input
+     */
+    private int base;
+    /**
+     * the current read index
+     */
+    private int pos;
+    /**
+     * the index after the last byte of input
+     */
+    private int limit;
+    private boolean bigEndian;
+    /**
+     * whether a right square bracket is returned once at the end of input, see {@link #closeArrayAtEnd()}
+     */
+    private boolean closeArray;
+    /**
+     * whether more input may follow the limit, see {@link #scanPartial(boolean)}
+     */
+    private boolean partial;
+    /**
+     * the mapped file being read, or null if the whole input is in the buffer
+     */
+    @Nullable
+    private MappedInput input;
+    /**
+     * the input offset of the buffer index {@code base}, non-zero only for mapped windows
+     */
+    private long offset;
+    private byte @NotNull [] scratch = new byte[0];
+    /**
+     * the buffer index of the beginning of the current token
+     */
+    private int tokenStart;
+    /**
+     * the buffer index of the first byte of the current token text, the opening quote for strings
+     */
+    private int textStart;
+    private final StringBuilder sb = new StringBuilder();
+    @Nullable
+    private Object value;
+    @NotNull
+    private NumberMode numberMode = NumberMode.DEFAULT;
+    @Nullable
+    private SymbolTable symbols;
+    private int maxStringLength = Integer.MAX_VALUE;
+    private int maxNumberLength = Integer.MAX_VALUE;
+
+    /**
+     * Resets the scanner to read the bytes between the position and the limit of a new buffer.
+     * The position of the buffer is not modified.
+     *
+     * @param in the new input buffer
+     */
+    void reset(@NotNull ByteBuffer in) {
+        reset(in, in.position(), in.limit());
+    }
+
+    /**
+     * Resets the scanner to read a range of a new buffer. The position and the limit of the buffer are neither read
+     * nor modified, so several scanners can read different ranges of the same buffer concurrently.
+     *
+     * @param in the new input buffer
+     * @param from the buffer index of the first byte of input
+     * @param to the buffer index after the last byte of input
+     */
+    void reset(@NotNull ByteBuffer in, int from, int to) {
+        buf = in;
+        base = pos = tokenStart = from;
+        limit = to;
+        bigEndian = in.order() == ByteOrder.BIG_ENDIAN;
+        closeArray = false;
+        symbols = null;
+        input = null;
+        offset = 0;
+        partial = false;
+    }
+
+    /**
+     * Drops the input, and the buffers that grew larger than a capacity, so that an idle scanner holds no large
+     * memory.
+     *
+     * @param maxCapacity the largest capacity of a buffer that is kept
+     */
+    void trim(int maxCapacity) {
+        reset(EMPTY);
+        value = null;
+        if (scratch.length > maxCapacity)
+            scratch = new byte[0];
+        if (sb.capacity() > maxCapacity) {
+            sb.setLength(0);
+            sb.trimToSize();
+        }
+    }
+
+    /**
+     * Resets the scanner to read a range of a buffer that more input may follow, see {@link #scanPartial(boolean)}.
+     *
+     * @param offset the input offset of the first byte of the range, for the positions of tokens
+     * @param partial whether more input may follow the range
+     */
+    void reset(@NotNull ByteBuffer in, int from, int to, long offset, boolean partial) {
+        reset(in, from, to);
+        this.offset = offset;
+        this.partial = partial;
+    }
+
+    /**
+     * Resets the scanner to read a memory-mapped file, window by window.
+     *
+     * @param in the new input file
+     */
+    void reset(@NotNull MappedInput in) {
+        reset(in.map(in.start(), in.windowSize()));
+        input = in;
+    }
+
+    /**
+     * Maps the next window of the input file, starting at a buffer index of the current window. If it is the index of
+     * the beginning of the window, a token does not fit in the window and the new one is twice as large.
+     *
+     * @return false if there is no input file or the current window already reaches the end of the file
+     */
+    private boolean remap(int index) {
+        final MappedInput in = input;
+        if (in == null || in.start() + offset + limit - base >= in.end())
+            return false;
+        long next = offset + index - base;
+        int size = index == base ? (int) Math.min(2L * (limit - base), Integer.MAX_VALUE) : in.windowSize();
+        reset(in.map(in.start() + next, size));
+        input = in;
+        offset = next;
+        return true;
+    }
+
+    /**
+     * @return the offset of a buffer index from the beginning of the input, saturated to Integer.MAX_VALUE
+     */
+    private int position(int index) {
+        return (int) Math.min(offset + index - base, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int getPosition() {
+        return position(tokenStart);
+    }
+
+    @Override
+    @Nullable
+    public Object getValue() {
+        return value;
+    }
+
+    @Override
+    public void setNumberMode(@NotNull NumberMode numberMode) {
+        this.numberMode = numberMode;
+    }
+
+    @Override
+    public void setSymbols(@Nullable SymbolTable symbols) {
+        this.symbols = symbols;
+    }
+
+    @Override
+    public void setLimits(@NotNull ParserLimits limits) {
+        maxStringLength = limits.getMaxStringLength();
+        maxNumberLength = limits.getMaxNumberLength();
+    }
+
+    /**
+     * Returns a {@link Yytoken#TYPE_RIGHT_SQUARE} token at the end of input, before {@link Yytoken#TYPE_EOF}, so that
+     * the elements of an array can be parsed from a range that only contains some of them.
+     */
+    void closeArrayAtEnd() {
+        closeArray = true;
+    }
+
+    /**
+     * @return the buffer index of the first byte of the current token text, the opening quote for strings
+     */
+    int getTextStart() {
+        return textStart;
+    }
+
+    /**
+     * @return the buffer index the next token is read from
+     */
+    int getReadIndex() {
+        return pos;
+    }
+
+    /**
+     * Moves the scanner to a buffer index, the next token is read from there.
+     *
+     * @param index the buffer index, between the position and the limit of the input buffer
+     */
+    void seek(int index) {
+        pos = index;
+    }
+
+    @Override
+    public int nextToken() throws ParseException {
+        return scanToken(true);
+    }
+
+    /**
+     * Scans the next token like {@link #nextToken()}, but strings and numbers are only delimited, not decoded:
+     * {@link #getValue()} is an empty string for strings and null for numbers. Numbers that may be out of range are
+     * still converted, so that they are reported here.
+     *
+     * @return the type of the token
+     */
+    @Override
+    public int skipToken() throws ParseException {
+        return scanToken(false);
+    }
+
+    private int scanToken(boolean decode) throws ParseException {
+        if (input == null)
+            return partial ? scanPartial(decode) : scanWindow(decode);
+
+        while (true) {
+            int type;
+            try {
+                type = scanWindow(decode);
+            } catch (ParseException e) {
+                // a literal or a number cut by the end of the window is not an error yet
+                if (limit - textStart >= WINDOW_MARGIN || !remap(textStart))
+                    throw e;
+                continue;
+            }
+            // a token that reaches the end of the window may continue in the next one; a number may also stop before
+            // it, because its lookahead for the fraction and the exponent reads up to 3 bytes
+            if (limit - pos > 2 || !remap(textStart))
+                return type;
+        }
+    }
+
+    /**
+     * Scans a token of input that more bytes may follow. A token that may continue after the limit is not returned
+     * yet, it is scanned again from its start once the input is reset with more bytes.
+     *
+     * @return the type of the token, or {@link #TYPE_NEED_MORE_INPUT}
+     */
+    private int scanPartial(boolean decode) throws ParseException {
+        int type;
+        try {
+            type = scanWindow(decode);
+        } catch (ParseException e) {
+            // a literal or a number cut by the limit is not an error yet, a long number may be out of range only so far
+            if (limit - textStart >= PARTIAL_MARGIN && !isNumberCut())
+                throw e;
+            pos = textStart;
+            return TYPE_NEED_MORE_INPUT;
+        }
+        // the end of input is whitespace or an unterminated string; a number may also stop before the limit, because
+        // its lookahead for the fraction and the exponent reads up to 3 bytes
+        if (type == Yytoken.TYPE_EOF || type == Yytoken.TYPE_VALUE && isNumberCut()) {
+            pos = textStart;
+            return TYPE_NEED_MORE_INPUT;
+        }
+        return type;
+    }
+
+    /**
+     * @return whether the current token is a number that may continue after the limit
+     */
+    private boolean isNumberCut() {
+        int c = buf.get(textStart);
+        if (limit - pos > 2 || c != '-' && (c < '0' || c > '9'))
+            return false;
+        if (pos == limit)
+            return true;
+        c = buf.get(pos);
+        return c == '.' || c == 'e' || c == 'E';
+    }
+
+    private int scanWindow(boolean decode) throws ParseException {
+        final ByteBuffer b = buf;
+        final int lim = limit;
+        int p = pos;
+
+        while (p < lim) {
+            int c = b.get(p);
+            if (c == ' ' || c == '\t' || c == '\n' || c == '\r') {
+                p++;
+                continue;
+            }
+
+            tokenStart = textStart = p;
+            value = null;
+            switch (c) {
+                case '{':
+                    pos = p + 1;
+                    return Yytoken.TYPE_LEFT_BRACE;
+                case '}':
+                    pos = p + 1;
+                    return Yytoken.TYPE_RIGHT_BRACE;
+                case '[':
+                    pos = p + 1;
+                    return Yytoken.TYPE_LEFT_SQUARE;
+                case ']':
+                    pos = p + 1;
+                    return Yytoken.TYPE_RIGHT_SQUARE;
+                case ',':
+                    pos = p + 1;
+                    return Yytoken.TYPE_COMMA;
+                case ':':
+                    pos = p + 1;
+                    return Yytoken.TYPE_COLON;
+                case '"':
+                    if (!decode) {
+                        if (!skipString(p + 1))
+                            return Yytoken.TYPE_EOF;
+                        value = "";
+                        return Yytoken.TYPE_VALUE;
+                    }
+                    value = scanString(p + 1);
+                    return value == null ? Yytoken.TYPE_EOF : Yytoken.TYPE_VALUE;
+                case 't':
+                    scanLiteral(p, "true");
+                    value = Boolean.TRUE;
+                    return Yytoken.TYPE_VALUE;
+                case 'f':
+                    scanLiteral(p, "false");
+                    value = Boolean.FALSE;
+                    return Yytoken.TYPE_VALUE;
+                case 'n':
+                    scanLiteral(p, "null");
+                    return Yytoken.TYPE_VALUE;
+                default:
+                    if (c == '-' || c >= '0' && c <= '9') {
+                        int end = numberEnd(p);
+                        if (end - p > maxNumberLength)
+                            throw ParserLimits.exceeded(position(p), "number length", maxNumberLength);
+                        pos = end;
+                        // only 19 digits or more can be out of the long range
+                        value = decode || end - p > 19 ? convertNumber(p, end) : null;
+                        return Yytoken.TYPE_VALUE;
+                    }
+                    throw unexpectedChar(p);
+            }
+        }
+
+        pos = tokenStart = textStart = lim;
+        value = null;
+        if (closeArray) {
+            closeArray = false;
+            return Yytoken.TYPE_RIGHT_SQUARE;
+        }
+        return Yytoken.TYPE_EOF;
+    }
+
+    private void scanLiteral(int p, @NotNull String literal) throws ParseException {
+        final int len = literal.length();
+        if (limit - p < len)
+            throw unexpectedChar(p);
+        for (int i = 1; i < len; i++) {
+            if (buf.get(p + i) != literal.charAt(i))
+                throw unexpectedChar(p);
+        }
+        pos = p + len;
+    }
+
+    /**
+     * Delimits a number with the same grammar as the INT and DOUBLE macros of the JFlex specification:
+     * the longest prefix matching {@code -?[0-9]+(\.[0-9]+)?([eE][-+]?[0-9]+)?}.
+     *
+     * @return the index after the number
+     */
+    private int numberEnd(int p) throws ParseException {
+        final ByteBuffer b = buf;
+        final int lim = limit;
+        final int start = p;
+
+        if (b.get(p) == '-')
+            p++;
+        int digits = p;
+        while (p < lim && isDigit(b.get(p)))
+            p++;
+        if (p == digits)
+            throw unexpectedChar(start);
+
+        if (p + 1 < lim && b.get(p) == '.' && isDigit(b.get(p + 1))) {
+            p += 2;
+            while (p < lim && isDigit(b.get(p)))
+                p++;
+        }
+        if (p + 1 < lim && (b.get(p) == 'e' || b.get(p) == 'E')) {
+            int q = p + 1;
+            if (b.get(q) == '-' || b.get(q) == '+')
+                q++;
+            if (q < lim && isDigit(b.get(q))) {
+                p = q + 1;
+                while (p < lim && isDigit(b.get(p)))
+                    p++;
+            }
+        }
+
+        return p;
+    }
+
+    @NotNull
+    private Number convertNumber(int start, int end) throws ParseException {
+        try {
+            return NumberScanner.scan(buf, start, end, numberMode);
+        } catch (NumberFormatException ex) {
+            throw new ParseException(position(start), ParseException.ERROR_UNEXPECTED_EXCEPTION, ex);
+        }
+    }
+
+    /**
+     * Scans the body of a string starting right after the opening quote.
+     *
+     * @return the decoded string, or null if the input ends before the closing quote
+     */
+    @Nullable
+    private String scanString(int p) throws ParseException {
+        final ByteBuffer b = buf;
+        final int lim = limit;
+        final StringBuilder sb = this.sb;
+
+        // most strings have no escapes and are ASCII only, they are copied at once
+        int run = plainRun(p, true);
+        if (run - p > maxStringLength)
+            throw ParserLimits.exceeded(position(textStart), "string length", maxStringLength);
+        if (run < lim && b.get(run) == '"') {
+            tokenStart = run;
+            pos = run + 1;
+            return symbols == null ? ascii(p, run) : symbols.intern(b, p, run);
+        }
+
+        p = decodeString(p);
+        if (p < lim) {
+            // Yylex matches a string piecewise, so its position is the one of the closing quote
+            tokenStart = p;
+            pos = p + 1;
+            return symbols == null ? sb.toString() : symbols.intern(sb);
+        }
+
+        // unterminated string, like Yylex, report the end of input
+        pos = tokenStart = lim;
+        return null;
+    }
+
+    /**
+     * Decodes the body of a string into the builder, checking its length against the limit.
+     *
+     * @return the index of the closing quote, or the limit if there is none
+     */
+    private int decodeString(int p) throws ParseException {
+        final ByteBuffer b = buf;
+        final int lim = limit;
+        final StringBuilder sb = this.sb;
+
+        sb.setLength(0);
+        while (p < lim) {
+            int c = b.get(p);
+            if (c == '"')
+                return p;
+            if (c == '\\') {
+                p = scanEscape(p);
+            } else if (c >= 0) {
+                for (int run = plainRun(p + 1, true); p < run; p++)
+                    sb.append((char) b.get(p));
+            } else {
+                p = decodeMultiByte(p, sb);
+            }
+            if (sb.length() > maxStringLength)
+                throw ParserLimits.exceeded(position(textStart), "string length", maxStringLength);
+        }
+        return lim;
+    }
+
+    /**
+     * Finds the end of a string starting right after the opening quote, without decoding it. Only a string with more
+     * bytes than the limit on its length is decoded, to count its chars like {@link #scanString(int)} does.
+     *
+     * @return false if the input ends before the closing quote
+     */
+    private boolean skipString(int p) throws ParseException {
+        final ByteBuffer b = buf;
+        final int lim = limit;
+        final int start = p;
+
+        while ((p = plainRun(p, false)) < lim) {
+            int c = b.get(p);
+            if (c == '"') {
+                if (p - start > maxStringLength)
+                    decodeString(start);
+                tokenStart = p;
+                pos = p + 1;
+                return true;
+            }
+            // every escape sequence is at least two bytes long, and none of them has a quote after the second byte
+            p += c == '\\' ? 2 : 1;
+        }
+
+        pos = tokenStart = lim;
+        return false;
+    }
+
+    /**
+     * Finds the end of a run of bytes that need no decoding in a string.
+     *
+     * @param p the index to start from
+     * @param stopAtNonAscii whether bytes of multi-byte sequences end the run
+     * @return the index of the first quote, backslash or, if requested, non-ASCII byte at or after {@code p}, or the
+     * limit if there is none
+     */
+    private int plainRun(int p, boolean stopAtNonAscii) {
+        final ByteBuffer b = buf;
+        final int lim = limit;
+        final long nonAscii = stopAtNonAscii ? HIGH_BITS : 0;
+
+        for (; p + Long.BYTES <= lim; p += Long.BYTES) {
+            long word = b.getLong(p);
+            long found = zeroBytes(word ^ QUOTES) | zeroBytes(word ^ BACKSLASHES) | word & nonAscii;
+            if (found != 0)
+                return p + (bigEndian ? Long.numberOfLeadingZeros(found) : Long.numberOfTrailingZeros(found)) / Byte.SIZE;
+        }
+        for (; p < lim; p++) {
+            int c = b.get(p);
+            if (c == '"' || c == '\\' || c < 0 && stopAtNonAscii)
+                return p;
+        }
+        return lim;
+    }
+
+    /**
+     * @return the high bit of every zero byte of the word. Unlike the usual {@code (x - ONES) & ~x} trick, there is
+     * no borrow between bytes, so the result is exact in both byte orders.
+     */
+    private static long zeroBytes(long word) {
+        return ~((word & LOW_BITS) + LOW_BITS | word | LOW_BITS);
+    }
+
+    /**
+     * @return the ASCII bytes between two indexes as a string
+     */
+    @NotNull
+    private String ascii(int from, int to) {
+        final ByteBuffer b = buf;
+        final int len = to - from;
+        if (b.hasArray())
+            return new String(b.array(), b.arrayOffset() + from, len, StandardCharsets.ISO_8859_1);
+        if (scratch.length < len)
+            scratch = new byte[Math.max(len, scratch.length << 1)];
+        b.get(from, scratch, 0, len);
+        return new String(scratch, 0, len, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Appends the escape sequence at {@code p} to the string builder. Unknown escapes keep the backslash.
+     *
+     * @return the index after the escape sequence
+     */
+    private int scanEscape(int p) {
+        final StringBuilder sb = this.sb;
+        if (p + 1 >= limit) {
+            sb.append('\\');
+            return p + 1;
+        }
+        switch (buf.get(p + 1)) {
+            case '"' -> sb.append('"');
+            case '\\' -> sb.append('\\');
+            case '/' -> sb.append('/');
+            case 'b' -> sb.append('\b');
+            case 'f' -> sb.append('\f');
+            case 'n' -> sb.append('\n');
+            case 'r' -> sb.append('\r');
+            case 't' -> sb.append('\t');
+            case 'u' -> {
+                int ch = p + 6 <= limit ? hex4(p + 2) : -1;
+                if (ch < 0) {
+                    sb.append('\\');
+                    return p + 1;
+                }
+                sb.append((char) ch);
+                return p + 6;
+            }
+            default -> {
+                sb.append('\\');
+                return p + 1;
+            }
+        }
+        return p + 2;
+    }
+
+    private int hex4(int p) {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(buf.get(p + i), 16);
+            if (digit < 0)
+                return -1;
+            value = value << 4 | digit;
+        }
+        return value;
+    }
+
+    /**
+     * Decodes the multi-byte UTF-8 sequence at {@code p} into the string builder.
+     *
+     * @return the index after the sequence
+     */
+    private int decodeMultiByte(int p, @NotNull StringBuilder sb) {
+        final ByteBuffer b = buf;
+        final int lead = b.get(p) & 0xFF;
+        final int length;
+        int cp;
+        if (lead >= 0xC2 && lead <= 0xDF) {
+            length = 2;
+            cp = lead & 0x1F;
+        } else if (lead >= 0xE0 && lead <= 0xEF) {
+            length = 3;
+            cp = lead & 0x0F;
+        } else if (lead >= 0xF0 && lead <= 0xF4) {
+            length = 4;
+            cp = lead & 0x07;
+        } else {
+            sb.append(REPLACEMENT_CHAR);
+            return p + 1;
+        }
+
+        if (p + length > limit) {
+            sb.append(REPLACEMENT_CHAR);
+            return p + 1;
+        }
+        for (int i = 1; i < length; i++) {
+            int cont = b.get(p + i);
+            if ((cont & 0xC0) != 0x80) {
+                sb.append(REPLACEMENT_CHAR);
+                return p + 1;
+            }
+            cp = cp << 6 | cont & 0x3F;
+        }
+
+        // reject overlong encodings, surrogates and code points above U+10FFFF
+        if (length == 3 && (cp < 0x800 || cp >= Character.MIN_SURROGATE && cp <= Character.MAX_SURROGATE)
+                || length == 4 && (cp < 0x10000 || cp > Character.MAX_CODE_POINT)) {
+            sb.append(REPLACEMENT_CHAR);
+            return p + 1;
+        }
+        sb.appendCodePoint(cp);
+        return p + length;
+    }
+
+    @NotNull
+    private ParseException unexpectedChar(int p) {
+        int c = buf.get(p);
+        char ch;
+        if (c >= 0) {
+            ch = (char) c;
+        } else {
+            sb.setLength(0);
+            decodeMultiByte(p, sb);
+            ch = sb.charAt(0);
+        }
+        return new ParseException(position(p), ParseException.ERROR_UNEXPECTED_CHAR, ch);
+    }
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -2,11 +2,13 @@
 
 package org.json.simple.parser;
 
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.Reader;
+import java.nio.CharBuffer;
 
-class Yylex {
+class Yylex implements Lexer {
 
     /**
      * This character denotes the end of file
@@ -167,7 +169,11 @@ class Yylex {
      * this buffer contains the current text to be matched and is
      * the source of the yytext() string
      */
-    private char[] zzBuffer = new char[ZZ_BUFFERSIZE];
+    private char[] zzBuffer;
+    /**
+     * the buffer of reader input, allocated on first use, or the copy of a short character sequence
+     */
+    private char[] readerBuffer;
     /**
      * the text position at the last accepting state
      */
@@ -194,7 +200,20 @@ class Yylex {
      */
     private boolean zzAtEOF;
     /* user code: */
-    private StringBuffer sb = new StringBuffer();
+    private final StringBuilder sb = new StringBuilder();
+    @Nullable
+    private Object value;
+    @NotNull
+    private NumberMode numberMode = NumberMode.DEFAULT;
+    @Nullable
+    private SymbolTable symbols;
+    /**
+     * whether the current token is skipped, its characters are matched but not collected
+     */
+    private boolean skipping;
+    private int maxStringLength = Integer.MAX_VALUE;
+    private int maxNumberLength = Integer.MAX_VALUE;
+    private long maxDocumentSize = Long.MAX_VALUE;
 
     /**
      * Creates a new scanner
@@ -203,7 +222,7 @@ class Yylex {
      * @param in the java.io.Reader to read input from.
      */
     Yylex(Reader in) {
-        this.zzReader = in;
+        yyreset(in);
     }
 
     private static int[] zzUnpackAction() {
@@ -253,17 +272,165 @@ class Yylex {
         return map;
     }
 
-    int getPosition() {
+    public int getPosition() {
         return yychar;
     }
 
+    @Nullable
+    public Object getValue() {
+        return value;
+    }
+
+    public void setNumberMode(@NotNull NumberMode numberMode) {
+        this.numberMode = numberMode;
+    }
+
+    public void setSymbols(@Nullable SymbolTable symbols) {
+        this.symbols = symbols;
+    }
+
+    public void setLimits(@NotNull ParserLimits limits) {
+        maxStringLength = limits.getMaxStringLength();
+        maxNumberLength = limits.getMaxNumberLength();
+        maxDocumentSize = limits.getMaxDocumentSize();
+    }
+
+    private void append(char c) throws ParseException {
+        sb.append(c);
+        if (sb.length() > maxStringLength)
+            throw ParserLimits.exceeded(yychar, "string length", maxStringLength);
+    }
+
+    private void append(char @NotNull [] chars, int offset, int length) throws ParseException {
+        if (sb.length() + length > maxStringLength)
+            throw ParserLimits.exceeded(yychar, "string length", maxStringLength);
+        sb.append(chars, offset, length);
+    }
+
+    /**
+     * Scans the next token like {@link #nextToken()}, but the characters of strings are not collected and escapes are
+     * not decoded, {@link #getValue()} is an empty string for strings and null for numbers. Numbers that may be out of
+     * range are still converted, so that they are reported here.
+     *
+     * @return the type of the token
+     */
+    @Override
+    public int skipToken() throws java.io.IOException, ParseException {
+        skipping = true;
+        try {
+            return nextToken();
+        } finally {
+            skipping = false;
+        }
+    }
+
+    /**
+     * Drops the input, and the buffers that grew larger than a capacity, so that an idle scanner holds no large
+     * memory.
+     *
+     * @param maxCapacity the largest capacity of a buffer that is kept
+     */
+    void trim(int maxCapacity) {
+        yyreset((Reader) null);
+        value = null;
+        if (readerBuffer != null && readerBuffer.length > maxCapacity)
+            zzBuffer = readerBuffer = null;
+        if (sb.capacity() > maxCapacity) {
+            sb.setLength(0);
+            sb.trimToSize();
+        }
+    }
+
+    /**
+     * Resets the scanner to read characters directly from an array, which is neither copied nor modified.
+     * Positions are relative to the offset.
+     */
+    public void yyreset(char @NotNull [] chars, int offset, int length) {
+        zzReader = null;
+        zzBuffer = chars;
+        zzAtEOF = false;
+        zzStartRead = zzCurrentPos = zzMarkedPos = offset;
+        zzEndRead = offset + length;
+        yychar = 0;
+        zzLexicalState = YYINITIAL;
+    }
+
+    /**
+     * Resets the scanner to read a character sequence. The characters of a {@link CharBuffer} with an accessible array
+     * are read in place, other sequences are copied once into an array of their length, without a reader, which is
+     * kept for the next sequence unless it is large.
+     */
+    public void yyreset(@NotNull CharSequence s) {
+        final int length = s.length();
+        if (s instanceof CharBuffer cb && cb.hasArray()) {
+            yyreset(cb.array(), cb.arrayOffset() + cb.position(), length);
+            return;
+        }
+        char[] chars = readerBuffer;
+        if (chars == null || chars.length < length) {
+            chars = new char[length];
+            // a large text does not hold on to a large buffer
+            if (length <= ZZ_BUFFERSIZE)
+                readerBuffer = chars;
+        }
+        if (s instanceof String str)
+            str.getChars(0, length, chars, 0);
+        else if (s instanceof StringBuilder builder)
+            builder.getChars(0, length, chars, 0);
+        else
+            for (int i = 0; i < length; i++)
+                chars[i] = s.charAt(i);
+        yyreset(chars, 0, length);
+    }
+
+    @Nullable
+    private Number skipNumber() throws ParseException {
+        if (zzMarkedPos - zzStartRead > maxNumberLength)
+            throw ParserLimits.exceeded(yychar, "number length", maxNumberLength);
+        // only 19 digits or more can be out of the long range
+        return zzMarkedPos - zzStartRead > 19 ? scanNumber() : null;
+    }
+
+    @NotNull
+    private Number scanNumber() throws ParseException {
+        if (zzMarkedPos - zzStartRead > maxNumberLength)
+            throw ParserLimits.exceeded(yychar, "number length", maxNumberLength);
+        try {
+            return NumberScanner.scan(zzBuffer, zzStartRead, zzMarkedPos, numberMode);
+        } catch (NumberFormatException ex) {
+            throw new ParseException(yychar, ParseException.ERROR_UNEXPECTED_EXCEPTION, ex);
+        }
+    }
+
+    /**
+     * Checks the token the buffer is about to grow for against the limit of its kind, so that the buffer does not grow
+     * for a token that is rejected anyway. A run of whitespace is only limited by the size of the document.
+     */
+    private void checkTokenLength() throws ParseException {
+        final int length = zzCurrentPos - zzStartRead;
+        if (yychar + (long) length > maxDocumentSize)
+            throw ParserLimits.exceeded(yychar, "document size", maxDocumentSize);
+        if (zzLexicalState == STRING_BEGIN) {
+            // a run of unescaped characters, or an escape
+            if (length > maxStringLength)
+                throw ParserLimits.exceeded(yychar, "string length", maxStringLength);
+        } else {
+            char c = zzBuffer[zzStartRead];
+            if ((c == '-' || c >= '0' && c <= '9') && length > maxNumberLength)
+                throw ParserLimits.exceeded(yychar, "number length", maxNumberLength);
+        }
+    }
+
     /**
      * Refills the input buffer.
      *
      * @return <code>false</code>, iff there was new input.
      * @throws java.io.IOException if any I/O-Error occurs
      */
-    private boolean zzRefill() throws java.io.IOException {
+    private boolean zzRefill() throws java.io.IOException, ParseException {
+        /* character input is entirely in the buffer */
+        if (zzReader == null)
+            return true;
 
         /* first: make room (if you can) */
         if (zzStartRead > 0) {
@@ -280,10 +447,11 @@ class Yylex {
 
         /* is the buffer big enough? */
         if (zzCurrentPos >= zzBuffer.length) {
-            /* if not: blow it up */
+            /* if not: blow it up, unless the token exceeds a limit */
+            checkTokenLength();
             char[] newBuffer = new char[zzCurrentPos * 2];
             System.arraycopy(zzBuffer, 0, newBuffer, 0, zzBuffer.length);
-            zzBuffer = newBuffer;
+            zzBuffer = readerBuffer = newBuffer;
         }
 
         /* finally: fill the buffer with new input */
@@ -333,6 +501,9 @@ class Yylex {
      * @param reader the new input stream
      */
     public final void yyreset(Reader reader) {
+        if (reader != null && (readerBuffer == null || readerBuffer.length < ZZ_BUFFERSIZE))
+            readerBuffer = new char[ZZ_BUFFERSIZE];
+        zzBuffer = readerBuffer;
         zzReader = reader;
         zzAtEOF  = false;
         zzEndRead = zzStartRead = 0;
@@ -437,11 +608,11 @@ class Yylex {
      * Resumes scanning until the next regular expression is matched,
      * the end of input is encountered or an I/O-Error occurs.
      *
-     * @return the next token
+     * @return the type of the next token
      * @throws java.io.IOException if any I/O-Error occurs
      */
-    @Nullable
-    public Yytoken yylex() throws java.io.IOException, ParseException {
+    @Override
+    public int nextToken() throws java.io.IOException, ParseException {
         int zzInput;
         int zzAction;
 
@@ -513,72 +684,94 @@ class Yylex {
                 case 1:
                     throw new ParseException(yychar, ParseException.ERROR_UNEXPECTED_CHAR, yycharat(0));
                 case 2:
-                    return new Yytoken(Yytoken.TYPE_VALUE, Long.valueOf(yytext()));
+                    value = skipping ? skipNumber() : scanNumber();
+                    return Yytoken.TYPE_VALUE;
                 case 4:
-                    sb = new StringBuffer();
+                    sb.setLength(0);
                     yybegin(STRING_BEGIN);
                     break;
                 case 5:
-                    return new Yytoken(Yytoken.TYPE_LEFT_BRACE, null);
+                    value = null;
+                    return Yytoken.TYPE_LEFT_BRACE;
                 case 6:
-                    return new Yytoken(Yytoken.TYPE_RIGHT_BRACE, null);
+                    value = null;
+                    return Yytoken.TYPE_RIGHT_BRACE;
                 case 7:
-                    return new Yytoken(Yytoken.TYPE_LEFT_SQUARE, null);
+                    value = null;
+                    return Yytoken.TYPE_LEFT_SQUARE;
                 case 8:
-                    return new Yytoken(Yytoken.TYPE_RIGHT_SQUARE, null);
+                    value = null;
+                    return Yytoken.TYPE_RIGHT_SQUARE;
                 case 9:
-                    return new Yytoken(Yytoken.TYPE_COMMA, null);
+                    value = null;
+                    return Yytoken.TYPE_COMMA;
                 case 10:
-                    return new Yytoken(Yytoken.TYPE_COLON, null);
+                    value = null;
+                    return Yytoken.TYPE_COLON;
                 case 11:
-                    sb.append(yytext());
+                    if (!skipping)
+                        append(zzBuffer, zzStartRead, zzMarkedPos - zzStartRead);
                     break;
                 case 12:
-                    sb.append('\\');
+                    if (!skipping)
+                        append('\\');
                     break;
                 case 13:
                     yybegin(YYINITIAL);
-                    return new Yytoken(Yytoken.TYPE_VALUE, sb.toString());
+                    value = skipping ? "" : symbols == null ? sb.toString() : symbols.intern(sb);
+                    return Yytoken.TYPE_VALUE;
                 case 14:
-                    sb.append('"');
+                    if (!skipping)
+                        append('"');
                     break;
                 case 15:
-                    sb.append('/');
+                    if (!skipping)
+                        append('/');
                     break;
                 case 16:
-                    sb.append('\b');
+                    if (!skipping)
+                        append('\b');
                     break;
                 case 17:
-                    sb.append('\f');
+                    if (!skipping)
+                        append('\f');
                     break;
                 case 18:
-                    sb.append('\n');
+                    if (!skipping)
+                        append('\n');
                     break;
                 case 19:
-                    sb.append('\r');
+                    if (!skipping)
+                        append('\r');
                     break;
                 case 20:
-                    sb.append('\t');
+                    if (!skipping)
+                        append('\t');
                     break;
                 case 21:
-                    return new Yytoken(Yytoken.TYPE_VALUE, Double.valueOf(yytext()));
+                    value = skipping ? skipNumber() : scanNumber();
+                    return Yytoken.TYPE_VALUE;
                 case 22:
-                    return new Yytoken(Yytoken.TYPE_VALUE, null);
+                    value = null;
+                    return Yytoken.TYPE_VALUE;
                 case 23:
-                    return new Yytoken(Yytoken.TYPE_VALUE, Boolean.valueOf(yytext()));
+                    value = yycharat(0) == 't' ? Boolean.TRUE : Boolean.FALSE;
+                    return Yytoken.TYPE_VALUE;
                 case 24:
-                    try {
-                        sb.append((char) Integer.parseInt(yytext().substring(2), 16));
-                    } catch (Exception ex) {
-                        throw new ParseException(yychar, ParseException.ERROR_UNEXPECTED_EXCEPTION, ex);
-                    }
+                    if (skipping)
+                        break;
+                    int ch = 0;
+                    for (int i = 2; i < 6; i++)
+                        ch = ch << 4 | Character.digit(yycharat(i), 16);
+                    append((char) ch);
                     break;
                 default:
                     if (switchVal == 3 || (switchVal >= 25 && switchVal <= 48))
                         break;
                     if (zzInput == YYEOF && zzStartRead == zzCurrentPos) {
                         zzAtEOF = true;
-                        return null;
+                        value = null;
+                        return Yytoken.TYPE_EOF;
                     } else {
                         zzScanError(ZZ_NO_MATCH);
                     }
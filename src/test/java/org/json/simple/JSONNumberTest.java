@@ -0,0 +1,50 @@
+package org.json.simple;
+
+import junit.framework.TestCase;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.NumberMode;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+public class JSONNumberTest extends TestCase {
+
+    public void testLazyParsing() throws Exception {
+        String s = "{\"a\":1.50,\"b\":[-0,1E+2,123456789012345678901234567890],\"c\":7}";
+        JSONParser parser = new JSONParser();
+        parser.setNumberMode(NumberMode.LAZY);
+
+        JSONObject object = parser.object(s);
+        assertTrue(object.get("a") instanceof JSONNumber);
+        assertEquals(s, object.toJSONString());
+        assertEquals(1.5, ((Number) object.get("a")).doubleValue());
+        assertEquals(7L, object.getLong("c"));
+        assertEquals(7, object.getInt("c"));
+        assertEquals(100.0, object.array("b").getDouble(1));
+        assertEquals(new BigInteger("123456789012345678901234567890"), ((JSONNumber) object.array("b").get(2)).getValue());
+
+        assertEquals(object, parser.parse(s.getBytes(StandardCharsets.UTF_8)));
+
+        parser.setNumberMode(NumberMode.DEFAULT);
+        assertEquals(7L, parser.object("{\"c\":7}").get("c"));
+    }
+
+    public void testJSONNumber() {
+        JSONNumber number = new JSONNumber("-12");
+        assertTrue(number.isIntegral());
+        assertEquals(-12L, number.getValue());
+        assertEquals(-12.0f, number.floatValue());
+        assertEquals("-12", JSONValue.toJSONString(number));
+        assertEquals(new JSONNumber("-12"), number);
+        assertEquals(new JSONNumber("1.0").hashCode(), new JSONNumber("1.00").hashCode());
+        assertFalse(new JSONNumber("1e3").isIntegral());
+
+        for (String invalid : new String[]{"", "-", "1.", ".5", "1e", "01x", "NaN", "1 "}) {
+            try {
+                new JSONNumber(invalid);
+                fail(invalid);
+            } catch (NumberFormatException expected) {
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.json.simple;
+
+import junit.framework.TestCase;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class JSONUtf8WriterTest extends TestCase {
+
+    public void testEncoding() throws Exception {
+        Random random = new Random(42);
+        char[] alphabet = {'a', 'Z', '0', ' ', '"', 'é', '߿', 'ࠀ', '€', '￿', '\ud83d', '\ude00'};
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 10000; i++)
+            sb.append(alphabet[random.nextInt(alphabet.length)]);
+        String s = sb.toString();
+        byte[] expected = s.getBytes(StandardCharsets.UTF_8);
+
+        JSONUtf8Writer writer = new JSONUtf8Writer();
+        writer.write(s);
+        assertTrue(Arrays.equals(expected, writer.toByteArray()));
+
+        // single chars, slices and arrays, through a small buffer that is drained many times
+        for (int capacity : new int[]{0, 7, 64}) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            writer = new JSONUtf8Writer(out, capacity);
+            for (int i = 0; i < s.length(); ) {
+                int n = Math.min(random.nextInt(20), s.length() - i);
+                switch (random.nextInt(3)) {
+                    case 0 -> {
+                        writer.write(s.charAt(i));
+                        n = 1;
+                    }
+                    case 1 -> writer.write(s, i, n);
+                    default -> writer.write(s.toCharArray(), i, n);
+                }
+                i += n;
+            }
+            writer.flush();
+            assertTrue(Arrays.equals(expected, out.toByteArray()));
+        }
+    }
+
+    public void testSurrogates() throws Exception {
+        JSONUtf8Writer writer = new JSONUtf8Writer();
+        // a pair split between two writes
+        writer.write("a\ud83d");
+        writer.write("\ude00b");
+        assertTrue(Arrays.equals("a😀b".getBytes(StandardCharsets.UTF_8), writer.toByteArray()));
+        writer.reset();
+        writer.write("\ude00x\ud83dy\ud83d");
+        assertEquals("?x?y?", new String(writer.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    public void testReuse() throws Exception {
+        JSONUtf8Writer writer = new JSONUtf8Writer(4);
+        JSONValue.writeJSONString(List.of("first value", 1), writer);
+        assertEquals("[\"first value\",1]", new String(writer.toByteArray(), StandardCharsets.UTF_8));
+        writer.reset();
+        JSONValue.writeJSONString("é", writer);
+        assertEquals(4, writer.size());
+        assertEquals("\"é\"", StandardCharsets.UTF_8.decode(writer.toByteBuffer()).toString());
+    }
+
+    public void testSerialization() throws Exception {
+        JSONObject object = new JSONObject();
+        object.put("kéy", new JSONArray("v€😀", 1.5, null, true));
+        String text = object.toJSONString();
+        byte[] expected = text.getBytes(StandardCharsets.UTF_8);
+
+        assertTrue(Arrays.equals(expected, JSONValue.toJSONBytes(object)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        object.writeJSONString(out);
+        assertTrue(Arrays.equals(expected, out.toByteArray()));
+        out.reset();
+        JSONObject.writeJSONString((Map<?, ?>) object, out);
+        assertTrue(Arrays.equals(expected, out.toByteArray()));
+        out.reset();
+        JSONArray.writeJSONString(List.of(object), out);
+        assertEquals("[" + text + "]", out.toString(StandardCharsets.UTF_8));
+        out.reset();
+        JSONValue.writeJSONString(object, Channels.newChannel(out));
+        assertTrue(Arrays.equals(expected, out.toByteArray()));
+    }
+}
@@ -4,6 +4,11 @@ import junit.framework.TestCase;
 
 import java.io.IOException;
 import java.io.StringWriter;
+import java.time.LocalDate;
+import java.time.temporal.Temporal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 public class JSONValueTest extends TestCase {
     public void testByteArrayToString() throws IOException {
@@ -253,4 +258,111 @@ public class JSONValueTest extends TestCase {
         JSONValue.writeJSONString(nestedStringArray, writer);
         assertEquals(expectedNestedStringString, writer.toString());
     }
+
+    private static final class Text {
+        private final String text;
+
+        Text(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    public void testToStringFallback() {
+        assertEquals("[1,2]", JSONValue.toJSONString(new Text("[1,2]")));
+        assertEquals("{\"a\": [true, null, -1.5e3]}", JSONValue.toJSONString(new Text("{\"a\": [true, null, -1.5e3]}")));
+        assertEquals("\"007\"", JSONValue.toJSONString(new Text("007")));
+        assertEquals("\"[1 2]\"", JSONValue.toJSONString(new Text("[1 2]")));
+        assertEquals("\"\"", JSONValue.toJSONString(new Text("")));
+        assertEquals("\"2024-01-01\"", JSONValue.toJSONString(new Text("2024-01-01")));
+        assertEquals("[\"x\",12]", JSONValue.toJSONString(List.of(new Text("x"), new Text("12"))));
+    }
+
+    public void testSyntax() {
+        for (String s : new String[]{"0", "-0.5", "1E+2", " true ", "null", "\"a\\u00e9\\n\"", "[]", "{}", "[[], {}]",
+                "{\"a\": {\"b\": [1, {\"c\": \"d\"}]}, \"e\": []}", "[".repeat(64) + "1" + "]".repeat(64)})
+            assertTrue(s, JSONSyntax.isValue(s));
+        for (String s : new String[]{"", " ", "01", "1.", "-", ".5", "1e", "tru", "nul", "\"a", "\"\\x\"", "\"\\u12\"",
+                "\"a\tb\"", "[1,]", "[,1]", "{\"a\"}", "{\"a\":}", "{a: 1}", "[1] [2]", "[1}", "{\"a\": 1]",
+                "[".repeat(65) + "1" + "]".repeat(65)})
+            assertFalse(s, JSONSyntax.isValue(s));
+    }
+
+    public void testRegisterSerializer() {
+        UUID id = new UUID(1, 2);
+        try {
+            JSONValue.registerSerializer(UUID.class, (value, out) -> {
+                out.write('"');
+                out.write(value.toString());
+                out.write('"');
+            });
+            JSONValue.registerSerializer(Temporal.class, (value, out) -> JSONValue.writeJSONString(value.toString(), out));
+            assertEquals("{\"id\":\"" + id + "\"}", JSONValue.toJSONString(Map.of("id", id)));
+            // registered for an interface of the class
+            assertEquals("[\"2024-01-02\"]", JSONValue.toJSONString(List.of(LocalDate.of(2024, 1, 2))));
+        } finally {
+            JSONValue.unregisterSerializer(UUID.class);
+            JSONValue.unregisterSerializer(Temporal.class);
+        }
+        assertEquals("\"" + id + "\"", JSONValue.toJSONString(id));
+        assertEquals("\"2024-01-02\"", JSONValue.toJSONString(LocalDate.of(2024, 1, 2)));
+    }
+
+    public void testEscape() throws IOException {
+        assertEquals("a\\\"b\\\\c\\/d\\b\\f\\n\\r\\t\\u0000\\u001F\\u007F\\u0085\\u2028é\\u20AC",
+                JSONValue.escape("a\"b\\c/d\b\f\n\r\t\u0000\u001F\u007F\u0085\u2028é€"));
+        StringBuilder all = new StringBuilder();
+        for (char ch = 0; ch < Character.MAX_VALUE; ch++)
+            all.append(ch).append('x');
+        String s = all.toString();
+        StringWriter writer = new StringWriter();
+        JSONValue.escape(s, writer);
+        assertEquals(JSONValue.escape(s), writer.toString());
+        for (int i = 0; i < s.length(); i += 2) {
+            char ch = s.charAt(i);
+            String expected = ch < ' ' || ch >= '\u007F' && ch <= '\u009F' || ch >= '\u2000' && ch <= '\u20FF'
+                    ? String.format("\\u%04X", (int) ch) : String.valueOf(ch);
+            if (ch == '"' || ch == '\\' || ch == '/' || ch == '\b' || ch == '\f' || ch == '\n' || ch == '\r' || ch == '\t')
+                continue;
+            assertEquals(expected, JSONValue.escape(String.valueOf(ch)));
+        }
+
+        writer = new StringWriter();
+        JSONValue.writeJSONString(Map.of("k\n", "v\t"), writer);
+        assertEquals("{\"k\\n\":\"v\\t\"}", writer.toString());
+    }
+
+    public void testAppendJSONString() throws IOException {
+        JSONObject object = new JSONObject();
+        object.put("a", new JSONArray(1, "b", null));
+        String text = object.toJSONString();
+
+        StringBuilder sb = new StringBuilder("x=");
+        JSONValue.appendJSONString(object, sb);
+        assertEquals("x=" + text, sb.toString());
+        sb.setLength(0);
+        object.appendJSONString(sb);
+        assertEquals(text, sb.toString());
+        sb.setLength(0);
+        JSONValue.appendJSONString(null, sb);
+        assertEquals("null", sb.toString());
+
+        java.nio.CharBuffer buffer = java.nio.CharBuffer.allocate(64);
+        JSONValue.appendJSONString(object, buffer);
+        assertEquals(text, buffer.flip().toString());
+        StringWriter writer = new StringWriter();
+        JSONValue.appendJSONString(List.of(object), (Appendable) writer);
+        assertEquals("[" + text + "]", writer.toString());
+        assertEquals("\"k\":" + text, JSONObject.toString("k", object));
+
+        // the writer of the next text of the same class starts with the length of this one
+        object.put("c", "d".repeat(1000));
+        assertEquals(object.toJSONString(), object.toJSONString());
+        assertEquals("[1,2]", JSONArray.toJSONString(new int[]{1, 2}));
+        assertEquals("null", JSONValue.toJSONString(null));
+    }
 }
@@ -0,0 +1,98 @@
+package org.json.simple;
+
+import junit.framework.TestCase;
+
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Random;
+
+public class NumberWriterTest extends TestCase {
+    private final char[] buf = new char[NumberWriter.BUFFER_LENGTH];
+
+    private String format(long v) {
+        return new String(buf, 0, NumberWriter.getChars(v, buf, 0));
+    }
+
+    private String format(double v) {
+        return new String(buf, 0, NumberWriter.getChars(v, buf, 0));
+    }
+
+    private String format(float v) {
+        return new String(buf, 0, NumberWriter.getChars(v, buf, 0));
+    }
+
+    private static int significantDigits(String s) {
+        int e = s.indexOf('E');
+        String digits = (e < 0 ? s : s.substring(0, e)).replace("-", "").replace(".", "");
+        digits = digits.replaceFirst("^0+", "").replaceFirst("0+$", "");
+        return Math.max(1, digits.length());
+    }
+
+    public void testLongs() {
+        for (long v : new long[]{0, 1, -1, 9, 10, -10, 99, 100, -100, 12345, Integer.MIN_VALUE, Integer.MAX_VALUE,
+                Long.MIN_VALUE, Long.MAX_VALUE, 999_999_999_999_999_999L, 1_000_000_000_000_000_000L})
+            assertEquals(Long.toString(v), format(v));
+        Random random = new Random(1);
+        for (int i = 0; i < 100_000; i++) {
+            long v = random.nextLong() >> random.nextInt(64);
+            assertEquals(Long.toString(v), format(v));
+        }
+    }
+
+    public void testDoubles() {
+        String[][] cases = {{"0.0", "0.0"}, {"-0.0", "-0.0"}, {"1", "1.0"}, {"-1.5", "-1.5"}, {"0.1", "0.1"},
+                {"100", "100.0"}, {"1234567", "1234567.0"}, {"9999999", "9999999.0"}, {"1e7", "1.0E7"},
+                {"0.001", "0.001"}, {"9.99e-4", "9.99E-4"}, {"1e-5", "1.0E-5"}, {"1e22", "1.0E22"},
+                // shorter than Double.toString of older runtimes
+                {"2e23", "2.0E23"}, {"1e23", "1.0E23"}, {"2.82879384806159E17", "2.82879384806159E17"},
+                {"4.9e-324", "4.9E-324"}, {"1.7976931348623157E308", "1.7976931348623157E308"},
+                {"2.2250738585072014E-308", "2.2250738585072014E-308"}, {"NaN", "NaN"}, {"Infinity", "Infinity"},
+                {"-Infinity", "-Infinity"}};
+        for (String[] c : cases)
+            assertEquals(c[0], c[1], format(Double.parseDouble(c[0])));
+
+        Random random = new Random(1);
+        for (int i = 0; i < 200_000; i++) {
+            double v = i % 2 == 0 ? Double.longBitsToDouble(random.nextLong()) : random.nextInt(1_000_000) / 1000.0;
+            if (Double.isNaN(v))
+                continue;
+            String s = format(v);
+            assertEquals(s, v, Double.parseDouble(s));
+            assertTrue(s, significantDigits(s) <= significantDigits(Double.toString(v)));
+        }
+    }
+
+    public void testFloats() {
+        String[][] cases = {{"0.0", "0.0"}, {"1", "1.0"}, {"0.1", "0.1"}, {"0.3", "0.3"}, {"1e7", "1.0E7"},
+                {"16777216", "1.6777216E7"}, {"3.4028235E38", "3.4028235E38"}, {"1.4E-45", "1.4E-45"},
+                {"1.1754944E-38", "1.1754944E-38"}};
+        for (String[] c : cases)
+            assertEquals(c[0], c[1], format(Float.parseFloat(c[0])));
+
+        Random random = new Random(1);
+        for (int i = 0; i < 200_000; i++) {
+            float v = Float.intBitsToFloat(random.nextInt());
+            if (Float.isNaN(v))
+                continue;
+            String s = format(v);
+            assertEquals(s, v, Float.parseFloat(s));
+            assertTrue(s, significantDigits(s) <= significantDigits(Float.toString(v)));
+        }
+    }
+
+    public void testSerialization() throws Exception {
+        assertEquals("[1,-2,3]", JSONArray.toJSONString(new int[]{1, -2, 3}));
+        assertEquals("[" + Long.MIN_VALUE + ",0]", JSONArray.toJSONString(new long[]{Long.MIN_VALUE, 0}));
+        assertEquals("[1.0,-2.2250738585072014E-308,NaN]",
+                JSONArray.toJSONString(new double[]{1, -Double.MIN_NORMAL, Double.NaN}));
+        assertEquals("[0.1,1.0E10]", JSONArray.toJSONString(new float[]{0.1f, 1e10f}));
+        assertEquals("[1,2.5,0.1,null,7,8]", JSONValue.toJSONString(List.of(1, 2.5, 0.1f, Double.NaN, (short) 7, (byte) 8)));
+
+        StringWriter writer = new StringWriter();
+        JSONArray.writeJSONString(new double[]{-1e-7, 123.456}, writer);
+        assertEquals("[-1.0E-7,123.456]", writer.toString());
+        JSONUtf8Writer utf8 = new JSONUtf8Writer();
+        JSONArray.writeJSONString(new long[]{42, -7}, utf8);
+        assertEquals("[42,-7]", new String(utf8.toByteArray()));
+    }
+}
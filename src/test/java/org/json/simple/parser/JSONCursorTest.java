@@ -0,0 +1,118 @@
+package org.json.simple.parser;
+
+import junit.framework.TestCase;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.json.simple.parser.JSONCursor.*;
+
+public class JSONCursorTest extends TestCase {
+
+    private static final String JSON = "{\"id\": 42, \"name\": \"test\", \"tags\": [\"a\", {\"b\": [1, 2]}], \"ratio\": 0.5, \"ok\": true, \"none\": null}";
+
+    private static void assertTokens(JSONCursor cursor) throws Exception {
+        assertEquals(TOKEN_START_OBJECT, cursor.nextToken());
+        assertEquals(1, cursor.currentDepth());
+        assertEquals(TOKEN_KEY, cursor.nextToken());
+        assertEquals("id", cursor.getString());
+        assertEquals(TOKEN_NUMBER, cursor.nextToken());
+        assertEquals(42L, cursor.getLong());
+        assertEquals(TOKEN_KEY, cursor.nextToken());
+        assertEquals(TOKEN_STRING, cursor.nextToken());
+        assertEquals("test", cursor.getString());
+        assertEquals(TOKEN_KEY, cursor.nextToken());
+        assertEquals(TOKEN_START_ARRAY, cursor.nextToken());
+        assertEquals(2, cursor.currentDepth());
+        assertEquals(TOKEN_STRING, cursor.nextToken());
+        assertEquals(TOKEN_START_OBJECT, cursor.nextToken());
+        assertEquals(TOKEN_KEY, cursor.nextToken());
+        assertEquals(TOKEN_START_ARRAY, cursor.nextToken());
+        assertEquals(4, cursor.currentDepth());
+        assertEquals(TOKEN_NUMBER, cursor.nextToken());
+        assertEquals(TOKEN_NUMBER, cursor.nextToken());
+        assertEquals(2.0, cursor.getDouble());
+        assertEquals(TOKEN_END_ARRAY, cursor.nextToken());
+        assertEquals(TOKEN_END_OBJECT, cursor.nextToken());
+        assertEquals(TOKEN_END_ARRAY, cursor.nextToken());
+        assertEquals(1, cursor.currentDepth());
+        assertEquals(TOKEN_KEY, cursor.nextToken());
+        assertEquals(TOKEN_NUMBER, cursor.nextToken());
+        assertEquals(0.5, cursor.getDouble());
+        assertEquals(TOKEN_KEY, cursor.nextToken());
+        assertEquals(TOKEN_BOOLEAN, cursor.nextToken());
+        assertTrue(cursor.getBoolean());
+        assertEquals(TOKEN_KEY, cursor.nextToken());
+        assertEquals(TOKEN_NULL, cursor.nextToken());
+        assertNull(cursor.getString());
+        assertEquals(TOKEN_END_OBJECT, cursor.nextToken());
+        assertEquals(0, cursor.currentDepth());
+        assertEquals(TOKEN_END_DOCUMENT, cursor.nextToken());
+        assertEquals(TOKEN_END_DOCUMENT, cursor.nextToken());
+    }
+
+    public void testTokens() throws Exception {
+        assertTokens(new JSONCursor(JSON));
+        assertTokens(new JSONCursor(JSON.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public void testSkipValue() throws Exception {
+        JSONCursor cursor = new JSONCursor(JSON);
+        long id = 0;
+        double ratio = 0;
+        cursor.nextToken();
+        while (cursor.nextToken() == TOKEN_KEY) {
+            switch (cursor.getString()) {
+                case "id" -> {
+                    cursor.nextToken();
+                    id = cursor.getLong();
+                }
+                case "ratio" -> {
+                    cursor.nextToken();
+                    ratio = cursor.getDouble();
+                }
+                default -> cursor.skipValue();
+            }
+        }
+        assertEquals(TOKEN_END_OBJECT, cursor.currentToken());
+        assertEquals(42L, id);
+        assertEquals(0.5, ratio);
+    }
+
+    public void testReadValue() throws Exception {
+        JSONCursor cursor = new JSONCursor(JSON);
+        cursor.nextToken();
+        assertEquals(new JSONParser().parse(JSON), cursor.readValue(null));
+        assertEquals(TOKEN_END_OBJECT, cursor.currentToken());
+        assertEquals(TOKEN_END_DOCUMENT, cursor.nextToken());
+
+        cursor = new JSONCursor(JSON);
+        cursor.nextToken();
+        while (cursor.nextToken() == TOKEN_KEY && !cursor.getString().equals("tags"))
+            cursor.skipValue();
+        assertEquals(new JSONParser().parse("[\"a\", {\"b\": [1, 2]}]"), cursor.readValue(null));
+        assertEquals(TOKEN_END_ARRAY, cursor.currentToken());
+        assertEquals(TOKEN_KEY, cursor.nextToken());
+        assertEquals(0.5, cursor.readValue(null));
+    }
+
+    public void testErrors() throws Exception {
+        JSONCursor cursor = new JSONCursor("[1, {\"a\": }]");
+        assertEquals(TOKEN_START_ARRAY, cursor.nextToken());
+        assertEquals(TOKEN_NUMBER, cursor.nextToken());
+        try {
+            cursor.getString();
+            cursor.getBoolean();
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+        assertEquals(TOKEN_START_OBJECT, cursor.nextToken());
+        assertEquals(TOKEN_KEY, cursor.nextToken());
+        try {
+            cursor.nextToken();
+            fail();
+        } catch (ParseException pe) {
+            assertEquals(ParseException.ERROR_UNEXPECTED_TOKEN, pe.getErrorType());
+            assertEquals(10, pe.getPosition());
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package org.json.simple.parser;
+
+import junit.framework.TestCase;
+
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class JSONFeedParserTest extends TestCase {
+
+    private static final String DOCUMENT = "{\"id\": 12345, \"name\": \"caf\\u00e9 ключ\", \"ok\": true, \"none\": null,"
+            + " \"items\": [1, -2.5e-3, 1E+2, false, {\"deep\": [\"x\\\"y\"]}, [], {}], \"big\": 123456789012345678}  ";
+
+    /**
+     * Records the events as text, pausing once after every object entry if requested.
+     */
+    private static class Recorder implements ContentHandler {
+        final List<String> events = new ArrayList<>();
+        final boolean pause;
+        /**
+         * skips the entries whose key starts with "skip_", and the content of the containers of "contents" entries
+         */
+        Runnable skipper;
+
+        Recorder(boolean pause) {
+            this.pause = pause;
+        }
+
+        private void skipContents() {
+            if (skipper != null && !events.isEmpty() && events.get(events.size() - 1).equals("contents:"))
+                skipper.run();
+        }
+
+        public void startJSON() {
+            events.add("startJSON");
+        }
+
+        public void endJSON() {
+            events.add("endJSON");
+        }
+
+        public boolean startObject() {
+            skipContents();
+            events.add("{");
+            return true;
+        }
+
+        public boolean endObject() {
+            events.add("}");
+            return true;
+        }
+
+        public boolean startObjectEntry(String key) {
+            if (skipper != null && key.startsWith("skip_"))
+                skipper.run();
+            events.add(key + ":");
+            return true;
+        }
+
+        public boolean endObjectEntry() {
+            events.add(";");
+            return !pause;
+        }
+
+        public boolean startArray() {
+            skipContents();
+            events.add("[");
+            return true;
+        }
+
+        public boolean endArray() {
+            events.add("]");
+            return true;
+        }
+
+        public boolean primitive(Object value) {
+            events.add(value == null ? "null" : value.getClass().getSimpleName() + "(" + value + ")");
+            return true;
+        }
+    }
+
+    private static List<String> expected(String s) throws Exception {
+        Recorder recorder = new Recorder(false);
+        new JSONParser().parse(s.getBytes(StandardCharsets.UTF_8), recorder);
+        return recorder.events;
+    }
+
+    private static List<String> fed(byte[] bytes, Random random, int maxChunk, boolean pause) throws Exception {
+        return fed(bytes, random, maxChunk, pause, false);
+    }
+
+    private static List<String> fed(byte[] bytes, Random random, int maxChunk, boolean pause, boolean skip) throws Exception {
+        JSONFeedParser parser = new JSONFeedParser();
+        Recorder recorder = new Recorder(pause);
+        if (skip)
+            recorder.skipper = parser::skipValue;
+        int p = 0;
+        while (true) {
+            int status = parser.parse(recorder);
+            if (status == JSONFeedParser.DONE)
+                return recorder.events;
+            if (status == JSONFeedParser.NEED_MORE_INPUT) {
+                if (p == bytes.length) {
+                    parser.endOfInput();
+                } else {
+                    int length = Math.min(bytes.length - p, 1 + random.nextInt(maxChunk));
+                    parser.feed(ByteBuffer.wrap(bytes, p, length));
+                    p += length;
+                }
+            }
+        }
+    }
+
+    public void testChunks() throws Exception {
+        byte[] bytes = DOCUMENT.getBytes(StandardCharsets.UTF_8);
+        List<String> expected = expected(DOCUMENT);
+        Random random = new Random(7);
+        assertEquals(expected, fed(bytes, random, 1, false));
+        for (int i = 0; i < 200; i++)
+            assertEquals(expected, fed(bytes, random, 1 + i % 40, i % 3 == 0));
+        assertEquals(expected("-12"), fed("-12".getBytes(StandardCharsets.UTF_8), random, 1, false));
+        assertEquals(expected("\"s\""), fed("\"s\"".getBytes(StandardCharsets.UTF_8), random, 1, false));
+    }
+
+    public void testNeedMoreInput() throws Exception {
+        JSONFeedParser parser = new JSONFeedParser();
+        Recorder recorder = new Recorder(false);
+        assertEquals(JSONFeedParser.NEED_MORE_INPUT, parser.parse(recorder));
+        parser.feed("[12".getBytes(StandardCharsets.UTF_8));
+        assertEquals(JSONFeedParser.NEED_MORE_INPUT, parser.parse(recorder));
+        assertEquals(List.of("startJSON", "["), recorder.events);
+        parser.feed("3, tr".getBytes(StandardCharsets.UTF_8));
+        assertEquals(JSONFeedParser.NEED_MORE_INPUT, parser.parse(recorder));
+        assertEquals(List.of("startJSON", "[", "Long(123)"), recorder.events);
+        parser.feed("ue]".getBytes(StandardCharsets.UTF_8));
+        // the end of input is not known yet, trailing text would be an error
+        assertEquals(JSONFeedParser.NEED_MORE_INPUT, parser.parse(recorder));
+        parser.endOfInput();
+        assertEquals(JSONFeedParser.DONE, parser.parse(recorder));
+        assertEquals(List.of("startJSON", "[", "Long(123)", "Boolean(true)", "]", "endJSON"), recorder.events);
+        try {
+            parser.feed(new byte[1]);
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        parser.reset();
+        parser.feed("{\"a\": 1}".getBytes(StandardCharsets.UTF_8));
+        parser.endOfInput();
+        recorder = new Recorder(true);
+        assertEquals(JSONFeedParser.PAUSED, parser.parse(recorder));
+        assertEquals(JSONFeedParser.DONE, parser.parse(recorder));
+        assertEquals(List.of("startJSON", "{", "a:", "Long(1)", ";", "}", "endJSON"), recorder.events);
+    }
+
+    public void testSkipValue() throws Exception {
+        String s = "{\"skip_a\": {\"a\": [1, \"x\\\"y\", {\"deep\": true}, 99999999]}, \"id\": 1,"
+                + " \"contents\": [1, [2], {\"k\": \"\\u0041\"}], \"o\": {\"contents\": {\"n\": 1e5, \"m\": []},"
+                + " \"skip_b\": 2.5, \"v\": \"s\"}, \"skip_c\": \"big\\nstring\", \"arr\": [{\"skip_d\": null}]}";
+        List<String> expected = expected("{\"skip_a\": 0, \"id\": 1, \"contents\": [], \"o\": {\"contents\": {},"
+                + " \"skip_b\": 0, \"v\": \"s\"}, \"skip_c\": 0, \"arr\": [{\"skip_d\": 0}]}");
+        expected.removeIf(event -> event.equals("Long(0)"));
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+
+        JSONParser parser = new JSONParser();
+        Recorder recorder = new Recorder(false);
+        recorder.skipper = parser::skipValue;
+        parser.parse(bytes, recorder);
+        assertEquals(expected, recorder.events);
+
+        recorder = new Recorder(true);
+        recorder.skipper = parser::skipValue;
+        parser.parse(new StringReader(s), recorder, false);
+        while (!recorder.events.get(recorder.events.size() - 1).equals("endJSON"))
+            parser.parse(new StringReader(s), recorder, true);
+        assertEquals(expected, recorder.events);
+
+        Random random = new Random(3);
+        for (int i = 0; i < 100; i++)
+            assertEquals(expected, fed(bytes, random, 1 + i % 20, i % 2 == 0, true));
+
+        recorder = new Recorder(false);
+        recorder.skipper = parser::skipValue;
+        parser.parse("{\"contents\": [1, {\"a\": 2}]}".getBytes(StandardCharsets.UTF_8), recorder);
+        assertEquals(List.of("startJSON", "{", "contents:", "[", "]", ";", "}", "endJSON"), recorder.events);
+
+        String[] invalid = {"{\"skip_a\": [1, 2}, \"id\": 1}", "{\"skip_a\": {1: 2}}", "{\"skip_a\": [\"x\"", "{\"skip_a\": ,}",
+                "{\"skip_a\": {\"b\" ]}", "{\"skip_a\": [99999999999999999999]}", "{\"contents\": [1:]}"};
+        for (String invalidText : invalid) {
+            ParseException expectedError = null;
+            try {
+                new JSONParser().parse(invalidText);
+                fail(invalidText);
+            } catch (ParseException e) {
+                expectedError = e;
+            }
+            for (int i = 0; i < 3; i++) {
+                try {
+                    recorder = new Recorder(false);
+                    recorder.skipper = parser::skipValue;
+                    if (i == 0)
+                        parser.parse(invalidText.getBytes(StandardCharsets.UTF_8), recorder);
+                    else if (i == 1)
+                        parser.parse(new StringReader(invalidText), recorder);
+                    else
+                        fed(invalidText.getBytes(StandardCharsets.UTF_8), random, 2, false, true);
+                    fail(invalidText);
+                } catch (ParseException e) {
+                    assertEquals(invalidText, expectedError.getErrorType(), e.getErrorType());
+                    assertEquals(invalidText, expectedError.getPosition(), e.getPosition());
+                    if (i != 1)
+                        assertEquals(invalidText, String.valueOf(expectedError.getUnexpectedObject()),
+                                String.valueOf(e.getUnexpectedObject()));
+                }
+            }
+        }
+    }
+
+    public void testErrors() throws Exception {
+        String[] invalid = {"", "{", "[1,", "{\"a\" 1 2}", "{1: 2}", "[1] 2", "[\"abc", "[tru]", "[tru", "[-]",
+                "[99999999999999999999]", "[1.5] x"};
+        for (String s : invalid) {
+            ParseException expected = null;
+            try {
+                new JSONParser().parse(s.getBytes(StandardCharsets.UTF_8), new Recorder(false));
+                fail(s);
+            } catch (ParseException e) {
+                expected = e;
+            }
+            try {
+                fed(s.getBytes(StandardCharsets.UTF_8), new Random(1), 1, false);
+                fail(s);
+            } catch (ParseException e) {
+                assertEquals(s, expected.getErrorType(), e.getErrorType());
+                assertEquals(s, expected.getPosition(), e.getPosition());
+                assertEquals(s, String.valueOf(expected.getUnexpectedObject()), String.valueOf(e.getUnexpectedObject()));
+            }
+        }
+    }
+}
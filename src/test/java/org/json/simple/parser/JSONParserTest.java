@@ -0,0 +1,149 @@
+package org.json.simple.parser;
+
+import junit.framework.TestCase;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+import java.io.StringReader;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class JSONParserTest extends TestCase {
+
+    public void testDeepNestingGrowsStacks() throws Exception {
+        JSONParser parser = new JSONParser();
+        int depth = 1000;
+        String s = "[".repeat(depth) + "{\"k\":1}" + "]".repeat(depth);
+
+        for (int round = 0; round < 2; round++) {
+            Object value = parser.parse(s);
+            for (int i = 0; i < depth; i++)
+                value = ((JSONArray) value).get(0);
+            assertEquals(1L, ((JSONObject) value).get("k"));
+        }
+    }
+
+    public void testReuseAfterError() throws Exception {
+        JSONParser parser = new JSONParser();
+        try {
+            parser.parse("{\"a\":[1,2,{\"b\":}]}");
+            fail();
+        } catch (ParseException pe) {
+            assertEquals(ParseException.ERROR_UNEXPECTED_TOKEN, pe.getErrorType());
+            assertEquals(Yytoken.TYPE_RIGHT_BRACE, ((Yytoken) pe.getUnexpectedObject()).type);
+        }
+
+        JSONObject object = parser.object("{\"a\":[1,2,{\"b\":null}]}");
+        assertEquals("{\"a\":[1,2,{\"b\":null}]}", object.toJSONString());
+    }
+
+    public void testCharInput() throws Exception {
+        JSONParser parser = new JSONParser();
+        String s = "{\"k\": [\"v\\u0041\", 1.5, true]}";
+        Object expected = parser.parse(new StringReader(s));
+
+        char[] chars = ("xx" + s + "[1, 2").toCharArray();
+        char[] copy = chars.clone();
+        assertEquals(expected, parser.parse(chars, 2, s.length()));
+        assertTrue(Arrays.equals(copy, chars));
+        assertEquals(expected, parser.parse(new StringBuilder(s)));
+        assertEquals(expected, parser.parse(CharBuffer.wrap(chars, 2, s.length())));
+        assertEquals(expected, parser.parse(new StringBuffer(s)));
+        try {
+            parser.parse(chars, 2 + s.length(), 5);
+            fail();
+        } catch (ParseException e) {
+            // positions are relative to the offset
+            assertEquals(5, e.getPosition());
+        }
+        try {
+            parser.parse(chars, 2, chars.length);
+            fail();
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+
+        String large = "[" + "\"abcdefgh\", ".repeat(5000) + "0]";
+        assertEquals(5001, parser.array(large).size());
+        // reader input uses the own buffer of the parser again
+        assertEquals(expected, parser.parse(new StringReader(s)));
+        assertTrue(Arrays.equals(copy, chars));
+    }
+
+    public void testSizeHints() throws Exception {
+        final List<Integer> hints = new ArrayList<>();
+        ContainerFactory factory = new ContainerFactory() {
+            public Map<Object, Object> createObjectContainer() {
+                return new HashMap<>();
+            }
+
+            public List<?> createArrayContainer() {
+                return new ArrayList<>();
+            }
+
+            @Override
+            public Map<Object, Object> createObjectContainer(int sizeHint) {
+                hints.add(sizeHint);
+                return createObjectContainer();
+            }
+
+            @Override
+            public List<?> createArrayContainer(int sizeHint) {
+                hints.add(sizeHint);
+                return createArrayContainer();
+            }
+        };
+        JSONParser parser = new JSONParser();
+        String s = "{\"a\": [1, 2, 3], \"b\": {\"c\": 1, \"d\": 2}, \"e\": [{\"f\": 1}]}";
+        Object expected = parser.parse(s, factory);
+        assertEquals(List.of(0, 0, 0, 0, 0), hints);
+        hints.clear();
+
+        // the second document learns the sizes from the first one
+        assertEquals(expected, parser.parse(s, factory));
+        assertEquals(List.of(3, 3, 2, 1, 1), hints);
+        hints.clear();
+        assertEquals(expected, parser.parse(s.getBytes(), factory));
+        assertEquals(List.of(3, 3, 2, 1, 1), hints);
+
+        // the default containers are presized the same way
+        String large = "{\"k\": {" + String.join(", ", keys(100)) + "}}";
+        assertEquals(100, ((JSONObject) parser.object(large).get("k")).size());
+        assertEquals(100, ((JSONObject) parser.object(large).get("k")).size());
+
+        // the hint is capped, by a fixed bound and the limit on entries
+        String huge = "[" + "0, ".repeat(100000) + "0]";
+        parser.parse(huge, factory);
+        hints.clear();
+        parser.parse(huge, factory);
+        assertEquals(List.of(1024), hints);
+        hints.clear();
+        parser.setLimits(ParserLimits.NONE.withMaxEntries(50));
+        parser.parse("[1, 2]", factory);
+        assertEquals(List.of(50), hints);
+        hints.clear();
+        parser.setLimits(ParserLimits.NONE);
+
+        // a pooled parser does not pass the sizes of one user to the next
+        JSONParsers pool = new JSONParsers(1, JSONParsers.DEFAULT_MAX_CAPACITY);
+        JSONParser pooled = pool.acquire();
+        pooled.parse(s, factory);
+        pool.release(pooled);
+        hints.clear();
+        pooled = pool.acquire();
+        pooled.parse(s, factory);
+        assertEquals(List.of(0, 0, 0, 0, 0), hints);
+        pool.release(pooled);
+    }
+
+    private static List<String> keys(int n) {
+        List<String> keys = new ArrayList<>(n);
+        for (int i = 0; i < n; i++)
+            keys.add("\"k" + i + "\": " + i);
+        return keys;
+    }
+}
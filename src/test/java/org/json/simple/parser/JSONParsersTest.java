@@ -0,0 +1,87 @@
+package org.json.simple.parser;
+
+import junit.framework.TestCase;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class JSONParsersTest extends TestCase {
+
+    public void testReuse() throws Exception {
+        JSONParsers parsers = new JSONParsers(2, 1024);
+        JSONParser parser = parsers.acquire();
+        parser.setNumberMode(NumberMode.BIG_DECIMAL);
+        parser.setKeySymbols(new SymbolTable());
+        assertEquals(JSONArray.of(new BigDecimal("2")), parser.parse("[2]"));
+        parsers.release(parser);
+
+        JSONParser again = parsers.acquire();
+        assertSame(parser, again);
+        assertEquals(NumberMode.DEFAULT, again.getNumberMode());
+        assertNull(again.getKeySymbols());
+        assertNotSame(parser, parsers.acquire());
+        parsers.release(again);
+
+        // a full pool drops the returned parsers
+        parsers.release(new JSONParser());
+        parsers.release(new JSONParser());
+        parsers.release(new JSONParser());
+
+        try {
+            new JSONParsers(0, 1024);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    public void testLargeDocument() throws Exception {
+        JSONParsers parsers = new JSONParsers(1, 1024);
+        String large = "[\"" + "x".repeat(100000) + "\", " + "[".repeat(2000) + "]".repeat(2000) + "]";
+        assertEquals(2, ((JSONArray) parsers.parse(new StringReader(large))).size());
+        assertEquals(2, ((JSONArray) parsers.parse(large.getBytes(StandardCharsets.UTF_8))).size());
+        assertEquals(2, ((JSONArray) parsers.parse(large)).size());
+        JSONParser parser = parsers.acquire();
+        // the buffers are trimmed, the parser still works with every kind of input
+        assertEquals(JSONArray.of("a"), parser.parse(new StringReader("[\"a\"]")));
+        assertEquals(JSONArray.of("b"), parser.parse("[\"b\"]".getBytes(StandardCharsets.UTF_8)));
+        try {
+            parsers.parse("{\"a\": }");
+            fail();
+        } catch (ParseException e) {
+            assertEquals(ParseException.ERROR_UNEXPECTED_TOKEN, e.getErrorType());
+        }
+    }
+
+    public void testConcurrent() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 32; t++) {
+                final int id = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        String s = "{\"id\": " + id + ", \"i\": " + i + ", \"s\": \"" + "v".repeat(i) + "\"}";
+                        JSONObject object = (JSONObject) JSONParsers.shared().parse(s);
+                        assertEquals((long) id, object.get("id"));
+                        assertEquals((long) i, object.get("i"));
+                        assertEquals(i, ((String) object.get("s")).length());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures)
+                future.get();
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
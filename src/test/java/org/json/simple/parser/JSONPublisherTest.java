@@ -0,0 +1,193 @@
+package org.json.simple.parser;
+
+import junit.framework.TestCase;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+
+public class JSONPublisherTest extends TestCase {
+
+    private static final Executor DIRECT = Runnable::run;
+
+    private static class Collector implements Flow.Subscriber<Object> {
+        final List<Object> elements = new ArrayList<>();
+        final long batch;
+        Flow.Subscription subscription;
+        Throwable error;
+        boolean complete;
+
+        Collector(long batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (batch > 0)
+                subscription.request(batch);
+        }
+
+        @Override
+        public void onNext(Object item) {
+            elements.add(item);
+            if (batch == 1)
+                subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            complete = true;
+        }
+    }
+
+    private static JSONPublisher publisher(String s, int format) {
+        return new JSONPublisher(new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8)), format, DIRECT);
+    }
+
+    public void testArray() throws Exception {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < 1000; i++)
+            sb.append(i == 0 ? "" : ", ").append("{\"id\": ").append(i).append(", \"tags\": [\"ключ\", [], {}]}");
+        String s = sb.append("] ").toString();
+
+        Collector collector = new Collector(1);
+        publisher(s, JSONPublisher.FORMAT_ARRAY).subscribe(collector);
+        assertNull(collector.error);
+        assertTrue(collector.complete);
+        assertEquals(new JSONParser().parse(s), collector.elements);
+
+        collector = new Collector(1);
+        publisher(" \"only\" ", JSONPublisher.FORMAT_ARRAY).subscribe(collector);
+        assertEquals(List.of("only"), collector.elements);
+        assertTrue(collector.complete);
+
+        collector = new Collector(1);
+        publisher("[1, [2, 3]] x", JSONPublisher.FORMAT_ARRAY).subscribe(collector);
+        assertEquals(List.of(1L, JSONArray.of(2L, 3L)), collector.elements);
+        assertTrue(collector.error instanceof ParseException);
+        assertFalse(collector.complete);
+    }
+
+    public void testDemand() throws Exception {
+        ReadableByteChannel channel = Channels.newChannel(new ByteArrayInputStream("[1, 2, 3, 4]".getBytes(StandardCharsets.UTF_8)));
+        JSONPublisher publisher = new JSONPublisher(channel, JSONPublisher.FORMAT_ARRAY, DIRECT);
+        Collector collector = new Collector(2);
+        publisher.subscribe(collector);
+        assertEquals(List.of(1L, 2L), collector.elements);
+        assertFalse(collector.complete);
+        collector.subscription.request(1);
+        assertEquals(List.of(1L, 2L, 3L), collector.elements);
+        collector.subscription.cancel();
+        collector.subscription.request(5);
+        assertEquals(List.of(1L, 2L, 3L), collector.elements);
+        assertFalse(collector.complete);
+        assertFalse(channel.isOpen());
+
+        Collector second = new Collector(1);
+        publisher.subscribe(second);
+        assertTrue(second.error instanceof IllegalStateException);
+
+        collector = new Collector(0);
+        publisher("[1]", JSONPublisher.FORMAT_ARRAY).subscribe(collector);
+        collector.subscription.request(0);
+        assertTrue(collector.error instanceof IllegalArgumentException);
+    }
+
+    public void testNDJSON() throws Exception {
+        String longValue = "x".repeat(20000);
+        String s = "{\"a\": 1}\r\n\n  \n[\"" + longValue + "\"]\n\"ключ\"\n{\"b\": }\n2";
+        Collector collector = new Collector(1);
+        publisher(s, JSONPublisher.FORMAT_NDJSON).subscribe(collector);
+        assertEquals(3, collector.elements.size());
+        assertEquals(1L, ((JSONObject) collector.elements.get(0)).get("a"));
+        assertEquals(longValue, ((JSONArray) collector.elements.get(1)).get(0));
+        assertEquals("ключ", collector.elements.get(2));
+        NDJSONReader.RecordException e = (NDJSONReader.RecordException) collector.error;
+        assertEquals(s.substring(0, s.indexOf("{\"b\"")).getBytes(StandardCharsets.UTF_8).length, e.getOffset());
+
+        collector = new Collector(Long.MAX_VALUE);
+        publisher("1\n2\n\n3", JSONPublisher.FORMAT_NDJSON).subscribe(collector);
+        assertEquals(List.of(1L, 2L, 3L), collector.elements);
+        assertTrue(collector.complete);
+
+        // a few bytes per read, the search for the end of a line resumes where the previous read stopped
+        StringBuilder sb = new StringBuilder();
+        List<Object> expected = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            String value = "y".repeat(i * 1000) + i;
+            sb.append('"').append(value).append("\"\n");
+            expected.add(value);
+        }
+        byte[] bytes = sb.toString().getBytes(StandardCharsets.UTF_8);
+        ReadableByteChannel trickle = new ReadableByteChannel() {
+            int position;
+
+            public int read(ByteBuffer dst) {
+                if (position == bytes.length)
+                    return -1;
+                int n = Math.min(Math.min(dst.remaining(), 1 + position % 7), bytes.length - position);
+                dst.put(bytes, position, n);
+                position += n;
+                return n;
+            }
+
+            public boolean isOpen() {
+                return true;
+            }
+
+            public void close() {
+            }
+        };
+        collector = new Collector(Long.MAX_VALUE);
+        new JSONPublisher(trickle, JSONPublisher.FORMAT_NDJSON, DIRECT).subscribe(collector);
+        assertEquals(expected, collector.elements);
+        assertTrue(collector.complete);
+    }
+
+    public void testLimits() throws Exception {
+        // a line without a line feed fails once it is longer than a document may be, not at the end of the input
+        ReadableByteChannel endless = new ReadableByteChannel() {
+            public int read(ByteBuffer dst) {
+                int n = dst.remaining();
+                while (dst.hasRemaining())
+                    dst.put((byte) ' ');
+                return n;
+            }
+
+            public boolean isOpen() {
+                return true;
+            }
+
+            public void close() {
+            }
+        };
+        Collector collector = new Collector(Long.MAX_VALUE);
+        JSONPublisher publisher = new JSONPublisher(endless, JSONPublisher.FORMAT_NDJSON, DIRECT);
+        publisher.setLimits(ParserLimits.NONE.withMaxDocumentSize(100000));
+        publisher.subscribe(collector);
+        NDJSONReader.RecordException e = (NDJSONReader.RecordException) collector.error;
+        assertEquals(0, e.getOffset());
+        assertEquals(ParseException.ERROR_LIMIT_EXCEEDED, ((ParseException) e.getCause()).getErrorType());
+
+        collector = new Collector(Long.MAX_VALUE);
+        publisher = publisher("[1, 2]\n[1, 2, 3]\n", JSONPublisher.FORMAT_NDJSON);
+        publisher.setLimits(ParserLimits.NONE.withMaxEntries(2));
+        publisher.subscribe(collector);
+        assertEquals(List.of(List.of(1L, 2L)), collector.elements);
+        assertEquals(7, ((NDJSONReader.RecordException) collector.error).getOffset());
+    }
+}
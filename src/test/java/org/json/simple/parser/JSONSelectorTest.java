@@ -0,0 +1,112 @@
+package org.json.simple.parser;
+
+import junit.framework.TestCase;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+public class JSONSelectorTest extends TestCase {
+
+    private static final String DOCUMENT = "{\"user\": {\"id\": 7, \"name\": \"caf\\u00e9\", \"tags\": [\"a\", \"b\"]},"
+            + " \"items\": [{\"price\": 1.5, \"sku\": \"x\\\"y\"}, {\"sku\": \"z\"}, {\"price\": 3, \"extra\": [[{}]]}],"
+            + " \"a/b\": 1, \"m~n\": 2, \"payload\": \"" + "\\n\\u0041".repeat(1000) + "\", \"id\": -123.5e10}";
+
+    private static JSONObject object(String key, Object value) {
+        JSONObject object = new JSONObject();
+        object.put(key, value);
+        return object;
+    }
+
+    public void testSelect() throws Exception {
+        JSONParser parser = new JSONParser();
+        JSONSelector selector = new JSONSelector("/user/id", "/items/*/price", "/a~1b", "/m~0n");
+        JSONObject expected = (JSONObject) parser.parse("{\"user\": {\"id\": 7}, \"items\": [{\"price\": 1.5}, {},"
+                + " {\"price\": 3}], \"a/b\": 1, \"m~n\": 2}");
+        assertEquals(expected, parser.parse(DOCUMENT, selector));
+        assertEquals(expected, parser.parse(new StringReader(DOCUMENT), selector, null));
+
+        JSONObject full = (JSONObject) parser.parse(DOCUMENT);
+        assertEquals(full, parser.parse(DOCUMENT, new JSONSelector("")));
+        assertEquals(object("user", full.get("user")), parser.parse(DOCUMENT, new JSONSelector("/user", "/user/id")));
+        assertEquals(object("items", JSONArray.of(new JSONObject(), object("sku", "z"))),
+                parser.parse(DOCUMENT, new JSONSelector("/items/1/sku", "/items/0/price/deeper")));
+        assertEquals(object("items", JSONArray.of(object("sku", "x\"y"), object("sku", "z"), new JSONObject())),
+                parser.parse(new StringReader(DOCUMENT), new JSONSelector("/items/*/sku"), null));
+        assertEquals(new JSONObject(), parser.parse(DOCUMENT, new JSONSelector("/missing")));
+        assertNull(parser.parse("12", new JSONSelector("/missing")));
+
+        // a specific segment does not hide a wildcard at the same level
+        assertEquals(object("items", JSONArray.of(object("price", 1.5), object("sku", "z"), object("price", 3L))),
+                parser.parse(DOCUMENT, new JSONSelector("/items/*/price", "/items/1/sku")));
+        assertEquals(parser.parse("{\"user\": {\"id\": 7, \"tags\": []}, \"items\": [{}, {}, {}]}"),
+                parser.parse(DOCUMENT, new JSONSelector("/user/id", "/*/id", "/*/*/id")));
+        assertEquals(parser.parse("{\"a\": {\"x\": 1, \"y\": 2}, \"b\": {\"y\": 4}}"),
+                parser.parse("{\"a\": {\"x\": 1, \"y\": 2, \"z\": 3}, \"b\": {\"x\": 3, \"y\": 4}}",
+                        new JSONSelector("/a/x", "/*/y")));
+
+        ContainerFactory factory = new ContainerFactory() {
+            public Map<Object, Object> createObjectContainer() {
+                return new LinkedHashMap<>();
+            }
+
+            public List<?> createArrayContainer() {
+                return new LinkedList<>();
+            }
+        };
+        Object value = parser.parse(ByteBuffer.wrap(DOCUMENT.getBytes()), new JSONSelector("/items/*/price"), factory);
+        assertTrue(value instanceof LinkedHashMap);
+        assertEquals(List.of(Map.of("price", 1.5), Map.of(), Map.of("price", 3L)), ((Map<?, ?>) value).get("items"));
+    }
+
+    public void testSymbols() throws Exception {
+        JSONParser parser = new JSONParser();
+        SymbolTable symbols = new SymbolTable();
+        parser.setKeySymbols(symbols);
+        parser.setValueSymbols(symbols);
+        JSONSelector selector = new JSONSelector("/items/*/sku");
+        JSONObject first = (JSONObject) parser.parse(DOCUMENT.getBytes(), selector);
+        JSONObject second = (JSONObject) parser.parse(DOCUMENT, selector);
+        Map.Entry<?, ?> a = (Map.Entry<?, ?>) ((JSONObject) ((List<?>) first.get("items")).get(1)).entrySet().iterator().next();
+        Map.Entry<?, ?> b = (Map.Entry<?, ?>) ((JSONObject) ((List<?>) second.get("items")).get(1)).entrySet().iterator().next();
+        assertSame(a.getKey(), b.getKey());
+        assertSame(a.getValue(), b.getValue());
+        assertTrue(symbols.getHits() > 0);
+    }
+
+    public void testErrors() throws Exception {
+        JSONParser parser = new JSONParser();
+        JSONSelector selector = new JSONSelector("/id");
+        String[] invalid = {"{\"skipped\": [1, 2}, \"id\": 1}", "{\"skipped\": \"abc", "{\"id\": 1} 2", "{\"skipped\": [tru]}"};
+        for (String s : invalid) {
+            ParseException expected = null;
+            try {
+                parser.parse(s);
+                fail(s);
+            } catch (ParseException e) {
+                expected = e;
+            }
+            try {
+                parser.parse(s, selector);
+                fail(s);
+            } catch (ParseException e) {
+                assertEquals(s, expected.getErrorType(), e.getErrorType());
+                assertEquals(s, expected.getPosition(), e.getPosition());
+            }
+        }
+
+        for (String pointer : new String[]{"user", "/a~", "/a~2"}) {
+            try {
+                new JSONSelector(pointer);
+                fail(pointer);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package org.json.simple.parser;
+
+import junit.framework.TestCase;
+import org.json.simple.JSONObject;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class NDJSONReaderTest extends TestCase {
+
+    private static String records(int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append("{\"id\": ").append(i).append(", \"name\": \"record ").append(i).append("\", \"tags\": [1, 2]}");
+            // blank lines and CRLF line ends are accepted
+            sb.append(i % 10 == 0 ? "\r\n\n" : "\n");
+        }
+        return sb.toString();
+    }
+
+    private static List<Long> ids(Stream<Object> records) {
+        return records.map(record -> ((JSONObject) record).getLong("id")).collect(Collectors.toList());
+    }
+
+    public void testStream() throws Exception {
+        int count = 5000;
+        List<Long> expected = new ArrayList<>();
+        for (long i = 0; i < count; i++)
+            expected.add(i);
+
+        NDJSONReader reader = new NDJSONReader(records(count).getBytes(StandardCharsets.UTF_8));
+        reader.setChunkSize(1000);
+        reader.setPool(new ForkJoinPool(4));
+        try (Stream<Object> records = reader.stream()) {
+            assertEquals(expected, ids(records));
+        }
+        try (Stream<Object> records = reader.stream(false)) {
+            assertEquals(expected, ids(records).stream().sorted().collect(Collectors.toList()));
+        }
+        try (Stream<Object> records = reader.stream()) {
+            assertEquals(List.of(0L, 1L, 2L), ids(records.limit(3)));
+        }
+    }
+
+    public void testFileAndHandlers() throws Exception {
+        int count = 3000;
+        Path file = Files.createTempFile("json-simple", ".ndjson");
+        try {
+            Files.write(file, records(count).getBytes(StandardCharsets.UTF_8));
+            try (NDJSONReader reader = new NDJSONReader(file)) {
+                reader.setChunkSize(777);
+                assertEquals(count, reader.stream().count());
+
+                AtomicLong objects = new AtomicLong();
+                AtomicLong ids = new AtomicLong();
+                reader.parse(() -> new ContentHandlerAdapter() {
+                    private boolean id;
+
+                    @Override
+                    public boolean startObject() {
+                        objects.incrementAndGet();
+                        return true;
+                    }
+
+                    @Override
+                    public boolean startObjectEntry(String key) {
+                        id = key.equals("id");
+                        return true;
+                    }
+
+                    @Override
+                    public boolean primitive(Object value) {
+                        if (id)
+                            ids.addAndGet((Long) value);
+                        id = false;
+                        return true;
+                    }
+                });
+                assertEquals(count, objects.get());
+                assertEquals((long) count * (count - 1) / 2, ids.get());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    public void testInvalidRecord() throws Exception {
+        String s = "{\"a\": 1}\n[1, 2]\n{\"b\": }\n\"x\"\n";
+        NDJSONReader reader = new NDJSONReader(s.getBytes(StandardCharsets.UTF_8));
+        try (Stream<Object> records = reader.stream()) {
+            records.count();
+            fail();
+        } catch (NDJSONReader.RecordException e) {
+            assertEquals(16, e.getOffset());
+            ParseException pe = (ParseException) e.getCause();
+            assertEquals(ParseException.ERROR_UNEXPECTED_TOKEN, pe.getErrorType());
+            assertEquals(6, pe.getPosition());
+        }
+    }
+
+    private static class ContentHandlerAdapter implements ContentHandler {
+        @Override
+        public void startJSON() {
+        }
+
+        @Override
+        public void endJSON() {
+        }
+
+        @Override
+        public boolean startObject() {
+            return true;
+        }
+
+        @Override
+        public boolean endObject() {
+            return true;
+        }
+
+        @Override
+        public boolean startObjectEntry(String key) {
+            return true;
+        }
+
+        @Override
+        public boolean endObjectEntry() {
+            return true;
+        }
+
+        @Override
+        public boolean startArray() {
+            return true;
+        }
+
+        @Override
+        public boolean endArray() {
+            return true;
+        }
+
+        @Override
+        public boolean primitive(Object value) {
+            return true;
+        }
+    }
+}
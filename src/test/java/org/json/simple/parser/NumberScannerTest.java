@@ -0,0 +1,113 @@
+package org.json.simple.parser;
+
+import junit.framework.TestCase;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONNumber;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+public class NumberScannerTest extends TestCase {
+
+    private static Number scan(String s, NumberMode mode) {
+        Number fromChars = NumberScanner.scan(s.toCharArray(), 0, s.length(), mode);
+        Number fromBytes = NumberScanner.scan(ByteBuffer.wrap(s.getBytes(StandardCharsets.US_ASCII)), 0, s.length(), mode);
+        assertEquals(s, fromChars, fromBytes);
+        return fromChars;
+    }
+
+    private static void assertDouble(String s) {
+        assertEquals(s, Double.valueOf(s), scan(s, NumberMode.DEFAULT));
+    }
+
+    public void testIntegers() {
+        assertEquals(0L, scan("0", NumberMode.DEFAULT));
+        assertEquals(0L, scan("-0", NumberMode.DEFAULT));
+        assertEquals(-12L, scan("-12", NumberMode.DEFAULT));
+        assertEquals(Long.MAX_VALUE, scan("9223372036854775807", NumberMode.DEFAULT));
+        assertEquals(Long.MIN_VALUE, scan("-9223372036854775808", NumberMode.DEFAULT));
+        try {
+            scan("9223372036854775808", NumberMode.DEFAULT);
+            fail();
+        } catch (NumberFormatException e) {
+            // expected
+        }
+        try {
+            scan("-123456789012345678901234567890", NumberMode.DEFAULT);
+            fail();
+        } catch (NumberFormatException e) {
+            // expected
+        }
+    }
+
+    public void testDoubles() {
+        String[] cases = {
+                "0.0", "-0.0", "1.5", "-0.25e+3", "1E2", "1e-400", "1e400", "-1e400", "4.9e-324", "2.4e-324",
+                "2.2250738585072011e-308", "2.2250738585072014e-308", "1.7976931348623157e308", "1.7976931348623159e308",
+                "9007199254740993.0", "9007199254740993e0", "123456789012345678.5", "0.1000000000000000055511151231257827",
+                "3.141592653589793238462643383279502884197", "1.00000000000000011102230246251565404236316680908203125",
+                "1.00000000000000011102230246251565404236316680908203124", "7.2057594037927933e16",
+                "0.000000000000000000000000000000000000000001", "100000000000000000000000000000000e-20",
+                "18446744073709551615e0", "18446744073709551616e0"
+        };
+        for (String s : cases)
+            assertDouble(s);
+    }
+
+    public void testRandomDoubles() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            double d = Double.longBitsToDouble(random.nextLong());
+            if (Double.isNaN(d) || Double.isInfinite(d))
+                continue;
+            assertDouble(Double.toString(d));
+            BigDecimal rounded = new BigDecimal(d).round(new MathContext(1 + random.nextInt(19)));
+            assertDouble(rounded.unscaledValue() + "e" + -rounded.scale());
+        }
+        for (int i = 0; i < 100_000; i++)
+            assertDouble(random.nextInt(1_000_000) + "." + random.nextInt(1_000_000) + "e" + (random.nextInt(640) - 320));
+    }
+
+    public void testModes() {
+        assertEquals(12.0, scan("12", NumberMode.DOUBLE));
+        assertEquals(1e20, scan("100000000000000000000", NumberMode.DOUBLE));
+        assertEquals(new BigDecimal("1.50"), scan("1.50", NumberMode.BIG_DECIMAL));
+        assertEquals(new BigDecimal("12"), scan("12", NumberMode.BIG_DECIMAL));
+        assertEquals(new JSONNumber("1.50"), scan("1.50", NumberMode.LAZY));
+
+        assertEquals(12L, scan("12", NumberMode.WIDEN));
+        assertEquals(new BigInteger("100000000000000000000"), scan("100000000000000000000", NumberMode.WIDEN));
+        assertEquals(1.5, scan("1.5", NumberMode.WIDEN));
+        assertEquals(new BigDecimal("0.1000000000000000055511151231257827"),
+                scan("0.1000000000000000055511151231257827", NumberMode.WIDEN));
+        assertEquals(new BigDecimal("1e400"), scan("1e400", NumberMode.WIDEN));
+        assertEquals(new BigDecimal("1e-320"), scan("1e-320", NumberMode.WIDEN));
+    }
+
+    public void testParserOverflow() throws Exception {
+        JSONParser parser = new JSONParser();
+        for (int round = 0; round < 2; round++) {
+            try {
+                if (round == 0)
+                    parser.parse("[1, 99999999999999999999]");
+                else
+                    parser.parse("[1, 99999999999999999999]".getBytes(StandardCharsets.UTF_8));
+                fail();
+            } catch (ParseException pe) {
+                assertEquals(ParseException.ERROR_UNEXPECTED_EXCEPTION, pe.getErrorType());
+                assertEquals(4, pe.getPosition());
+                assertTrue(pe.getUnexpectedObject() instanceof NumberFormatException);
+            }
+        }
+
+        parser.setNumberMode(NumberMode.WIDEN);
+        JSONArray array = (JSONArray) parser.parse("[1, 99999999999999999999, 0.5]");
+        assertEquals(1L, array.get(0));
+        assertEquals(new BigInteger("99999999999999999999"), array.get(1));
+        assertEquals(0.5, array.get(2));
+    }
+}
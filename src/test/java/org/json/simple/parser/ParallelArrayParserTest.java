@@ -0,0 +1,107 @@
+package org.json.simple.parser;
+
+import junit.framework.TestCase;
+import org.json.simple.JSONArray;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+
+public class ParallelArrayParserTest extends TestCase {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    private static String records(int count) {
+        StringBuilder sb = new StringBuilder("\n [");
+        for (int i = 0; i < count; i++) {
+            if (i > 0)
+                sb.append(",\n");
+            // commas inside strings and nested arrays look like element boundaries too
+            sb.append("{\"id\": ").append(i).append(", \"text\": \"a, 1, {\\\"b\\\": 2}, [3], \\\"ключ\\\", 4\"")
+                    .append(", \"values\": [").append(i).append(", 2.5, -3, true, null, [\"x\", 5], {\"y\": 6}]}");
+        }
+        return sb.append("] \n").toString();
+    }
+
+    public void testSameAsSequential() throws Exception {
+        byte[] bytes = records(20000).getBytes(StandardCharsets.UTF_8);
+        JSONParser parser = new JSONParser();
+        Object expected = parser.parse(bytes);
+        Object actual = parser.parseParallel(bytes, POOL);
+        assertTrue(actual instanceof JSONArray);
+        assertEquals(expected, actual);
+
+        // a single string that covers most of the array
+        String s = "[1, \"" + "1, 2, ".repeat(100000) + "\", 2]";
+        bytes = s.getBytes(StandardCharsets.UTF_8);
+        assertEquals(parser.parse(bytes), parser.parseParallel(bytes, POOL));
+
+        // strings that cover most cuts, after one wrong cut the rest is parsed sequentially
+        s = "[" + ("\"" + "1, 2, ".repeat(30000) + "\", 3").repeat(8).replace("3\"", "3, \"") + "]";
+        bytes = s.getBytes(StandardCharsets.UTF_8);
+        assertEquals(parser.parse(bytes), parser.parseParallel(bytes, POOL));
+
+        assertEquals(parser.parse("{\"a\": 1}"), parser.parseParallel("{\"a\": 1}".getBytes(StandardCharsets.UTF_8), POOL));
+        assertEquals(parser.parse("[1, 2]"), parser.parseParallel("[1, 2]".getBytes(StandardCharsets.UTF_8), POOL));
+    }
+
+    public void testContainerFactoryAndBuffer() throws Exception {
+        byte[] bytes = ("xx" + records(5000)).getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+        buffer.position(2);
+        ContainerFactory factory = new ContainerFactory() {
+            @Override
+            public Map<Object, Object> createObjectContainer() {
+                return new TreeMap<>();
+            }
+
+            @Override
+            public List<Object> createArrayContainer() {
+                return new LinkedList<>();
+            }
+        };
+        JSONParser parser = new JSONParser();
+        Object expected = parser.parse(buffer, factory);
+        Object actual = parser.parseParallel(buffer, factory, POOL);
+        assertTrue(actual instanceof LinkedList);
+        assertTrue(((List<?>) actual).get(0) instanceof TreeMap);
+        assertEquals(expected, actual);
+        assertEquals(2, buffer.position());
+    }
+
+    public void testErrors() throws Exception {
+        String valid = records(5000);
+        int middle = valid.indexOf("{\"id\": 2500,");
+        String[] invalid = {
+                valid.substring(0, middle) + "{\"id\": }" + valid.substring(middle),
+                valid.substring(0, middle) + "\"unterminated" + valid.substring(middle),
+                valid.substring(0, middle) + "[99999999999999999999], " + valid.substring(middle),
+                valid.substring(0, middle) + "]], " + valid.substring(middle),
+                valid.replace("] \n", "]] \n"),
+                valid.replace("] \n", " \n"),
+        };
+        JSONParser parser = new JSONParser();
+        for (String s : invalid) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            ParseException expected = null;
+            try {
+                parser.parse(bytes);
+                fail();
+            } catch (ParseException e) {
+                expected = e;
+            }
+            try {
+                parser.parseParallel(bytes, POOL);
+                fail();
+            } catch (ParseException e) {
+                assertEquals(expected.getErrorType(), e.getErrorType());
+                assertEquals(expected.getPosition(), e.getPosition());
+                assertEquals(String.valueOf(expected.getUnexpectedObject()), String.valueOf(e.getUnexpectedObject()));
+            }
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package org.json.simple.parser;
+
+import junit.framework.TestCase;
+import org.json.simple.JSONArray;
+
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class ParserLimitsTest extends TestCase {
+
+    private static void assertExceeded(JSONParser parser, String s, String limit) throws Exception {
+        try {
+            parser.parse(s);
+            fail("chars: " + limit);
+        } catch (ParseException e) {
+            assertEquals(ParseException.ERROR_LIMIT_EXCEEDED, e.getErrorType());
+            assertTrue(String.valueOf(e.getUnexpectedObject()), String.valueOf(e.getUnexpectedObject()).startsWith(limit));
+        }
+        try {
+            parser.parse(s.getBytes(StandardCharsets.UTF_8));
+            fail("bytes: " + limit);
+        } catch (ParseException e) {
+            assertEquals(ParseException.ERROR_LIMIT_EXCEEDED, e.getErrorType());
+            assertTrue(String.valueOf(e.getUnexpectedObject()), String.valueOf(e.getUnexpectedObject()).startsWith(limit));
+        }
+        try {
+            parser.parse(new StringReader(s));
+            fail("reader: " + limit);
+        } catch (ParseException e) {
+            assertEquals(ParseException.ERROR_LIMIT_EXCEEDED, e.getErrorType());
+        }
+    }
+
+    private static void assertParses(JSONParser parser, String s) throws Exception {
+        Object expected = new JSONParser().parse(s);
+        assertEquals(expected, parser.parse(s));
+        assertEquals(expected, parser.parse(s.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(expected, parser.parse(new StringReader(s)));
+    }
+
+    public void testDepth() throws Exception {
+        JSONParser parser = new JSONParser();
+        parser.setLimits(ParserLimits.NONE.withMaxDepth(3));
+        assertParses(parser, "[{\"a\": [1]}, [[2], [3]], {}]");
+        assertExceeded(parser, "[{\"a\": [[1]]}]", "depth");
+        assertExceeded(parser, "[".repeat(100000), "depth");
+    }
+
+    public void testEntries() throws Exception {
+        JSONParser parser = new JSONParser();
+        parser.setLimits(ParserLimits.NONE.withMaxEntries(2));
+        assertParses(parser, "[[1, 2], {\"a\": [], \"b\": {\"c\": 3, \"d\": 4}}]");
+        assertExceeded(parser, "[1, 2, 3]", "entries");
+        assertExceeded(parser, "{\"a\": 1, \"b\": 2, \"c\": 3}", "entries");
+        assertExceeded(parser, "[[1], [2, [3, 4, 5]]]", "entries");
+    }
+
+    public void testStringLength() throws Exception {
+        JSONParser parser = new JSONParser();
+        parser.setLimits(ParserLimits.NONE.withMaxStringLength(4));
+        assertParses(parser, "{\"abcd\": \"\\u0041\\né€\"}");
+        assertExceeded(parser, "[\"abcde\"]", "string length");
+        assertExceeded(parser, "{\"abcde\": 1}", "string length");
+        assertExceeded(parser, "[\"ab\\ncd\"]", "string length");
+
+        // the lexer refuses to grow its buffer for a string longer than any limit
+        parser.setLimits(ParserLimits.NONE.withMaxStringLength(20000));
+        assertExceeded(parser, "[\"" + "x".repeat(1 << 20) + "\"]", "string length");
+        assertParses(parser, "[\"" + "x".repeat(20000) + "\"]");
+    }
+
+    private static void assertLazyExceeded(JSONParser parser, String s, String limit) {
+        try {
+            parser.parseLazy(ByteBuffer.wrap(s.getBytes(StandardCharsets.UTF_8)));
+            fail("lazy: " + limit);
+        } catch (ParseException e) {
+            assertEquals(ParseException.ERROR_LIMIT_EXCEEDED, e.getErrorType());
+            assertTrue(String.valueOf(e.getUnexpectedObject()), String.valueOf(e.getUnexpectedObject()).startsWith(limit));
+        }
+    }
+
+    public void testLazy() throws Exception {
+        JSONParser parser = new JSONParser();
+        parser.setLimits(ParserLimits.NONE.withMaxStringLength(4).withMaxNumberLength(5));
+        // the length of a string is counted in chars, like the other parses do
+        String s = "{\"abcd\": [\"\\u0041\\né€\", \"\uD83D\uDE00ab\", 12345]}";
+        assertEquals(new JSONParser().parse(s), parser.parseLazy(ByteBuffer.wrap(s.getBytes(StandardCharsets.UTF_8))));
+        assertLazyExceeded(parser, "[\"abcdefgh\"]", "string length");
+        assertLazyExceeded(parser, "{\"abcde\": 1}", "string length");
+        assertLazyExceeded(parser, "[\"ab\\ncd\"]", "string length");
+        assertLazyExceeded(parser, "[\"é€é€é\"]", "string length");
+        assertLazyExceeded(parser, "[123456]", "number length");
+        parser.setLimits(ParserLimits.NONE.withMaxDocumentSize(5));
+        assertLazyExceeded(parser, "[1, 2]", "document size");
+    }
+
+    public void testLongWhitespace() throws Exception {
+        JSONParser parser = new JSONParser();
+        parser.setLimits(ParserLimits.NONE.withMaxStringLength(10).withMaxNumberLength(10));
+        String whitespace = " \n\t\r".repeat(10000);
+        assertParses(parser, whitespace + "[1," + whitespace + "\"a\"" + whitespace + "]" + whitespace);
+        assertExceeded(parser, "[1," + whitespace + "\"" + "x".repeat(40000) + "\"]", "string length");
+        assertExceeded(parser, "[1," + whitespace + "1" + "0".repeat(40000) + "]", "number length");
+
+        // whitespace is still limited by the size of the document
+        parser.setLimits(ParserLimits.NONE.withMaxDocumentSize(50000));
+        assertExceeded(parser, "[1," + whitespace.repeat(2) + "2]", "document size");
+    }
+
+    public void testNumberLength() throws Exception {
+        JSONParser parser = new JSONParser();
+        parser.setLimits(ParserLimits.NONE.withMaxNumberLength(5));
+        assertParses(parser, "[12345, -1.5, 1e10]");
+        assertExceeded(parser, "[123456]", "number length");
+        assertExceeded(parser, "[1" + "0".repeat(100000) + "]", "number length");
+    }
+
+    public void testDocumentSize() throws Exception {
+        JSONParser parser = new JSONParser();
+        String s = "[1, 2, 3]";
+        parser.setLimits(ParserLimits.NONE.withMaxDocumentSize(s.length()));
+        assertParses(parser, s);
+        assertExceeded(parser, s + " ", "document size");
+        assertExceeded(parser, "[1, 2, 34]", "document size");
+    }
+
+    private static void assertSelectExceeded(JSONParser parser, String s, JSONSelector selector, String limit)
+            throws Exception {
+        for (int i = 0; i < 3; i++) {
+            try {
+                if (i == 0)
+                    parser.parse(s, selector);
+                else if (i == 1)
+                    parser.parse(s.getBytes(StandardCharsets.UTF_8), selector);
+                else
+                    parser.parse(new StringReader(s), selector, null);
+                fail(i + ": " + limit);
+            } catch (ParseException e) {
+                assertEquals(ParseException.ERROR_LIMIT_EXCEEDED, e.getErrorType());
+                assertTrue(String.valueOf(e.getUnexpectedObject()), String.valueOf(e.getUnexpectedObject()).startsWith(limit));
+            }
+        }
+    }
+
+    public void testSelector() throws Exception {
+        JSONParser parser = new JSONParser();
+        JSONSelector selector = new JSONSelector("/a");
+        parser.setLimits(ParserLimits.NONE.withMaxDepth(3).withMaxEntries(2).withMaxStringLength(3));
+        assertEquals(1L, ((Map<?, ?>) parser.parse("{\"a\": 1, \"b\": [[2]]}", selector)).get("a"));
+        // the skipped values are checked as well
+        assertSelectExceeded(parser, "{\"a\": 1, \"b\": [[[2]]]}", selector, "depth");
+        assertSelectExceeded(parser, "{\"a\": 1, \"b\": [1, 2, 3]}", selector, "entries");
+        assertSelectExceeded(parser, "{\"a\": \"abcd\"}", selector, "string length");
+        parser.setLimits(ParserLimits.NONE.withMaxDocumentSize(10));
+        assertSelectExceeded(parser, "{\"a\": 1, \"b\": 2}", selector, "document size");
+
+        JSONCursor cursor = new JSONCursor("[[1, 2, 3]]");
+        cursor.setLimits(ParserLimits.NONE.withMaxEntries(2));
+        cursor.nextToken();
+        try {
+            cursor.skipValue();
+            fail();
+        } catch (ParseException e) {
+            assertEquals(ParseException.ERROR_LIMIT_EXCEEDED, e.getErrorType());
+        }
+    }
+
+    public void testContentHandler() throws Exception {
+        JSONParser parser = new JSONParser();
+        parser.setLimits(ParserLimits.NONE.withMaxDepth(3).withMaxEntries(3));
+        final List<Object> primitives = new ArrayList<>();
+        ContentHandler handler = new ContentHandler() {
+            public void startJSON() {
+            }
+
+            public void endJSON() {
+            }
+
+            public boolean startObject() {
+                return true;
+            }
+
+            public boolean endObject() {
+                return true;
+            }
+
+            public boolean startObjectEntry(String key) {
+                return true;
+            }
+
+            public boolean endObjectEntry() {
+                return true;
+            }
+
+            public boolean startArray() {
+                // skipped values are checked as well
+                parser.skipValue();
+                return true;
+            }
+
+            public boolean endArray() {
+                return true;
+            }
+
+            public boolean primitive(Object value) {
+                primitives.add(value);
+                return true;
+            }
+        };
+        parser.parse("{\"a\": 1, \"b\": [[2]]}", handler);
+        assertEquals(List.of(1L), primitives);
+        try {
+            parser.parse("{\"a\": [[[2]]]}", handler);
+            fail();
+        } catch (ParseException e) {
+            assertEquals(ParseException.ERROR_LIMIT_EXCEEDED, e.getErrorType());
+        }
+        try {
+            parser.parse("{\"a\": [1, 2, 3, 4]}", handler);
+            fail();
+        } catch (ParseException e) {
+            assertEquals(ParseException.ERROR_LIMIT_EXCEEDED, e.getErrorType());
+        }
+    }
+
+    public void testReuse() throws Exception {
+        JSONParser parser = new JSONParser();
+        parser.setLimits(ParserLimits.NONE.withMaxDepth(2).withMaxEntries(2));
+        assertExceeded(parser, "[[1, 2, 3]]", "entries");
+        assertEquals(2, ((JSONArray) parser.parse("[[1, 2], [3]]")).size());
+        parser.setLimits(ParserLimits.NONE);
+        assertEquals(1, ((JSONArray) parser.parse("[[[1, 2, 3]]]")).size());
+    }
+
+    public void testArguments() {
+        try {
+            ParserLimits.NONE.withMaxDepth(0);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            ParserLimits.NONE.withMaxEntries(-1);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            ParserLimits.NONE.withMaxDocumentSize(0);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        ParserLimits limits = ParserLimits.NONE.withMaxStringLength(0).withMaxNumberLength(1);
+        assertEquals(0, limits.getMaxStringLength());
+        assertEquals(1, limits.getMaxNumberLength());
+        assertEquals(Integer.MAX_VALUE, limits.getMaxDepth());
+        assertEquals(Integer.MAX_VALUE, ParserLimits.NONE.getMaxEntries());
+    }
+}
@@ -0,0 +1,101 @@
+package org.json.simple.parser;
+
+import junit.framework.TestCase;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+public class SymbolTableTest extends TestCase {
+
+    private static final String DOCUMENT = "[{\"id\": 1, \"name\": \"id\", \"caf\\u00e9\": 1, \"ключ\": 2},"
+            + " {\"id\": 2, \"name\": \"id\", \"café\": 3, \"ключ\": 4}]";
+
+    private static Object key(JSONObject object, String key) {
+        for (Map.Entry<Object, Object> entry : object.entrySet()) {
+            if (entry.getKey().equals(key))
+                return entry.getKey();
+        }
+        throw new AssertionError(key);
+    }
+
+    private static void assertInterned(Object parsed) {
+        JSONArray array = (JSONArray) parsed;
+        JSONObject first = array.child(0), second = array.child(1);
+        for (String key : new String[]{"id", "name", "café", "ключ"})
+            assertSame(key, key(first, key), key(second, key));
+        // values are not interned
+        assertNotSame(first.get("name"), second.get("name"));
+        assertNotSame(key(first, "id"), first.get("name"));
+    }
+
+    public void testKeys() throws Exception {
+        JSONParser parser = new JSONParser();
+        parser.setKeySymbols(new SymbolTable());
+        assertInterned(parser.parse(DOCUMENT));
+        assertInterned(parser.parse(new StringReader(DOCUMENT)));
+        byte[] bytes = DOCUMENT.getBytes(StandardCharsets.UTF_8);
+        assertInterned(parser.parse(bytes));
+        assertInterned(parser.parse(ByteBuffer.allocateDirect(bytes.length).put(bytes).flip()));
+
+        // parsers can share a table
+        JSONParser other = new JSONParser();
+        other.setKeySymbols(parser.getKeySymbols());
+        assertSame(key((JSONObject) parser.parse("{\"k\": 1}"), "k"), key((JSONObject) other.parse("{\"k\": 2}"), "k"));
+
+        parser.setKeySymbols(null);
+        JSONArray array = (JSONArray) parser.parse(bytes);
+        assertNotSame(key(array.child(0), "id"), key(array.child(1), "id"));
+        assertEquals(array, parser.parse(DOCUMENT));
+    }
+
+    public void testValues() throws Exception {
+        SymbolTable values = new SymbolTable(64, 8);
+        JSONParser parser = new JSONParser();
+        parser.setValueSymbols(values);
+        String s = "[\"OK\", {\"status\": \"OK\", \"OK\": \"a long value\"}, [\"OK\"], \"a long value\"]";
+        for (Object parsed : new Object[]{parser.parse(s), parser.parse(s.getBytes(StandardCharsets.UTF_8))}) {
+            JSONArray array = (JSONArray) parsed;
+            JSONObject object = array.child(1);
+            assertSame(array.get(0), object.get("status"));
+            assertSame(array.get(0), array.array(2).get(0));
+            // keys and values longer than the maximum length are not deduplicated
+            assertNotSame(array.get(0), key(object, "OK"));
+            assertNotSame(array.get(3), object.get("OK"));
+        }
+        assertEquals(1, values.getMisses());
+        assertEquals(5, values.getHits());
+        values.clear();
+        assertEquals(0, values.getHits());
+        assertEquals(0, values.getMisses());
+    }
+
+    public void testBounds() throws Exception {
+        SymbolTable symbols = new SymbolTable(3, 4);
+        assertEquals(4, symbols.getCapacity());
+        String abcd = symbols.intern("abcd");
+        assertSame(abcd, symbols.intern(new StringBuilder("abcd")));
+        ByteBuffer bytes = ByteBuffer.wrap("xabcdex".getBytes(StandardCharsets.US_ASCII));
+        assertSame(abcd, symbols.intern(bytes, 1, 5));
+        assertEquals("abcde", symbols.intern(bytes, 1, 6));
+        assertNotSame(symbols.intern(bytes, 1, 6), symbols.intern(bytes, 1, 6));
+
+        // the table does not grow, older strings are replaced
+        String zero = symbols.intern(new StringBuilder("0"));
+        for (int i = 1; i < 1000; i++)
+            assertEquals(String.valueOf(i), symbols.intern(new StringBuilder().append(i)));
+        assertNotSame(zero, symbols.intern(new StringBuilder("0")));
+
+        symbols.clear();
+        assertNotSame(abcd, symbols.intern(new StringBuilder("abcd")));
+        try {
+            new SymbolTable(1, 4);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}
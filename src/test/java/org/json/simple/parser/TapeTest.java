@@ -0,0 +1,116 @@
+package org.json.simple.parser;
+
+import junit.framework.TestCase;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+public class TapeTest extends TestCase {
+
+    private static final String DOCUMENT = "{\"id\": 7, \"name\": \"caf\\u00e9\", \"ключ\": \"значение\", \"ok\": true,"
+            + " \"none\": null, \"items\": [1, 2.5, {\"deep\": [\"x\"]}, [], {}], \"dup\": 1, \"dup\": 2,"
+            + " \"quote\\\"d\": \"q\", \"big\": 12345678901234567}";
+
+    public void testViews() throws Exception {
+        JSONParser parser = new JSONParser();
+        JSONObject object = (JSONObject) parser.parseLazy(DOCUMENT);
+
+        assertEquals(7L, object.get("id"));
+        assertEquals(7L, object.getLong("id"));
+        assertEquals("café", object.getString("name"));
+        assertEquals("значение", object.getString("ключ"));
+        assertTrue(object.getBoolean("ok"));
+        assertTrue(object.isNull("none"));
+        assertTrue(object.containsKey("none"));
+        assertFalse(object.containsKey("missing"));
+        assertEquals("d", object.getString("missing", "d"));
+        assertEquals(2L, object.get("dup"));
+        assertEquals("q", object.get("quote\"d"));
+        assertNull(object.get("quote"));
+        assertEquals(12345678901234567L, object.getLong("big"));
+
+        JSONArray items = object.array("items");
+        assertEquals(5, items.size());
+        assertEquals(2.5, items.get(1));
+        assertEquals("x", items.child(2).array("deep").getString(0));
+        assertTrue(items.array(3).isEmpty());
+        assertTrue(items.child(4).isEmpty());
+
+        assertEquals(parser.parse(DOCUMENT), object);
+        assertEquals(object, parser.parse(DOCUMENT));
+        assertEquals(parser.parse(DOCUMENT), parser.parse(object.toJSONString()));
+        assertEquals(9, object.size());
+    }
+
+    public void testReadOnly() throws Exception {
+        JSONObject object = (JSONObject) new JSONParser().parseLazy("{\"a\": [1, 2]}");
+        try {
+            object.put("b", 1);
+            fail();
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        try {
+            object.entrySet().iterator().next().setValue(1);
+            fail();
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        JSONArray array = object.array("a");
+        Iterator<Object> iterator = array.iterator();
+        iterator.next();
+        try {
+            iterator.remove();
+            fail();
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        try {
+            array.subList(0, 1).set(0, 3);
+            fail();
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        assertEquals("[1,2]", array.toJSONString());
+    }
+
+    public void testPrimitivesAndBuffers() throws Exception {
+        JSONParser parser = new JSONParser();
+        assertEquals("text", parser.parseLazy("\"text\""));
+        assertEquals(-3L, parser.parseLazy(" -3 "));
+
+        byte[] bytes = "xx[1, [2], 3]".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.position(2);
+        JSONArray array = (JSONArray) parser.parseLazy(buffer);
+        assertEquals(3L, array.get(2));
+        assertEquals(2L, array.array(1).get(0));
+        assertEquals(2, buffer.position());
+    }
+
+    public void testErrors() throws Exception {
+        JSONParser parser = new JSONParser();
+        String[] invalid = {"", "{", "[1,", "{\"a\" 1 2}", "{1: 2}", "[1] 2", "{\"a\": }", "[\"abc", "[tru]",
+                "[99999999999999999999]"};
+        for (String s : invalid) {
+            ParseException expected = null;
+            try {
+                parser.parse(s.getBytes(StandardCharsets.UTF_8));
+                fail(s);
+            } catch (ParseException e) {
+                expected = e;
+            }
+            try {
+                parser.parseLazy(s);
+                fail(s);
+            } catch (ParseException e) {
+                assertEquals(s, expected.getErrorType(), e.getErrorType());
+                assertEquals(s, expected.getPosition(), e.getPosition());
+                assertEquals(s, String.valueOf(expected.getUnexpectedObject()), String.valueOf(e.getUnexpectedObject()));
+            }
+        }
+    }
+}
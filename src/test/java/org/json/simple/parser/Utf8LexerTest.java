@@ -0,0 +1,162 @@
+package org.json.simple.parser;
+
+import junit.framework.TestCase;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+public class Utf8LexerTest extends TestCase {
+
+    private static Utf8Lexer lexer(String s) {
+        Utf8Lexer lexer = new Utf8Lexer();
+        lexer.reset(ByteBuffer.wrap(s.getBytes(StandardCharsets.UTF_8)));
+        return lexer;
+    }
+
+    public void testYylex() throws Exception {
+        Utf8Lexer lexer = lexer("\"\\/\"");
+        Yytoken token = lexer.yylex();
+        assertEquals(Yytoken.TYPE_VALUE, token.type);
+        assertEquals("/", token.value);
+
+        lexer = lexer("\"abc\\/\\r\\b\\n\\t\\f\\\\\"");
+        token = lexer.yylex();
+        assertEquals(Yytoken.TYPE_VALUE, token.type);
+        assertEquals("abc/\r\b\n\t\f\\", token.value);
+
+        lexer = lexer("[\t \n\r\n{ \t \t\n\r}");
+        assertEquals(Yytoken.TYPE_LEFT_SQUARE, lexer.yylex().type);
+        assertEquals(Yytoken.TYPE_LEFT_BRACE, lexer.yylex().type);
+        assertEquals(Yytoken.TYPE_RIGHT_BRACE, lexer.yylex().type);
+        assertNull(lexer.yylex());
+
+        lexer = lexer("\b\f{");
+        try {
+            lexer.yylex();
+            fail();
+        } catch (ParseException e) {
+            assertEquals(ParseException.ERROR_UNEXPECTED_CHAR, e.getErrorType());
+            assertEquals(0, e.getPosition());
+            assertEquals('\b', e.getUnexpectedObject());
+        }
+
+        lexer = lexer("{a : b}");
+        try {
+            lexer.yylex();
+            lexer.yylex();
+            fail();
+        } catch (ParseException e) {
+            assertEquals(ParseException.ERROR_UNEXPECTED_CHAR, e.getErrorType());
+            assertEquals('a', e.getUnexpectedObject());
+            assertEquals(1, e.getPosition());
+        }
+    }
+
+    public void testMultiByte() throws Exception {
+        String s = "\"Привет, 世界 \uD83D\uDE00 \\u4e2d\"";
+        Yytoken token = lexer(s).yylex();
+        assertEquals("Привет, 世界 \uD83D\uDE00 中", token.value);
+
+        Utf8Lexer lexer = new Utf8Lexer();
+        lexer.reset(ByteBuffer.wrap(new byte[]{'"', 'a', (byte) 0xFF, (byte) 0xC3, 'b', '"'}));
+        assertEquals("a\uFFFD\uFFFDb", lexer.yylex().value);
+    }
+
+    public void testSameTokensAsYylex() throws Exception {
+        String s = "[0, -12, 3.5, -0.25e+3, 1E2, 9223372036854775807, true, false, null, \"\\a\\u12\", {\"k\": \"v\"}]";
+        Yylex yylex = new Yylex(new StringReader(s));
+        Utf8Lexer utf8Lexer = lexer(s);
+
+        List<String> expected = new ArrayList<>();
+        List<String> actual = new ArrayList<>();
+        for (Yytoken token; (token = yylex.yylex()) != null; )
+            expected.add(token + "@" + yylex.getPosition());
+        for (Yytoken token; (token = utf8Lexer.yylex()) != null; )
+            actual.add(token + "@" + utf8Lexer.getPosition());
+        assertEquals(expected, actual);
+    }
+
+    public void testWordAtATimeScanning() throws Exception {
+        String[] specials = {"\\\"", "\\\\", "\\n", "\\u0041", "é", "世", "\uD83D\uDE00"};
+        JSONParser parser = new JSONParser();
+        for (int length = 0; length < 40; length++) {
+            for (String special : specials) {
+                for (int at = 0; at <= length; at++) {
+                    String body = "a".repeat(at) + special + "b".repeat(length - at);
+                    String json = "[\"" + "x".repeat(length) + "\", \"" + body + "\"]";
+                    Object expected = parser.parse(json);
+                    byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+
+                    assertEquals(json, expected, parser.parse(bytes));
+                    assertEquals(json, expected, parser.parse(ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN)));
+                    assertEquals(json, expected, parser.parse(ByteBuffer.wrap(bytes).asReadOnlyBuffer()));
+                    assertEquals(json, expected, parser.parseLazy(bytes));
+                }
+            }
+        }
+    }
+
+    public void testMappedWindows() throws Exception {
+        String s = "{\"first\": 123, \"second\": [4, -5.5e-3, {\"ключ\": \"значение \\\" \\u0041\"}], \"third\": null,"
+                + " \"fourth\": true, \"fifth\": false, \"" + "long".repeat(20) + "\": 12345678901234567890e-3}   ";
+        Path file = Files.createTempFile("json-simple", ".json");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(("garbage" + s).getBytes(StandardCharsets.UTF_8)));
+            channel.position(7);
+
+            List<String> expected = new ArrayList<>();
+            Utf8Lexer whole = lexer(s);
+            for (Yytoken token; (token = whole.yylex()) != null; )
+                expected.add(token + "@" + whole.getPosition());
+
+            // windows smaller than most tokens, so that many tokens cross a window end
+            for (int windowSize = 4; windowSize <= 64; windowSize++) {
+                Utf8Lexer lexer = new Utf8Lexer();
+                lexer.reset(new MappedInput(channel, windowSize));
+                List<String> actual = new ArrayList<>();
+                for (Yytoken token; (token = lexer.yylex()) != null; )
+                    actual.add(token + "@" + lexer.getPosition());
+                assertEquals("window " + windowSize, expected, actual);
+            }
+            assertEquals(7, channel.position());
+
+            JSONParser parser = new JSONParser();
+            assertEquals(parser.parse(s), parser.parse(channel));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    public void testParseBytes() throws Exception {
+        String s = "{\"first\": 123, \"second\": [4, 5.5, {\"ключ\": \"значение\"}], \"third\": null}";
+        JSONParser parser = new JSONParser();
+        Object expected = parser.parse(s);
+
+        assertEquals(expected, parser.parse(s.getBytes(StandardCharsets.UTF_8)));
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(s.length() * 4);
+        direct.put(s.getBytes(StandardCharsets.UTF_8)).flip();
+        JSONObject object = (JSONObject) parser.parse(direct);
+        assertEquals(expected, object);
+        assertEquals(0, direct.position());
+        assertTrue(object.array("second") instanceof JSONArray);
+
+        try {
+            parser.parse("{\"name\":".getBytes(StandardCharsets.UTF_8));
+            fail();
+        } catch (ParseException pe) {
+            assertEquals(ParseException.ERROR_UNEXPECTED_TOKEN, pe.getErrorType());
+            assertEquals(8, pe.getPosition());
+        }
+    }
+}
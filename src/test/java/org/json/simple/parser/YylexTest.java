@@ -68,4 +68,47 @@ public class YylexTest extends TestCase {
         assertNotNull(err);
     }
 
+    public void testSkipToken() throws Exception {
+        Yylex lexer = new Yylex(new StringReader("\"a\\u0041\\n\" 12.5 \"b\" 123456789012345678901"));
+        assertEquals(Yytoken.TYPE_VALUE, lexer.skipToken());
+        assertEquals("", lexer.getValue());
+        assertEquals(Yytoken.TYPE_VALUE, lexer.skipToken());
+        assertNull(lexer.getValue());
+        assertEquals(Yytoken.TYPE_VALUE, lexer.nextToken());
+        assertEquals("b", lexer.getValue());
+        try {
+            lexer.skipToken();
+            fail();
+        } catch (ParseException e) {
+            // out of the long range, reported even if the number is skipped
+            assertEquals(ParseException.ERROR_UNEXPECTED_EXCEPTION, e.getErrorType());
+        }
+    }
+
+    public void testResetInputs() throws Exception {
+        // a short sequence is copied into an array of its length, which a reader and longer sequences replace
+        String longString = "\"" + "x".repeat(40000) + "\"";
+        Yylex lexer = new Yylex(null);
+        for (Object input : new Object[]{"1", "[12]", new StringBuilder("\"ab\""), longString, "2",
+                new StringReader(longString), "true", "\"" + "y".repeat(10000) + "\"", new StringReader(" null")}) {
+            if (input instanceof StringReader reader)
+                lexer.yyreset(reader);
+            else
+                lexer.yyreset((CharSequence) input);
+            String text = input instanceof StringReader ? null : input.toString();
+            int type = lexer.nextToken();
+            if (text != null && text.startsWith("[")) {
+                assertEquals(Yytoken.TYPE_LEFT_SQUARE, type);
+                assertEquals(Yytoken.TYPE_VALUE, lexer.nextToken());
+                assertEquals(12L, lexer.getValue());
+                assertEquals(Yytoken.TYPE_RIGHT_SQUARE, lexer.nextToken());
+            } else {
+                assertEquals(Yytoken.TYPE_VALUE, type);
+                if (text != null)
+                    assertEquals(new JSONParser().parse(text), lexer.getValue());
+            }
+            assertEquals(Yytoken.TYPE_EOF, lexer.nextToken());
+        }
+    }
+
 }